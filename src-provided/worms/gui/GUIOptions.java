@@ -25,4 +25,12 @@ public class GUIOptions {
 	 * Can also be enabled from the command line with the -clickselect argument
 	 */
 	public boolean enableClickToSelect = false;
+
+	/**
+	 * File to record a journal of the game in, for replaying it without the GUI
+	 * Default: null (no journal)
+	 *
+	 * Can also be set from the command line with the -journal argument
+	 */
+	public String journalFile = null;
 }
\ No newline at end of file
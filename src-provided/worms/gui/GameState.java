@@ -1,10 +1,13 @@
 package worms.gui;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
 import worms.gui.game.commands.Command;
+import worms.gui.game.commands.CommandJournal;
 import worms.gui.game.commands.CommandProcessor;
 import worms.model.IFacade;
 import worms.model.World;
@@ -12,6 +15,7 @@ import worms.model.Worm;
 
 public class GameState {
 
+	private final long randomSeed;
 	private final Random random;
 	private final IFacade facade;
 	private final CommandProcessor commandProcessor = new CommandProcessor();
@@ -20,7 +24,10 @@ public class GameState {
 
 	private final Level level;
 
+	private CommandJournal journal;
+
 	public GameState(IFacade facade, long randomSeed, Level level) {
+		this.randomSeed = randomSeed;
 		this.random = new Random(randomSeed);
 		this.facade = facade;
 		this.level = level;
@@ -48,6 +55,37 @@ public class GameState {
 		commandProcessor.enqueueCommand(cmd);
 	}
 
+	public long getRandomSeed() {
+		return randomSeed;
+	}
+
+	/**
+	 * Records the game in a journal written to the given stream, from now on.
+	 * Call this before any worms are added to record a complete game.
+	 */
+	public void startJournal(OutputStream out) throws IOException {
+		journal = new CommandJournal(this, out);
+		commandProcessor.setJournal(journal);
+	}
+
+	/**
+	 * Returns the journal this game is recorded in, or null if it is not
+	 * recorded.
+	 */
+	public CommandJournal getJournal() {
+		return journal;
+	}
+
+	/**
+	 * Stops recording this game and closes the stream of its journal, if it
+	 * is recorded.
+	 */
+	public void closeJournal() {
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
 	public Level getLevel() {
 		return level;
 	}
@@ -3,19 +3,61 @@ package worms.gui;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import javax.imageio.ImageIO;
 
+import worms.model.terrain.TerrainGrid;
+
 public class Level {
 
 	private static final String LEVEL_FILE_EXTENSION = ".lvl";
 	private static final String LEVELS_DIRECTORY = "levels";
 
+	/**
+	 * Compiled levels are stored next to their level file, with this
+	 * extension. A compiled level holds the packed passable map, the
+	 * dimensions of the map and the scale, so loading it needs no PNG
+	 * decoding.
+	 */
+	private static final String COMPILED_FILE_EXTENSION = ".lvlbin";
+	private static final int COMPILED_MAGIC = 0x574C5642;
+	private static final byte COMPILED_VERSION = 1;
+	private static final int COMPILED_HEADER_SIZE = 21;
+
+	private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+	private static final int PNG_IHDR = 0x49484452;
+
+	/**
+	 * Levels are loaded in the background one at a time, on a single daemon
+	 * thread, so the GUI stays responsive and never waits for it to exit.
+	 */
+	private static final ExecutorService BACKGROUND_LOADER = Executors
+			.newSingleThreadExecutor(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "level loader");
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+
 	private static class LoadException extends RuntimeException {
 
 		private static final long serialVersionUID = 1L;
@@ -52,9 +94,27 @@ public class Level {
 	}
 
 	private final File file;
-	private BufferedImage mapImage;
 
+	/**
+	 * The header of a level (its map file, the dimensions of its map and its
+	 * scale) is read without decoding any pixels, guarded by this level.
+	 */
+	private File mapFile;
+	private boolean compiled;
+	private int mapWidth;
+	private int mapHeight;
 	private double scale;
+	private boolean headerLoaded;
+
+	/**
+	 * The passable map and the map image are loaded at most once, guarded by
+	 * the load lock so that reading the header never waits for a decode.
+	 */
+	private final Object loadLock = new Object();
+	private BufferedImage mapImage;
+	private TerrainGrid terrain;
+	private boolean loaded;
+	private Future<?> backgroundLoad;
 
 	public Level(File file) {
 		this.file = file;
@@ -64,26 +124,219 @@ public class Level {
 		return file.getName().substring(0, file.getName().length() - 4);
 	}
 
-	public void load() {
+	/**
+	 * Reads the header of this level, from its compiled level if that is
+	 * fresh and from the IHDR chunk of its map image otherwise. Does nothing
+	 * if the header has been read before.
+	 */
+	public synchronized void loadHeader() {
+		if (headerLoaded) {
+			return;
+		}
 		try {
 			BufferedReader reader = new BufferedReader(new FileReader(file));
-			readFile(reader);
-			reader.close();
+			try {
+				readFile(reader);
+			} finally {
+				reader.close();
+			}
 		} catch (Exception e) {
-			throw new LoadException("Could not load world from file "
+			throw new LoadException("Could not load level header from file "
 					+ file.getAbsolutePath(), e);
 		}
+		headerLoaded = true;
+	}
+
+	/**
+	 * Loads the passable map of this level, from its compiled level if that
+	 * is fresh and by decoding its map image otherwise. Does nothing if this
+	 * level has been loaded before; waits for a load in the background that
+	 * is in progress.
+	 */
+	public void load() {
+		loadHeader();
+		synchronized (loadLock) {
+			if (loaded) {
+				return;
+			}
+			try {
+				if (!isCompiled() || !readCompiledFile(true)) {
+					mapImage = ImageIO.read(getMapFile());
+					if (mapImage.getWidth() != getMapWidth()
+							|| mapImage.getHeight() != getMapHeight()) {
+						throw new IOException("map image changed while loading");
+					}
+				}
+			} catch (Exception e) {
+				throw new LoadException("Could not load world from file "
+						+ file.getAbsolutePath(), e);
+			}
+			loaded = true;
+		}
+	}
+
+	/**
+	 * Loads this level and decodes its map image in the background. Errors
+	 * are ignored here, a later load reports them.
+	 */
+	public synchronized Future<?> loadInBackground() {
+		if (backgroundLoad == null) {
+			backgroundLoad = BACKGROUND_LOADER.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						load();
+						getMapImage();
+					} catch (LoadException e) {
+						// reported again by the next load
+					}
+				}
+			});
+		}
+		return backgroundLoad;
+	}
+
+	public boolean isLoaded() {
+		synchronized (loadLock) {
+			return loaded;
+		}
 	}
 
 	protected void readFile(BufferedReader reader) throws IOException {
-		this.mapImage = ImageIO.read(new File(file.getParentFile(),
-				readAsKeyVal(reader, "map")));
+		this.mapFile = new File(file.getParentFile(), readAsKeyVal(reader,
+				"map"));
+		this.compiled = isCompiledFileFresh() && readCompiledFile(false);
+		if (compiled) {
+			return;
+		}
+		readMapImageHeader();
 		try {
 			double height = Double.parseDouble(readAsKeyVal(reader, "height"));
-			this.scale = height / mapImage.getHeight();
+			this.scale = height / mapHeight;
 		} catch (IllegalArgumentException e) {
 			double width = Double.parseDouble(readAsKeyVal(reader, "width"));
-			this.scale = width / mapImage.getWidth();
+			this.scale = width / mapWidth;
+		}
+	}
+
+	/**
+	 * Reads the dimensions of the map from the IHDR chunk, the first chunk of
+	 * every PNG image. Maps in another format are decoded instead.
+	 */
+	private void readMapImageHeader() throws IOException {
+		DataInputStream in = new DataInputStream(new FileInputStream(mapFile));
+		try {
+			if (in.readLong() == PNG_SIGNATURE && in.readInt() >= 8
+					&& in.readInt() == PNG_IHDR) {
+				this.mapWidth = in.readInt();
+				this.mapHeight = in.readInt();
+				return;
+			}
+		} finally {
+			in.close();
+		}
+		BufferedImage image = ImageIO.read(mapFile);
+		this.mapWidth = image.getWidth();
+		this.mapHeight = image.getHeight();
+	}
+
+	private synchronized File getMapFile() {
+		return mapFile;
+	}
+
+	private synchronized boolean isCompiled() {
+		return compiled;
+	}
+
+	public File getCompiledFile() {
+		return new File(file.getParentFile(), getName()
+				+ COMPILED_FILE_EXTENSION);
+	}
+
+	/**
+	 * The compiled level is only used if it is at least as recent as both
+	 * the level file and the map image.
+	 */
+	public boolean isCompiledFileFresh() {
+		File compiled = getCompiledFile();
+		File mapFile = getMapFile();
+		return compiled.isFile()
+				&& compiled.lastModified() >= file.lastModified()
+				&& (mapFile == null || compiled.lastModified() >= mapFile
+						.lastModified());
+	}
+
+	/**
+	 * Reads the compiled level through a memory-mapped file, its header into
+	 * the header of this level or its packed passable map into the terrain
+	 * of this level. Returns false, leaving this level unchanged, if the
+	 * compiled level is not valid or does not match the header.
+	 */
+	private boolean readCompiledFile(boolean readTerrain) throws IOException {
+		RandomAccessFile in = new RandomAccessFile(getCompiledFile(), "r");
+		try {
+			FileChannel channel = in.getChannel();
+			if (channel.size() < COMPILED_HEADER_SIZE) {
+				return false;
+			}
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					channel.size());
+			if (buffer.getInt() != COMPILED_MAGIC
+					|| buffer.get() != COMPILED_VERSION) {
+				return false;
+			}
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			double scale = buffer.getDouble();
+			if (!TerrainGrid.isValidDimension(width)
+					|| !TerrainGrid.isValidDimension(height)
+					|| buffer.remaining() != 8L * height * ((width + 63) / 64)) {
+				return false;
+			}
+			if (!readTerrain) {
+				this.mapWidth = width;
+				this.mapHeight = height;
+				this.scale = scale;
+				return true;
+			}
+			if (width != getMapWidth() || height != getMapHeight()) {
+				return false;
+			}
+			this.terrain = new TerrainGrid(height, width, buffer.asLongBuffer());
+			return true;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes the compiled level of this loaded level next to its level file.
+	 */
+	public void writeCompiledFile() throws IOException {
+		load();
+		TerrainGrid terrain;
+		synchronized (loadLock) {
+			terrain = (this.terrain != null) ? this.terrain
+					: new TerrainGrid(getPassableMap());
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(COMPILED_HEADER_SIZE + 8
+				* terrain.getNbWords());
+		buffer.putInt(COMPILED_MAGIC);
+		buffer.put(COMPILED_VERSION);
+		buffer.putInt(getMapWidth());
+		buffer.putInt(getMapHeight());
+		buffer.putDouble(getScale());
+		terrain.writeTo(buffer.asLongBuffer());
+		buffer.rewind();
+		FileOutputStream out = new FileOutputStream(getCompiledFile());
+		try {
+			FileChannel channel = out.getChannel();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			out.close();
 		}
 	}
 
@@ -106,16 +359,33 @@ public class Level {
 		return value;
 	}
 
+	/**
+	 * The map image is only decoded when it is needed, a level loaded from
+	 * its compiled level has none yet.
+	 */
 	public BufferedImage getMapImage() {
-		return mapImage;
+		load();
+		synchronized (loadLock) {
+			if (mapImage == null) {
+				try {
+					mapImage = ImageIO.read(getMapFile());
+				} catch (IOException e) {
+					throw new LoadException("Could not load map image "
+							+ getMapFile().getAbsolutePath(), e);
+				}
+			}
+			return mapImage;
+		}
 	}
 
-	public int getMapHeight() {
-		return mapImage.getHeight();
+	public synchronized int getMapHeight() {
+		loadHeader();
+		return mapHeight;
 	}
 
-	public int getMapWidth() {
-		return mapImage.getWidth();
+	public synchronized int getMapWidth() {
+		loadHeader();
+		return mapWidth;
 	}
 
 	/**
@@ -123,22 +393,29 @@ public class Level {
 	 * 
 	 * @return
 	 */
-	public double getScale() {
+	public synchronized double getScale() {
+		loadHeader();
 		return scale;
 	}
 
 	public double getWorldWidth() {
-		return scale * mapImage.getWidth();
+		return getScale() * getMapWidth();
 	}
 
 	public double getWorldHeight() {
-		return scale * mapImage.getHeight();
+		return getScale() * getMapHeight();
 	}
 
 	public boolean[][] getPassableMap() {
+		load();
+		synchronized (loadLock) {
+			if (terrain != null) {
+				return terrain.toPassableMap();
+			}
+		}
 		final boolean[][] result = new boolean[getMapHeight()][getMapWidth()];
-		final byte[] bytes = ((DataBufferByte) mapImage.getRaster().getDataBuffer())
-				.getData();
+		final byte[] bytes = ((DataBufferByte) getMapImage().getRaster()
+				.getDataBuffer()).getData();
 		final int w = getMapWidth();
 		final int h = getMapHeight();
 		for (int row = 0; row < h; row++) {
@@ -0,0 +1,37 @@
+package worms.gui;
+
+import java.io.IOException;
+
+/**
+ * Writes the compiled level of every available level (or of the levels
+ * with the given names) next to its level file.
+ * 
+ * Levels prefer their compiled level over their map image as long as the
+ * compiled level is at least as recent as the level file and the map image,
+ * so the compiler has to be run again after a level or its map changes.
+ */
+public class LevelCompiler {
+
+	public static void main(String[] args) throws IOException {
+		for (Level level : Level.getAvailableLevels()) {
+			if (args.length > 0 && !contains(args, level.getName())) {
+				continue;
+			}
+			long start = System.nanoTime();
+			level.load();
+			level.writeCompiledFile();
+			System.out.printf("%s: %dx%d, %.1f ms -> %s%n", level.getName(),
+					level.getMapWidth(), level.getMapHeight(),
+					(System.nanoTime() - start) / 1e6, level.getCompiledFile());
+		}
+	}
+
+	private static boolean contains(String[] names, String name) {
+		for (String each : names) {
+			if (each.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
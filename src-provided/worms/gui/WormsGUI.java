@@ -59,6 +59,7 @@ public class WormsGUI {
 	}
 
 	public void exit() {
+		switchToScreen(null);
 		window.dispose();
 		System.exit(0);
 	}
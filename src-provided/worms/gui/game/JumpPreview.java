@@ -0,0 +1,112 @@
+package worms.gui.game;
+
+import worms.gui.GUIConstants;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Worm;
+
+/**
+ * The sampled jump trajectory of a worm, as shown by the jump markers.
+ *
+ * Computing the jump time is expensive, so the trajectory is kept until the
+ * position, orientation, action points or mass of the worm change.
+ */
+public class JumpPreview {
+
+	private final double x;
+	private final double y;
+	private final double orientation;
+	private final int actionPoints;
+	private final double mass;
+
+	private final double jumpTime;
+	private final double[][] points;
+
+	private JumpPreview(double x, double y, double orientation,
+			int actionPoints, double mass, double jumpTime, double[][] points) {
+		this.x = x;
+		this.y = y;
+		this.orientation = orientation;
+		this.actionPoints = actionPoints;
+		this.mass = mass;
+		this.jumpTime = jumpTime;
+		this.points = points;
+	}
+
+	/**
+	 * Returns the jump preview of the given worm, reusing the given preview if
+	 * the worm did not change since it was computed.
+	 *
+	 * @param previous
+	 *            The last preview of the worm, or null.
+	 * @param timeDistance
+	 *            The time (in worm-seconds) between two sampled points.
+	 */
+	public static JumpPreview get(IFacade facade, Worm worm,
+			JumpPreview previous, double timeDistance) {
+		double x = facade.getX(worm);
+		double y = facade.getY(worm);
+		double orientation = facade.getOrientation(worm);
+		int actionPoints = facade.getActionPoints(worm);
+		double mass = facade.getMass(worm);
+		if (previous != null && previous.x == x && previous.y == y
+				&& previous.orientation == orientation
+				&& previous.actionPoints == actionPoints
+				&& previous.mass == mass) {
+			return previous;
+		}
+
+		double time;
+		double[][] points;
+		try {
+			time = facade.getJumpTime(worm, GUIConstants.JUMP_TIME_STEP);
+			int n = 1 + (int) (time / timeDistance);
+			points = new double[n][];
+			for (int i = 1; i <= n; i++) {
+				points[i - 1] = facade.getJumpStep(worm, i * time / n);
+			}
+		} catch (ModelException e) {
+			// cannot jump
+			time = 0;
+			points = null;
+		}
+		return new JumpPreview(x, y, orientation, actionPoints, mass, time,
+				points);
+	}
+
+	/**
+	 * Returns whether the worm can jump.
+	 */
+	public boolean canJump() {
+		return points != null;
+	}
+
+	/**
+	 * Returns the time (in worm-seconds) until the worm lands.
+	 */
+	public double getJumpTime() {
+		return jumpTime;
+	}
+
+	/**
+	 * Returns the location of the worm when the preview was computed.
+	 */
+	public double[] getStart() {
+		return new double[] { x, y };
+	}
+
+	/**
+	 * Returns the number of sampled points on the trajectory.
+	 */
+	public int getNbPoints() {
+		return points == null ? 0 : points.length;
+	}
+
+	/**
+	 * Returns the i'th sampled point on the trajectory (as an array with the x-
+	 * and y-coordinate), or null if the model returned no location for it.
+	 */
+	public double[] getPoint(int i) {
+		return points[i];
+	}
+}
@@ -5,7 +5,9 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -44,6 +46,7 @@ public class PlayGameScreen extends Screen {
 	private final GameState gameState;
 
 	private final Set<Sprite<?>> sprites = new HashSet<Sprite<?>>();
+	private final Map<Object, Sprite<?>> spritesByObject = new HashMap<Object, Sprite<?>>();
 
 	public PlayGameScreen(WormsGUI gui, GameState state) {
 		super(gui);
@@ -96,9 +99,16 @@ public class PlayGameScreen extends Screen {
 						+ "\n\nPress 'R' to start another game, or 'ESC' to quit.",
 				MessageType.NORMAL);
 		timer.stop();
+		getGameState().closeJournal();
 		switchInputMode(new GameOverMode(this, getCurrentInputMode()));
 	}
 
+	@Override
+	public void screenStopped() {
+		getGameState().closeJournal();
+		super.screenStopped();
+	}
+
 	public void updateSprites() {
 		removeInactiveSprites();
 		addNewSprites();
@@ -190,10 +200,9 @@ public class PlayGameScreen extends Screen {
 		if (object == null) {
 			return null;
 		}
-		for (SpriteType sprite : getSpritesOfType(type)) {
-			if (object.equals(sprite.getObject())) {
-				return sprite;
-			}
+		Sprite<?> sprite = spritesByObject.get(object);
+		if (type.isInstance(sprite)) {
+			return type.cast(sprite);
 		}
 		return null;
 	}
@@ -293,10 +302,21 @@ public class PlayGameScreen extends Screen {
 
 	public void addSprite(Sprite<?> sprite) {
 		sprites.add(sprite);
+		Object object = sprite.getObject();
+		if (object != null) {
+			spritesByObject.put(object, sprite);
+		}
 	}
 
 	public void removeSprite(Sprite<?> sprite) {
+		if (sprite == null) {
+			return;
+		}
 		sprites.remove(sprite);
+		Object object = sprite.getObject();
+		if (object != null && spritesByObject.get(object) == sprite) {
+			spritesByObject.remove(object);
+		}
 	}
 
 	/**
@@ -393,7 +413,7 @@ public class PlayGameScreen extends Screen {
 
 	public <T, S extends Sprite<T>> void removeSpriteFor(Class<S> type, T object) {
 		S sprite = getSpriteOfTypeFor(type, object);
-		sprites.remove(sprite);
+		removeSprite(sprite);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -408,6 +428,9 @@ public class PlayGameScreen extends Screen {
 					@Override
 					public void onNameEntered(String newName) {
 						try {
+							if (getGameState().getJournal() != null) {
+								getGameState().getJournal().recordAddTeam(newName);
+							}
 							getFacade().addEmptyTeam(getWorld(), newName);
 							addMessage("Team " + newName + " created.",
 									MessageType.NORMAL);
@@ -420,16 +443,25 @@ public class PlayGameScreen extends Screen {
 	}
 
 	public void addWorm() {
+		if (getGameState().getJournal() != null) {
+			getGameState().getJournal().recordAddWorm();
+		}
 		getFacade().addNewWorm(getWorld());
 		updateSprites();
 	}
 
 	public void addFood() {
+		if (getGameState().getJournal() != null) {
+			getGameState().getJournal().recordAddFood();
+		}
 		getFacade().addNewFood(getWorld());
 		updateSprites();
 	}
 
 	public void startGame() {
+		if (getGameState().getJournal() != null) {
+			getGameState().getJournal().recordStartGame();
+		}
 		getFacade().startGame(getWorld());
 		switchInputMode(new DefaultInputMode(this, getCurrentInputMode()));
 		if (getFacade().isGameFinished(getWorld())) {
@@ -9,13 +9,11 @@ import java.awt.geom.Ellipse2D.Double;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
-import worms.gui.GUIConstants;
 import worms.gui.GUIUtils;
 import worms.gui.Level;
 import worms.gui.game.commands.Command;
 import worms.gui.game.sprites.FoodSprite;
 import worms.gui.game.sprites.WormSprite;
-import worms.model.ModelException;
 import worms.model.World;
 
 public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
@@ -138,32 +136,24 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 
 	@Override
 	protected void drawJumpMarkers(WormSprite sprite) {
-		try {
-			double currentWormX = getFacade().getX(sprite.getWorm());
-			double currentWormY = getFacade().getY(sprite.getWorm());
-
-			double[] prevXY = new double[] { currentWormX, currentWormY };
-
-			double time = getFacade().getJumpTime(sprite.getWorm(),
-					GUIConstants.JUMP_TIME_STEP);
-			int n = 1 + (int) (time / JUMP_MARKER_TIME_DISTANCE);
-			for (int i = 1; i <= n; i++) {
-				double dt = i * time / n;
-				double[] xy = getFacade().getJumpStep(sprite.getWorm(), dt);
-				if (xy != null && prevXY != null) {
-					double jumpX = getScreenX(xy[0]);
-					double jumpY = getScreenY(xy[1]);
-					currentGraphics.setColor(JUMP_MARKER_COLOR);
-					currentGraphics.drawLine((int) getScreenX(prevXY[0]),
-							(int) getScreenY(prevXY[1]), (int) jumpX,
-							(int) jumpY);
-					prevXY = xy;
-					drawCrossMarker(jumpX, jumpY, JUMP_MARKER_SIZE,
-							JUMP_MARKER_COLOR);
-				}
+		JumpPreview preview = getJumpPreview(sprite.getWorm());
+
+		double[] prevXY = preview.getStart();
+
+		// cannot jump: no points, draw nothing
+		for (int i = 0; i < preview.getNbPoints(); i++) {
+			double[] xy = preview.getPoint(i);
+			if (xy != null && prevXY != null) {
+				double jumpX = getScreenX(xy[0]);
+				double jumpY = getScreenY(xy[1]);
+				currentGraphics.setColor(JUMP_MARKER_COLOR);
+				currentGraphics.drawLine((int) getScreenX(prevXY[0]),
+						(int) getScreenY(prevXY[1]), (int) jumpX,
+						(int) jumpY);
+				prevXY = xy;
+				drawCrossMarker(jumpX, jumpY, JUMP_MARKER_SIZE,
+						JUMP_MARKER_COLOR);
 			}
-		} catch (ModelException e) {
-			// cannot jump; draw nothing
 		}
 	}
 
@@ -9,11 +9,12 @@ import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
 
 import worms.gui.AbstractPainter;
-import worms.gui.GUIConstants;
 import worms.gui.GUIUtils;
 import worms.gui.GameState;
 import worms.gui.Level;
@@ -68,6 +69,7 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 
 	protected Graphics2D currentGraphics;
 	private Image scaledImage;
+	private final Map<Worm, JumpPreview> jumpPreviews = new HashMap<Worm, JumpPreview>();
 
 	public PlayGameScreenPainter(PlayGameScreen screen) {
 		super(screen);
@@ -305,23 +307,28 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 		graphics.fill(directionIndicator);
 	}
 
+	/**
+	 * Returns the jump preview of the given worm, computing it again only if
+	 * the worm changed since the last frame.
+	 */
+	protected JumpPreview getJumpPreview(Worm worm) {
+		JumpPreview preview = JumpPreview.get(getFacade(), worm,
+				jumpPreviews.get(worm), JUMP_MARKER_TIME_DISTANCE);
+		jumpPreviews.put(worm, preview);
+		return preview;
+	}
+
 	protected void drawJumpMarkers(WormSprite sprite) {
-		try {
-			double time = getFacade().getJumpTime(sprite.getWorm(),
-					GUIConstants.JUMP_TIME_STEP);
-			int n = 1 + (int) (time / JUMP_MARKER_TIME_DISTANCE);
-			for (int i = 1; i <= n; i++) {
-				double dt = i * time / n;
-				double[] xy = getFacade().getJumpStep(sprite.getWorm(), dt);
-				if (xy != null) {
-					double jumpX = getScreenX(xy[0]);
-					double jumpY = getScreenY(xy[1]);
-					drawCrossMarker(jumpX, jumpY, JUMP_MARKER_SIZE,
-							JUMP_MARKER_COLOR);
-				}
+		JumpPreview preview = getJumpPreview(sprite.getWorm());
+		// cannot jump: no points, draw nothing
+		for (int i = 0; i < preview.getNbPoints(); i++) {
+			double[] xy = preview.getPoint(i);
+			if (xy != null) {
+				double jumpX = getScreenX(xy[0]);
+				double jumpY = getScreenY(xy[1]);
+				drawCrossMarker(jumpX, jumpY, JUMP_MARKER_SIZE,
+						JUMP_MARKER_COLOR);
 			}
-		} catch (ModelException e) {
-			// cannot jump; draw nothing
 		}
 	}
 
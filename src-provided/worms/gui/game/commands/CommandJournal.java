@@ -0,0 +1,104 @@
+package worms.gui.game.commands;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import worms.gui.GameState;
+import worms.model.Worm;
+import worms.replay.JournalEntry;
+import worms.replay.JournalWriter;
+import worms.replay.WormNumbers;
+
+/**
+ * Records the setup of a game and every enqueued command in a journal that
+ * can be replayed without the GUI by a {@link worms.replay.ReplayEngine}.
+ *
+ * Recording stops at the first error writing the journal; the game itself is
+ * not affected.
+ */
+public class CommandJournal {
+
+	private final GameState gameState;
+	private final WormNumbers wormNumbers = new WormNumbers();
+	private JournalWriter writer;
+
+	public CommandJournal(GameState gameState, OutputStream out)
+			throws IOException {
+		this.gameState = gameState;
+		this.writer = new JournalWriter(out, gameState.getRandomSeed(),
+				gameState.getLevel().getName(), true);
+	}
+
+	public void recordAddWorm() {
+		write(JournalEntry.ADD_WORM, null, 0, 0, null);
+	}
+
+	public void recordAddFood() {
+		write(JournalEntry.ADD_FOOD, null, 0, 0, null);
+	}
+
+	public void recordAddTeam(String name) {
+		write(JournalEntry.ADD_TEAM, null, 0, 0, name);
+	}
+
+	public void recordStartGame() {
+		write(JournalEntry.START_GAME, null, 0, 0, null);
+	}
+
+	public void record(Command cmd) {
+		if (cmd instanceof Turn) {
+			Turn turn = (Turn) cmd;
+			write(JournalEntry.TURN, turn.getWorm(), turn.getAngle(), 0, null);
+		} else if (cmd instanceof Move) {
+			write(JournalEntry.MOVE, ((Move) cmd).getWorm(), 0, 0, null);
+		} else if (cmd instanceof Jump) {
+			write(JournalEntry.JUMP, ((Jump) cmd).getWorm(), 0, 0, null);
+		} else if (cmd instanceof Shoot) {
+			Shoot shoot = (Shoot) cmd;
+			write(JournalEntry.SHOOT, shoot.getWorm(), 0,
+					shoot.getPropulsionYield(), null);
+		} else if (cmd instanceof SelectNextWeapon) {
+			write(JournalEntry.SELECT_NEXT_WEAPON,
+					((SelectNextWeapon) cmd).getWorm(), 0, 0, null);
+		} else if (cmd instanceof Rename) {
+			Rename rename = (Rename) cmd;
+			write(JournalEntry.RENAME, rename.getWorm(), 0, 0,
+					rename.getNewName());
+		} else if (cmd instanceof SelectNextWorm) {
+			write(JournalEntry.SELECT_NEXT_WORM, null, 0, 0, null);
+		}
+	}
+
+	public void close() {
+		if (writer != null) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			writer = null;
+		}
+	}
+
+	private void write(byte kind, Worm worm, double angle, int yield,
+			String name) {
+		if (writer == null) {
+			return;
+		}
+		int number = -1;
+		if (JournalEntry.concernsWorm(kind)) {
+			if (worm == null) {
+				// the command will not start
+				return;
+			}
+			number = wormNumbers.getNumber(gameState.getFacade(),
+					gameState.getWorld(), worm);
+		}
+		try {
+			writer.write(new JournalEntry(kind, number, angle, yield, name));
+		} catch (IOException e) {
+			e.printStackTrace();
+			close();
+		}
+	}
+}
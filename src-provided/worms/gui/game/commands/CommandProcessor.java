@@ -7,8 +7,16 @@ import java.util.Queue;
 public class CommandProcessor {
 	private Queue<Command> commandQueue = new LinkedList<Command>();
 	private Command executingCommand;
+	private CommandJournal journal;
+
+	public void setJournal(CommandJournal journal) {
+		this.journal = journal;
+	}
 
 	public void enqueueCommand(Command cmd) {
+		if (journal != null) {
+			journal.record(cmd);
+		}
 		commandQueue.add(cmd);
 	}
 
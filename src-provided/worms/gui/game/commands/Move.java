@@ -7,7 +7,9 @@ import worms.gui.game.sprites.WormSprite;
 import worms.gui.messages.MessageType;
 import worms.model.IFacade;
 import worms.model.ModelException;
+import worms.model.MovePlan;
 import worms.model.Worm;
+import worms.model.position.Position;
 
 public class Move extends Command {
 
@@ -18,6 +20,9 @@ public class Move extends Command {
 	private double finalY;
 	private boolean finished;
 
+	private double[] pathX;
+	private double[] pathY;
+
 	private boolean isFalling;
 	private double fallingStartTime = -1;
 
@@ -55,8 +60,12 @@ public class Move extends Command {
 		if (getElapsedTime() < getDuration()) {
 			double t = getElapsedTime() / getDuration();
 			t = t * t * (3 - 2 * t); // smooth-step interpolation
-			double x = (1.0 - t) * startX + t * finalX;
-			double y = (1.0 - t) * startY + t * finalY;
+			// follow the planned path, one segment per step
+			double s = t * (pathX.length - 1);
+			int segment = Math.min((int) s, pathX.length - 2);
+			double u = s - segment;
+			double x = (1.0 - u) * pathX[segment] + u * pathX[segment + 1];
+			double y = (1.0 - u) * pathY[segment] + u * pathY[segment + 1];
 			sprite.setCenterLocation(x, y);
 		} else {
 			fall(dt);
@@ -139,11 +148,23 @@ public class Move extends Command {
 		try {
 			this.startX = getScreen().getScreenX(getFacade().getX(getWorm()));
 			this.startY = getScreen().getScreenY(getFacade().getY(getWorm()));
-			getFacade().move(getWorm());
-			this.finalX = getScreen().getScreenX(getFacade().getX(getWorm()));
-			this.finalY = getScreen().getScreenY(getFacade().getY(getWorm()));
+			MovePlan plan = getFacade().planMove(getWorm(), 1);
+			this.pathX = new double[plan.getNbSteps() + 1];
+			this.pathY = new double[plan.getNbSteps() + 1];
+			pathX[0] = startX;
+			pathY[0] = startY;
+			for (int i = 0; i < plan.getNbSteps(); i++) {
+				Position position = plan.getPosition(i);
+				pathX[i + 1] = getScreen().getScreenX(position.getX());
+				pathY[i + 1] = getScreen().getScreenY(position.getY());
+			}
+			getFacade().move(getWorm(), plan);
+			this.finalX = pathX[pathX.length - 1];
+			this.finalY = pathY[pathY.length - 1];
 		} catch (ModelException e) {
 			e.printStackTrace();
+			this.pathX = new double[] { startX, startX };
+			this.pathY = new double[] { startY, startY };
 			afterExecutionCancelled();
 		}
 	}
@@ -17,6 +17,14 @@ public class Rename extends InstantaneousCommand {
 		this.newName = newName;
 	}
 
+	public Worm getWorm() {
+		return worm;
+	}
+
+	public String getNewName() {
+		return newName;
+	}
+
 	@Override
 	protected boolean canStart() {
 		return worm != null;
@@ -14,6 +14,10 @@ public class SelectNextWeapon extends InstantaneousCommand {
 		this.worm = worm;
 	}
 
+	public Worm getWorm() {
+		return worm;
+	}
+
 	@Override
 	protected boolean canStart() {
 		return worm != null;
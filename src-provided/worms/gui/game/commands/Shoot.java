@@ -4,10 +4,12 @@ import worms.gui.GUIConstants;
 import worms.gui.game.PlayGameScreen;
 import worms.gui.game.sprites.ProjectileSprite;
 import worms.gui.messages.MessageType;
+import worms.model.FlightPlan;
 import worms.model.IFacade;
 import worms.model.ModelException;
 import worms.model.Projectile;
 import worms.model.Worm;
+import worms.model.position.Position;
 
 public class Shoot extends Command {
 	private final Worm worm;
@@ -15,9 +17,14 @@ public class Shoot extends Command {
 
 	private final int propulsionYield;
 	private Projectile projectile;
+	private FlightPlan plan;
 	private double totalDuration;
 	private boolean hasJumped;
 
+	private double[] flightTimes;
+	private double[] flightX;
+	private double[] flightY;
+
 	public Shoot(IFacade facade, Worm worm, int propulsionYield,
 			PlayGameScreen screen) {
 		super(facade, screen);
@@ -25,6 +32,14 @@ public class Shoot extends Command {
 		this.propulsionYield = propulsionYield;
 	}
 
+	public Worm getWorm() {
+		return worm;
+	}
+
+	public int getPropulsionYield() {
+		return propulsionYield;
+	}
+
 	@Override
 	protected boolean canStart() {
 		return worm != null;
@@ -36,8 +51,19 @@ public class Shoot extends Command {
 			getFacade().shoot(worm, propulsionYield);
 			projectile = getFacade().getActiveProjectile(getWorld());
 			if (projectile != null) {
-				totalDuration = getFacade().getJumpTime(projectile,
+				plan = getFacade().planFlight(projectile,
 						GUIConstants.JUMP_TIME_STEP);
+				totalDuration = plan.getImpactTime();
+				int n = plan.getNbSamples();
+				flightTimes = new double[n];
+				flightX = new double[n];
+				flightY = new double[n];
+				for (int i = 0; i < n; i++) {
+					Position position = plan.getSample(i);
+					flightTimes[i] = plan.getSampleTime(i);
+					flightX[i] = getScreen().getScreenX(position.getX());
+					flightY[i] = getScreen().getScreenY(position.getY());
+				}
 				ProjectileSprite sprite = new ProjectileSprite(getScreen(),
 						projectile);
 				sprite.setCenterLocation(
@@ -71,18 +97,24 @@ public class Shoot extends Command {
 			if (getElapsedTime() >= totalDuration) {
 				if (!hasJumped) {
 					hasJumped = true;
-					getFacade().jump(projectile, GUIConstants.JUMP_TIME_STEP);
+					getFacade().jump(projectile, plan);
 					finished = true;
 				}
 			} else {
 				ProjectileSprite sprite = getScreen().getSpriteOfTypeFor(
 						ProjectileSprite.class, projectile);
 
-				double[] xy = getFacade().getJumpStep(projectile,
-						getElapsedTime());
+				// follow the planned flight, between the samples around now
+				double t = getElapsedTime();
+				int i = Math.min((int) (t / plan.getSampleInterval()),
+						flightTimes.length - 2);
+				double u = (t - flightTimes[i])
+						/ (flightTimes[i + 1] - flightTimes[i]);
+				u = Math.max(0, Math.min(u, 1));
 
-				sprite.setCenterLocation(getScreen().getScreenX(xy[0]),
-						getScreen().getScreenY(xy[1]));
+				sprite.setCenterLocation((1.0 - u) * flightX[i] + u
+						* flightX[i + 1], (1.0 - u) * flightY[i] + u
+						* flightY[i + 1]);
 			}
 		} catch (ModelException e) {
 			e.printStackTrace();
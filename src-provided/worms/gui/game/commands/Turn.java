@@ -15,6 +15,14 @@ public class Turn extends InstantaneousCommand {
 		this.angle = angle;
 	}
 
+	public Worm getWorm() {
+		return worm;
+	}
+
+	public double getAngle() {
+		return angle;
+	}
+
 	@Override
 	protected boolean canStart() {
 		return getFacade().canTurn(worm, angle);
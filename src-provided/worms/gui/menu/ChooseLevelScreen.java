@@ -14,9 +14,19 @@ class ChooseLevelScreen extends AbstractMenuScreen<Level> {
 		return Level.getAvailableLevels();
 	}
 
+	/**
+	 * Only the header of a level is read to display it, the selected level
+	 * is loaded in the background.
+	 */
 	@Override
 	protected String getDisplayName(Level level) {
-		return level.getName();
+		try {
+			return String.format("%s (%dx%d, %.0fx%.0f m)", level.getName(),
+					level.getMapWidth(), level.getMapHeight(),
+					level.getWorldWidth(), level.getWorldHeight());
+		} catch (RuntimeException e) {
+			return level.getName();
+		}
 	}
 
 	@Override
@@ -24,7 +34,26 @@ class ChooseLevelScreen extends AbstractMenuScreen<Level> {
 		return "Choose the level you want to play";
 	}
 
+	@Override
+	public void selectNext() {
+		super.selectNext();
+		loadSelectedInBackground();
+	}
+
+	@Override
+	public void selectPrevious() {
+		super.selectPrevious();
+		loadSelectedInBackground();
+	}
+
+	private void loadSelectedInBackground() {
+		if (choices.length > 0) {
+			choices[selectedIndex].loadInBackground();
+		}
+	}
+
 	@Override
 	public void screenStarted() {
+		loadSelectedInBackground();
 	}
 }
@@ -1,5 +1,8 @@
 package worms.gui.menu;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+
 import worms.gui.GameState;
 import worms.gui.Level;
 import worms.gui.WormsGUI;
@@ -74,6 +77,24 @@ public class MainMenuScreen extends AbstractMenuScreen<MainMenuOption> {
 
 		GameState gameState = new GameState(gui.getFacade(),
 				gui.getOptions().randomSeed, level);
+		if (gui.getOptions().journalFile != null) {
+			FileOutputStream out = null;
+			try {
+				out = new FileOutputStream(gui.getOptions().journalFile);
+				gameState.startJournal(out);
+			} catch (IOException e) {
+				e.printStackTrace();
+				if (out != null) {
+					try {
+						out.close();
+					} catch (IOException closeException) {
+						closeException.printStackTrace();
+					}
+				}
+				chooseLevel.addMessage("Could not record the game in "
+						+ gui.getOptions().journalFile, MessageType.ERROR);
+			}
+		}
 
 		PlayGameScreen playGameScreen = PlayGameScreen.create(gui, gameState,
 				debugMode);
@@ -81,6 +81,14 @@ public interface IFacade {
 	 */
 	void addNewWorm(World world);
 
+	/**
+	 * Create and add the given number of new worms and new food rations to
+	 * the given world at once, each at a random adjacent location where it
+	 * overlaps no other game object.
+	 * Worms and food for which no such location is found are left out.
+	 */
+	void populate(World world, int nbWorms, int nbFood);
+
 	/**
 	 * Returns whether or not the given worm can fall down
 	 */
@@ -415,6 +423,33 @@ public interface IFacade {
 	 */
 	void move(Worm worm);
 
+	/**
+	 * Plans the given number of steps of the given worm, without moving it.
+	 * The plan holds the position after every step, the action points the
+	 * steps cost and the food eaten on the way.
+	 */
+	MovePlan planMove(Worm worm, int nbSteps);
+
+	/**
+	 * Moves the given worm according to the given plan of that worm.
+	 * The worm must not have changed since the plan was made.
+	 */
+	void move(Worm worm, MovePlan plan);
+
+	/**
+	 * Plans the flight of the given projectile until it hits a worm or the
+	 * terrain, without moving it. The impact is determined using the given
+	 * elementary time interval. The plan holds the positions of the projectile
+	 * sampled at a fixed interval, the impact time and the worm that is hit.
+	 */
+	FlightPlan planFlight(Projectile projectile, double timeStep);
+
+	/**
+	 * Makes the given projectile jump according to the given plan of that
+	 * projectile. The projectile must not have changed since the plan was made.
+	 */
+	void jump(Projectile projectile, FlightPlan plan);
+
 	/**
 	 * Renames the given worm.
 	 */
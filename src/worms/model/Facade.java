@@ -31,6 +31,15 @@ public class Facade implements IFacade {
 		
 	}
 
+	@Override
+	public void populate(World world, int nbWorms, int nbFood) {
+		try { world.populate(nbWorms, nbFood);
+		}
+		catch(RuntimeException exc){
+			throw new ModelException("populate");
+		}
+	}
+
 	@Override
 	public void addNewWorm(World world) {
 			try { world.addWorm();
@@ -65,7 +74,7 @@ public class Facade implements IFacade {
 
 	@Override
 	public boolean canTurn(Worm worm, double angle) {
-		try{return worm.enoughAPLeft(Worm.costOfTurn(angle));
+		try{return worm.enoughAPLeft(Worm.getTurnCost(angle));
 		
 		}
 		catch(RuntimeException exc){
@@ -120,7 +129,7 @@ public class Facade implements IFacade {
 
 	@Override
 	public int getActionPoints(Worm worm) {
-		try{ return worm.getCurrentAP().getNumeral();
+		try{ return worm.getCurrentAPNumeral();
 		
 		}
 		catch (RuntimeException exc){
@@ -162,7 +171,7 @@ public class Facade implements IFacade {
 
 	@Override
 	public int getHitPoints(Worm worm) {
-		try{ return worm.getCurrentHP().getNumeral();
+		try{ return worm.getCurrentHPNumeral();
 		
 		}
 		catch (RuntimeException exc){
@@ -195,7 +204,7 @@ public class Facade implements IFacade {
 
 	@Override
 	public double getJumpTime(Projectile projectile, double timeStep) {
-		try{return projectile.jumpTime(timeStep);
+		try{return projectile.adaptiveJumpTime(timeStep);
 		
 		}
 		catch (RuntimeException exc){
@@ -205,7 +214,7 @@ public class Facade implements IFacade {
 
 	@Override
 	public double getJumpTime(Worm worm, double timeStep) {
-		try{ return worm.jumpTime(timeStep);
+		try{ return worm.adaptiveJumpTime(timeStep);
 		
 		}
 		catch (RuntimeException exc){
@@ -337,7 +346,7 @@ public class Facade implements IFacade {
 
 	@Override
 	public boolean isImpassable(World world, double x, double y, double radius) {
-		return (!world.isPassableForCircle(0,radius, new Position(x,y)));
+		return (!world.isPassableForCircle(0,radius, x, y));
 	}
 
 	@Override
@@ -372,6 +381,42 @@ public class Facade implements IFacade {
 		}
 	}
 
+	@Override
+	public MovePlan planMove(Worm worm, int nbSteps) {
+		try{return worm.planMove(nbSteps);
+		}
+		catch(RuntimeException exc){
+			throw new ModelException("planMove");
+		}
+	}
+
+	@Override
+	public void move(Worm worm, MovePlan plan) {
+		try{worm.move(plan);
+		}
+		catch(RuntimeException exc){
+			throw new ModelException("move");
+		}
+	}
+
+	@Override
+	public FlightPlan planFlight(Projectile projectile, double timeStep) {
+		try{return projectile.planFlight(timeStep);
+		}
+		catch(RuntimeException exc){
+			throw new ModelException("planFlight");
+		}
+	}
+
+	@Override
+	public void jump(Projectile projectile, FlightPlan plan) {
+		try{projectile.jump(plan);
+		}
+		catch(RuntimeException exc){
+			throw new ModelException("jumpprojectile");
+		}
+	}
+
 	@Override
 	public void rename(Worm worm, String newName) {
 		worm.setName(newName);
@@ -0,0 +1,161 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.position.Position;
+
+/**
+ * A class of plans of the flight of a projectile, made by Projectile.planFlight(double) and carried out by Projectile.jump(FlightPlan).
+ * 	A plan holds the positions of the projectile sampled at a fixed interval, the time at which it hits a worm or the terrain
+ * 	and the worm it hits, so the whole flight is known before the projectile moves, for instance to animate it.
+ * 	A plan is made for the state of its projectile at that time, it can only be carried out as long as that state did not change.
+ * @invar A plan has at least two samples, the first at the start and the last at the impact of the flight.
+ * 		| getNbSamples() >= 2
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class FlightPlan {
+
+	/**
+	 * Initialize this new plan of the given projectile, from its current state, with the given samples, impact time and hit worm.
+	 */
+	FlightPlan(Projectile projectile, double sampleInterval, Position[] samples, double impactTime, Worm hitWorm){
+		this.projectile = projectile;
+		this.startPosition = projectile.getPosition();
+		this.direction = projectile.getDirection();
+		this.sampleInterval = sampleInterval;
+		this.samples = samples;
+		this.impactTime = impactTime;
+		this.hitWorm = hitWorm;
+	}
+
+	/**
+	 * Returns the projectile of this plan.
+	 */
+	@Basic @Immutable
+	public Projectile getProjectile(){
+		return this.projectile;
+	}
+
+	/**
+	 * The projectile of this plan.
+	 */
+	private final Projectile projectile;
+
+	/**
+	 * Returns the position of the projectile at the start of this plan.
+	 */
+	@Basic @Immutable
+	public Position getStartPosition(){
+		return this.startPosition;
+	}
+
+	/**
+	 * The position and direction of the projectile when this plan was made.
+	 */
+	private final Position startPosition;
+	private final double direction;
+
+	/**
+	 * Checks whether the projectile of this plan is still in the state this plan was made for.
+	 * @return true if and only if the projectile is not terminated, it did not move or turn,
+	 * 			and the worm it hits, if any, is not terminated.
+	 * 		| result ==
+	 * 		|	(! getProjectile().isTerminated()) && getProjectile().getPosition().equals(getStartPosition())
+	 * 		|	&& (getProjectile().getDirection() == direction)
+	 * 		|	&& ((getHitWorm() == null) || (! getHitWorm().isTerminated()))
+	 */
+	public boolean isUpToDate(){
+		return (! projectile.isTerminated()) && projectile.getPosition().equals(startPosition)
+				&& (projectile.getDirection() == direction) && ((hitWorm == null) || (! hitWorm.isTerminated()));
+	}
+
+	/**
+	 * Returns the time between two samples of this plan.
+	 */
+	@Basic @Immutable
+	public double getSampleInterval(){
+		return this.sampleInterval;
+	}
+
+	/**
+	 * The time between two samples of this plan.
+	 */
+	private final double sampleInterval;
+
+	/**
+	 * Returns the number of samples of this plan.
+	 */
+	public int getNbSamples(){
+		return this.samples.length;
+	}
+
+	/**
+	 * Returns the time of the flight at which the sample with the given index is taken.
+	 * @param index
+	 * 		The index of the sample, starting from 0.
+	 * @return The impact time for the last sample, the given index times the sample interval for the others.
+	 * 		| if (index == getNbSamples() - 1)
+	 * 		|	then result == getImpactTime()
+	 * 		| else result == index * getSampleInterval()
+	 */
+	public double getSampleTime(int index){
+		if (index == samples.length - 1){
+			return impactTime;
+		}
+		return index * sampleInterval;
+	}
+
+	/**
+	 * Returns the position of the projectile at the sample with the given index.
+	 * @param index
+	 * 		The index of the sample, starting from 0.
+	 * @return The position of the projectile at the time of that sample.
+	 * 		| result.equals(getProjectile().jumpStep(getSampleTime(index), getProjectile().getDirection()))
+	 * @throws IndexOutOfBoundsException
+	 * 		The given index is not the index of a sample of this plan.
+	 * 		| (index < 0) || (index >= getNbSamples())
+	 */
+	public Position getSample(int index) throws IndexOutOfBoundsException{
+		return this.samples[index];
+	}
+
+	/**
+	 * Returns the position of the projectile when it hits a worm or the terrain.
+	 * @return The last sample of this plan.
+	 * 		| result == getSample(getNbSamples() - 1)
+	 */
+	public Position getImpactPosition(){
+		return this.samples[samples.length - 1];
+	}
+
+	/**
+	 * The positions of the projectile at every sample of this plan.
+	 */
+	private final Position[] samples;
+
+	/**
+	 * Returns the time of the flight at which the projectile hits a worm or the terrain.
+	 */
+	@Basic @Immutable
+	public double getImpactTime(){
+		return this.impactTime;
+	}
+
+	/**
+	 * The time of the flight at which the projectile hits a worm or the terrain.
+	 */
+	private final double impactTime;
+
+	/**
+	 * Returns the worm the projectile hits, or null if it hits no worm.
+	 */
+	@Basic @Immutable
+	public Worm getHitWorm(){
+		return this.hitWorm;
+	}
+
+	/**
+	 * The worm the projectile hits.
+	 */
+	private final Worm hitWorm;
+}
@@ -76,6 +76,8 @@ public abstract class GameObjects {
 	 * 		The value to which to set the radius
 	 * @post The new radius of this game object is equal to the given radius.
 	 * 		|new.getRadius() == radius
+	 * @effect The world of this game object registers the new radius.
+	 * 		| updateLocationInWorld()
 	 * @throws IllegalRadiusException
 	 * 		 if the given radius is invalid
 	 * 		| ! isValidRadius(radius)
@@ -86,6 +88,7 @@ public abstract class GameObjects {
 			throw new IllegalRadiusException(radius);
 			}
 		this.radius = radius;
+		this.updateLocationInWorld();
 	}
 	
 	 
@@ -270,6 +273,8 @@ public abstract class GameObjects {
 	 * 			The Position to which to set the Position of the gameObject
 	 * @post the new position of this game object equals the given position
 	 * 		| new.getPosition() == position 
+	 * @effect The world of this game object registers the new position.
+	 * 		| updateLocationInWorld()
 	 * @throws IllegalPositionException
 	 * 		if the given position is an invalid position
 	 * 		| ! world.isValidPosition(position)
@@ -278,6 +283,20 @@ public abstract class GameObjects {
 	protected void setPosition(Position position) throws IllegalPositionException{
 				
 		this.position = position;
+		this.updateLocationInWorld();
+	}
+	
+	/**
+	 * Registers the current position and radius of this game object with its world.
+	 * @effect If this game object has a world and a position, that world registers the position and radius of this game object.
+	 * 		| if ((getWorld() != null) && (getPosition() != null))
+	 * 		|	then getWorld().updateGameObject(this)
+	 */
+	@Raw @Model
+	protected void updateLocationInWorld(){
+		if ((this.getWorld() != null) && (this.getPosition() != null)){
+			this.getWorld().updateGameObject(this);
+		}
 	}
 	
 	/**
@@ -285,5 +304,64 @@ public abstract class GameObjects {
 	 */
 	private Position position;
 	
+
+// memento
+
+	/**
+	 * Returns a memento holding the current state of this game object.
+	 * @return A memento that restores the world, position, radius and termination of this game object.
+	 * 		| result.getObject() == this
+	 */
+	@Model
+	Memento createMemento(){
+		return new Memento(this);
+	}
+
+	/**
+	 * Restores the state held by the given memento of this game object.
+	 * 	The spatial index of the world is not updated, the world restoring a snapshot does so for all its game objects at once.
+	 * @param memento
+	 * 		The memento to restore.
+	 * @post The world, position, radius and termination of this game object equal those at the creation of the given memento.
+	 */
+	@Model
+	void restoreMemento(Memento memento){
+		this.world = memento.world;
+		this.position = memento.position;
+		this.radius = memento.radius;
+		this.isTerminated = memento.isTerminated;
+	}
+
+	/**
+	 * A class of mementos holding the state of a game object.
+	 */
+	static class Memento {
+
+		/**
+		 * Initialize this new memento with the current state of the given game object.
+		 */
+		Memento(GameObjects object){
+			this.object = object;
+			this.world = object.world;
+			this.position = object.position;
+			this.radius = object.radius;
+			this.isTerminated = object.isTerminated;
+		}
+
+		/**
+		 * Returns the game object of this memento.
+		 */
+		@Basic
+		GameObjects getObject(){
+			return this.object;
+		}
+
+		private final GameObjects object;
+		private final World world;
+		private final Position position;
+		private final double radius;
+		private final boolean isTerminated;
+	}
+
 }
 	
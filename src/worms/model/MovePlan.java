@@ -0,0 +1,146 @@
+package worms.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.position.Position;
+
+/**
+ * A class of plans of a number of steps of a worm, made by Worm.planMove(int) and carried out by Worm.move(MovePlan).
+ * 	A plan holds the position reached by every step, the action points all steps cost and the food eaten on the way,
+ * 	so the whole path is known before the worm moves, for instance to animate it.
+ * 	A plan is made for the state of its worm at that time, it can only be carried out as long as that state did not change.
+ * @invar A plan has at least one step.
+ * 		| getNbSteps() >= 1
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class MovePlan {
+
+	/**
+	 * Initialize this new plan of the given worm, from its current state, with the given positions, eaten food and cost.
+	 */
+	MovePlan(Worm worm, Position[] positions, Food[] eatenFood, int APCost){
+		this.worm = worm;
+		this.startPosition = worm.getPosition();
+		this.direction = worm.getDirection();
+		this.radius = worm.getRadius();
+		this.AP = worm.getCurrentAPNumeral();
+		this.positions = positions;
+		this.eatenFood = eatenFood;
+		this.APCost = APCost;
+	}
+
+	/**
+	 * Returns the worm of this plan.
+	 */
+	@Basic @Immutable
+	public Worm getWorm(){
+		return this.worm;
+	}
+
+	/**
+	 * The worm of this plan.
+	 */
+	private final Worm worm;
+
+	/**
+	 * Returns the position of the worm at the start of this plan.
+	 */
+	@Basic @Immutable
+	public Position getStartPosition(){
+		return this.startPosition;
+	}
+
+	/**
+	 * The position, direction, radius and action points of the worm when this plan was made.
+	 */
+	private final Position startPosition;
+	private final double direction;
+	private final double radius;
+	private final int AP;
+
+	/**
+	 * Checks whether the worm of this plan is still in the state this plan was made for.
+	 * @return true if and only if the worm is not terminated, it did not move, turn, grow or use action points,
+	 * 			and none of the food of this plan has been eaten.
+	 * 		| result ==
+	 * 		|	(! getWorm().isTerminated()) && getWorm().getPosition().equals(getStartPosition())
+	 * 		|	&& (getWorm().getDirection() == direction) && (getWorm().getRadius() == radius)
+	 * 		|	&& (getWorm().getCurrentAPNumeral() == AP)
+	 * 		|	&& for each food in getEatenFood(): ! food.isTerminated()
+	 */
+	public boolean isUpToDate(){
+		if (worm.isTerminated() || (! worm.getPosition().equals(startPosition)) || (worm.getDirection() != direction)
+				|| (worm.getRadius() != radius) || (worm.getCurrentAPNumeral() != AP)){
+			return false;
+		}
+		for (Food food: eatenFood){
+			if (food.isTerminated()){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of steps of this plan.
+	 */
+	public int getNbSteps(){
+		return this.positions.length;
+	}
+
+	/**
+	 * Returns the position of the worm after the step with the given index.
+	 * @param index
+	 * 		The index of the step, starting from 0.
+	 * @throws IndexOutOfBoundsException
+	 * 		The given index is not the index of a step of this plan.
+	 * 		| (index < 0) || (index >= getNbSteps())
+	 */
+	public Position getPosition(int index) throws IndexOutOfBoundsException{
+		return this.positions[index];
+	}
+
+	/**
+	 * Returns the position of the worm after the last step of this plan.
+	 * @return The position after the last step.
+	 * 		| result == getPosition(getNbSteps() - 1)
+	 */
+	public Position getFinalPosition(){
+		return this.positions[positions.length - 1];
+	}
+
+	/**
+	 * The positions of the worm after every step of this plan.
+	 */
+	private final Position[] positions;
+
+	/**
+	 * Returns the food eaten during this plan, in the order in which it is eaten.
+	 */
+	@Basic @Immutable
+	public List<Food> getEatenFood(){
+		return Collections.unmodifiableList(Arrays.asList(this.eatenFood));
+	}
+
+	/**
+	 * The food eaten during this plan.
+	 */
+	private final Food[] eatenFood;
+
+	/**
+	 * Returns the numeral of the action points all steps of this plan cost.
+	 */
+	@Basic @Immutable
+	public int getAPCost(){
+		return this.APCost;
+	}
+
+	/**
+	 * The numeral of the action points all steps of this plan cost.
+	 */
+	private final int APCost;
+}
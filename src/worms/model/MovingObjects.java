@@ -171,22 +171,147 @@ public abstract class MovingObjects extends GameObjects {
 	public double jumpTime(double stepSize) throws IllegalJumpTimeException,IllegalArgumentException{
 		double t = 0;
 		boolean found = false;
+		double alpha = getDirection();
+		double v0 = calculateVelocity();
+		double v0x = v0*Math.cos(alpha);
+		double v0y = v0*Math.sin(alpha);
+		double radius = this.getRadius();
+		World world = this.getWorld();
 		while (!found){
-			double alpha = getDirection();
-			double v0 = calculateVelocity();
-			double v0x = v0*Math.cos(alpha);
-			double v0y = v0*Math.sin(alpha);
 			double x = getX() + v0x*t;
 			double y = getY() + v0y*t - g/2*t*t;
-			
-			Position newPosition = new Position(x,y);
+
 			t = t + stepSize;
-			if (! this.getWorld().isPassableForCircle(this.getRadius(),this.getRadius(), newPosition))
+			if (! world.isPassableForCircle(radius,radius, x, y))
 				found = true;
-			
+
+		}
+		return (t - stepSize);
+	}
+
+	/** 
+	 * Returns the same time as jumpTime, but only checks the samples of the jump that are not certified free.
+	 * 	After every check the clearance around the sample bounds how long this moving object stays clear of terrain,
+	 * 	the samples in that time are skipped.
+	 * 	The jump also ends once this moving object has left this world in a direction from which it can not return.
+	 * @param stepSize
+	 * 		The time between two samples of the jump.
+	 * @return The same time as the fixed step search, if that search ends.
+	 * 		| if (jumpTime(stepSize) terminates)
+	 * 		|	then result == jumpTime(stepSize)
+	 * @return Otherwise the time of the first sample at which this moving object can no longer reach this world.
+	 * 		| else hasLeftWorld(positionAtTime(result), velocityAtTime(result), getReach())
+	 */
+	public double adaptiveJumpTime(double stepSize) throws IllegalJumpTimeException,IllegalArgumentException{
+		double t = 0;
+		boolean found = false;
+		double alpha = getDirection();
+		double v0 = calculateVelocity();
+		double v0x = v0*Math.cos(alpha);
+		double v0y = v0*Math.sin(alpha);
+		double radius = this.getRadius();
+		double reach = this.getReach();
+		World world = this.getWorld();
+		double safeUntil = Double.NEGATIVE_INFINITY;
+		int skipLookups = 0;
+		int misses = 0;
+		while (!found){
+			double x = getX() + v0x*t;
+			double y = getY() + v0y*t - g/2*t*t;
+
+			if (t > safeUntil){
+				double vy = v0y - g*t;
+				if ((! world.isPassableForCircle(radius,radius, x, y)) || hasLeftWorld(x, y, v0x, vy, reach))
+					found = true;
+				if (skipLookups > 0){
+					skipLookups--;
+				}
+				else {
+					double clearance = world.getTerrainClearance(x, y) - radius - JUMP_MARGIN;
+					safeUntil = t + getSafeTime(clearance, v0x, vy);
+					misses = (safeUntil > t) ? 0 : Math.min(misses + 1, MAX_SKIPPED_LOOKUPS);
+					skipLookups = misses;
+				}
+			}
+			t = t + stepSize;
 		}
 		return (t - stepSize);
 	}
+
+	/**
+	 * Returns the distance from its center within which this moving object can interact with something in its world.
+	 * @return The radius of this moving object.
+	 * 		| result == getRadius()
+	 */
+	@Model
+	protected double getReach(){
+		return this.getRadius();
+	}
+
+	/**
+	 * Checks whether a moving object at the given coordinates, with the given velocity, has left its world for good.
+	 * @param x
+	 * 		The x-coordinate of the moving object.
+	 * @param y
+	 * 		The y-coordinate of the moving object.
+	 * @param vx
+	 * 		The horizontal velocity of the moving object, which does not change during a jump.
+	 * @param vy
+	 * 		The vertical velocity of the moving object, which only decreases during a jump.
+	 * @param reach
+	 * 		The distance from its center within which the moving object can interact with its world.
+	 * @return True if and only if the moving object is further than its reach below, left or right of its world
+	 * 			and moving further away from it.
+	 * 		| result ==
+	 * 		|	(((y + reach < 0) && (vy <= 0))
+	 * 		|	|| ((x + reach < 0) && (vx <= 0))
+	 * 		|	|| ((x - reach > getWorld().getWidth()) && (vx >= 0)))
+	 */
+	@Model
+	protected boolean hasLeftWorld(double x, double y, double vx, double vy, double reach){
+		return (((y + reach < 0) && (vy <= 0))
+				|| ((x + reach < 0) && (vx <= 0))
+				|| ((x - reach > getWorld().getWidth()) && (vx >= 0)));
+	}
+
+	/**
+	 * Returns how long a jumping object with the given velocity moves less than the given clearance.
+	 * @param clearance
+	 * 		The distance the moving object may travel.
+	 * @param vx
+	 * 		The horizontal velocity of the moving object.
+	 * @param vy
+	 * 		The vertical velocity of the moving object.
+	 * @return Zero if the given clearance is not positive, otherwise the time at which 
+	 * 			the speed multiplied by the time plus the fall g/2 multiplied by the time squared reaches the clearance,
+	 * 			which bounds the distance travelled.
+	 * 		| if (! (clearance > 0))
+	 * 		|	then result == 0
+	 * 		| else Math.sqrt(vx*vx + vy*vy)*result + g/2*result*result == clearance
+	 */
+	@Model
+	protected static double getSafeTime(double clearance, double vx, double vy){
+		if (! (clearance > 0)){
+			return 0;
+		}
+		double speed = Math.sqrt(vx*vx + vy*vy);
+		double time = 2*clearance/(speed + Math.sqrt(speed*speed + 2*g*clearance));
+		if (! (time > 0)){
+			return 0;
+		}
+		return time;
+	}
+
+	/**
+	 * The distance by which the clearance around a sample of a jump is reduced to absorb rounding errors.
+	 */
+	protected static final double JUMP_MARGIN = 1e-7;
+
+	/**
+	 * The largest number of samples of a jump that are checked without looking up the clearance around them,
+	 * 	after the clearance around the previous samples turned out to be useless.
+	 */
+	protected static final int MAX_SKIPPED_LOOKUPS = 8;
 	
 	
 	
@@ -275,4 +400,55 @@ public abstract class MovingObjects extends GameObjects {
 
 	
 	
+
+	/**
+	 * Returns a memento holding the current state of this moving object.
+	 * @return A memento that also restores the mass and direction of this moving object.
+	 */
+	@Override @Model
+	Memento createMemento(){
+		return new Memento(this);
+	}
+
+	/**
+	 * Restores the state held by the given memento of this moving object.
+	 * @effect The state of this game object is restored.
+	 * 		| super.restoreMemento(memento)
+	 * @post The mass and direction of this moving object equal those at the creation of the given memento.
+	 */
+	@Override @Model
+	void restoreMemento(GameObjects.Memento memento){
+		super.restoreMemento(memento);
+		this.mass = ((Memento) memento).mass;
+		this.Direction = ((Memento) memento).direction;
+	}
+
+	/**
+	 * A class of mementos holding the state of a moving object.
+	 */
+	static class Memento extends GameObjects.Memento {
+
+		/**
+		 * Initialize this new memento with the current state of the given moving object.
+		 */
+		Memento(MovingObjects object){
+			super(object);
+			this.mass = object.mass;
+			this.direction = object.Direction;
+		}
+
+		/**
+		 * Initialize this new memento with the current state of the given moving object as a game object,
+		 * 	and the given mass and direction.
+		 */
+		Memento(MovingObjects object, double mass, double direction){
+			super(object);
+			this.mass = mass;
+			this.direction = direction;
+		}
+
+		private final double mass;
+		private final double direction;
+	}
+
 }
\ No newline at end of file
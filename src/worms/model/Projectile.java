@@ -171,20 +171,21 @@ public class Projectile extends MovingObjects {
 	public double jumpTime(double stepSize) throws IllegalJumpTimeException,IllegalArgumentException{
 		double t = 0;
 		boolean found = false;
+		double alpha = getDirection();
+		double v0 = calculateVelocity();
+		double v0x = v0*Math.cos(alpha);
+		double v0y = v0*Math.sin(alpha);
+		double radius = this.getRadius();
+		World world = this.getWorld();
 		while (!found){
-			double alpha = getDirection();
-			double v0 = calculateVelocity();
-			double v0x = v0*Math.cos(alpha);
-			double v0y = v0*Math.sin(alpha);
 			double x = getX() + v0x*t;
 			double y = getY() + v0y*t - g/2*t*t;
-			
-			Position newPosition = new Position(x,y);
+
 			t = t + stepSize;
-			if (! this.getWorld().isPassableForCircle(this.getRadius(),this.getRadius(), newPosition))
+			if (! world.isPassableForCircle(radius,radius, x, y))
 				found = true;
-			
-			this.setOverlapsWorm(newPosition);
+
+			this.setOverlapsWorm(x, y);
 			
 			if (this.getOverlappingWorm() != null)
 					found = true;
@@ -192,6 +193,111 @@ public class Projectile extends MovingObjects {
 			}
 		return (t - stepSize);
 	}
+
+	/** 
+	 * Returns the same time as jumpTime, but only checks the samples of the jump that are not certified free.
+	 * 	After every check the clearance around the sample, to the terrain and to every worm, bounds how long this projectile 
+	 * 	stays clear of both, the samples in that time are skipped.
+	 * @param stepSize
+	 * 		The time between two samples of the jump.
+	 * @return The same time as the fixed step search, if that search ends.
+	 * 		| if (jumpTime(stepSize) terminates)
+	 * 		|	then result == jumpTime(stepSize)
+	 * @effect The overlapping worm is set as by the fixed step search.
+	 * 		| jumpTime(stepSize)
+	 */
+	@Override
+	public double adaptiveJumpTime(double stepSize) throws IllegalJumpTimeException,IllegalArgumentException{
+		double t = 0;
+		boolean found = false;
+		double alpha = getDirection();
+		double v0 = calculateVelocity();
+		double v0x = v0*Math.cos(alpha);
+		double v0y = v0*Math.sin(alpha);
+		double radius = this.getRadius();
+		double reach = this.getReach();
+		World world = this.getWorld();
+		double safeUntil = Double.NEGATIVE_INFINITY;
+		int skipLookups = 0;
+		int misses = 0;
+		while (!found){
+			double x = getX() + v0x*t;
+			double y = getY() + v0y*t - g/2*t*t;
+
+			double sampleTime = t;
+			t = t + stepSize;
+			if (sampleTime > safeUntil){
+				double vy = v0y - g*sampleTime;
+				if ((! world.isPassableForCircle(radius,radius, x, y)) || hasLeftWorld(x, y, v0x, vy, reach))
+					found = true;
+
+				this.setOverlapsWorm(x, y);
+
+				if (skipLookups > 0){
+					skipLookups--;
+				}
+				else {
+					double clearance = Math.min(world.getTerrainClearance(x, y) - radius, getWormClearance(x, y)) - JUMP_MARGIN;
+					safeUntil = sampleTime + getSafeTime(clearance, v0x, vy);
+					misses = (safeUntil > sampleTime) ? 0 : Math.min(misses + 1, MAX_SKIPPED_LOOKUPS);
+					skipLookups = misses;
+				}
+			}
+
+			if (this.getOverlappingWorm() != null)
+				found = true;
+			t = t + stepSize;
+		}
+		return (t - stepSize);
+	}
+
+	/**
+	 * Returns the distance from its center within which this projectile can hit a worm or terrain.
+	 * @return The radius of this projectile incremented with the radius of the largest worm in its world.
+	 * 		| for one worm in getWorld().getAllWorms():
+	 * 		|	result == getRadius() + worm.getRadius()
+	 * 		|	&& for each other in getWorld().getAllWorms():
+	 * 		|		other.getRadius() <= worm.getRadius()
+	 */
+	@Override @Model
+	protected double getReach(){
+		double largestRadius = 0;
+		for (Worm worm: this.getWorld().getAllWorms()){
+			largestRadius = Math.max(largestRadius, worm.getRadius());
+		}
+		return this.getRadius() + largestRadius;
+	}
+
+	/**
+	 * Returns how far this projectile at the given coordinates is removed from overlapping with a worm.
+	 * @param x
+	 * 		The x-coordinate of this projectile.
+	 * @param y
+	 * 		The y-coordinate of this projectile.
+	 * 	Only the worms within WORM_SEARCH_RANGE of the given coordinates are looked at.
+	 * @return The smallest distance between the given coordinates and a worm of this world, 
+	 * 			decremented with the radius of that worm and the radius of this projectile,
+	 * 			but not larger than the search range decremented with the radius of this projectile.
+	 * 		| for each worm in getWorld().getAllWorms():
+	 * 		|	result <= new Position(x,y).calculateDistance(worm.getPosition()) - worm.getRadius() - this.getRadius()
+	 * 		| && result <= WORM_SEARCH_RANGE - this.getRadius()
+	 */
+	@Model
+	private double getWormClearance(double x, double y){
+		double clearance = WORM_SEARCH_RANGE - this.getRadius();
+		for (Worm worm: this.getWorld().getGameObjectsNear(Worm.class, x, y, WORM_SEARCH_RANGE)){
+			double distanceX = x - worm.getX();
+			double distanceY = y - worm.getY();
+			double distance = Math.sqrt(distanceX*distanceX + distanceY*distanceY);
+			clearance = Math.min(clearance, distance - worm.getRadius() - this.getRadius());
+		}
+		return clearance;
+	}
+
+	/**
+	 * The distance from a projectile within which worms are looked for to bound how far it can fly without hitting one.
+	 */
+	private static final double WORM_SEARCH_RANGE = 3 * World.SPATIAL_CELL_SIZE;
 	
 	
 	
@@ -211,8 +317,6 @@ public class Projectile extends MovingObjects {
 	 * 				This projectile is facing down, so this projectile doesn't jump
 	 * 			| if ( isFacingDown(direction))
 	 * 			| 	result == this.jumpStep(0)
-	 * @effect if the projectile overlaps with a worm the worm will be set as the overlappingWorm
-	 * 			| this.setOverlapsWorm(newPosition);	 
 	 * @throws IllegalArgumentException
 	 * 			the given value for t is not in the interval [0, jumpTime()].
 	 * 			| ! isValidJumpTime(t)
@@ -247,13 +351,7 @@ public class Projectile extends MovingObjects {
 		double v0y = v0*Math.sin(alpha);
 		double x = getX() + v0x*t;
 		double y = getY() + v0y*t - g/2*t*t;
-		Position newPosition = new Position(x,y);
-		
-		
-		this.setOverlapsWorm(newPosition);
-		
-		
-		return newPosition; 
+		return new Position(x,y);
 		}	
 		
 	}
@@ -261,39 +359,88 @@ public class Projectile extends MovingObjects {
 	
 	/**
 	 * The projectile jumps from one position to another.
-	 * @effect if the jumptime of this projectile is larger than zero then the position will be set to the position 
-	 * 			at the end of the jump for the given jumptime
-	 * 		|if (time > 0)
-	 * 		|	then this.setPosition(jumpstep(this.jumpTime(timestep),this.getDirection()))
-	 * @effect if the jumptime of this projectile is larger than zero and the overlappingworm is effective then the overlapping worm 
-	 * 			gets hit by this projectile
-	 * 		|if (time > 0) && (this.getOverlappingWorm() != null)
-	 * 		|		then this.hitWorm(this.getOverlappingWorm())
-	 * @effect if the jumptime of this projectile is larger than zero and the overlappingworm is not effective then this 
-	 * 			projectile is terminated
-	 * 		|if (time > 0) && (this.getOverlappingWorm() == null)
-	 * 		|		then this.Terminate()
+	 * @effect This projectile carries out the plan of its flight for the given time step.
+	 * 		| jump(planFlight(timestep))
 	 */
 	@Override
 	public void jump(double timestep)  throws IllegalJumpTimeException,IllegalArgumentException{
+		this.jump(this.planFlight(timestep));
+	}
 
-		double time = this.jumpTime(timestep);
-		
-		if (time > 0){
-			Position newPosition = jumpStep(time,this.getDirection());
-				
-			this.setPosition(newPosition);
-			
-			
-			// checken of de worm die geraakt wordt dood is --> termineren 
-			if (this.getOverlappingWorm() != null)
-				this.hitWorm(this.getOverlappingWorm());
-			
-			else
-				this.Terminate();
-			
+	/**
+	 * Plans the flight of this projectile until it hits a worm or the terrain, without moving it.
+	 * @param timestep
+	 * 		The time between two samples of the jump used to find the impact.
+	 * @return A plan of this projectile, with samples of the flight every FLIGHT_SAMPLE_INTERVAL up to the impact,
+	 * 			the time of the impact and the worm that is hit.
+	 * 		| result.getProjectile() == this && result.getSampleInterval() == FLIGHT_SAMPLE_INTERVAL
+	 * 		| && result.getImpactTime() == adaptiveJumpTime(timestep)
+	 * 		| && for each index in [0, ..., result.getNbSamples()-1]:
+	 * 		|	result.getSample(index).equals(jumpStep(result.getSampleTime(index), getDirection()))
+	 * @return The worm of the plan is the last worm overlapping with this projectile at the impact position,
+	 * 			or the overlapping worm of this projectile after the search for the impact if there is none.
+	 * 		| if (one worm in getWorld().getAllWorms() overlaps with result.getImpactPosition())
+	 * 		|	then result.getHitWorm() == that worm
+	 * 		| else result.getHitWorm() == (new this).getOverlappingWorm()
+	 * @effect The time of the impact is determined by the adaptive search, which sets the overlapping worm.
+	 * 		| adaptiveJumpTime(timestep)
+	 */
+	public FlightPlan planFlight(double timestep) throws IllegalJumpTimeException,IllegalArgumentException{
+		double time = this.adaptiveJumpTime(timestep);
+		int nbIntervals = (int) Math.ceil(time / FLIGHT_SAMPLE_INTERVAL);
+		while (nbIntervals * FLIGHT_SAMPLE_INTERVAL < time){
+			nbIntervals++;
 		}
-		
+		while ((nbIntervals > 1) && ((nbIntervals - 1) * FLIGHT_SAMPLE_INTERVAL >= time)){
+			nbIntervals--;
+		}
+		Position[] samples = new Position[nbIntervals + 1];
+		for (int index = 0; index < nbIntervals; index++){
+			samples[index] = jumpStep(index * FLIGHT_SAMPLE_INTERVAL, this.getDirection());
+		}
+		Position impact = jumpStep(time, this.getDirection());
+		samples[nbIntervals] = impact;
+		Worm hitWorm = this.findOverlappingWorm(impact.getX(), impact.getY());
+		if (hitWorm == null){
+			hitWorm = this.getOverlappingWorm();
+		}
+		return new FlightPlan(this, FLIGHT_SAMPLE_INTERVAL, samples, time, hitWorm);
+	}
+
+	/**
+	 * The time between two samples of a flight plan.
+	 */
+	public static final double FLIGHT_SAMPLE_INTERVAL = 0.01;
+
+	/**
+	 * The projectile flies according to the given plan of its flight.
+	 * @param plan
+	 * 		The plan to carry out.
+	 * @effect The position of this projectile is set to the impact position of the plan.
+	 * 		| setPosition(plan.getImpactPosition())
+	 * @effect If the plan hits a worm, that worm is the overlapping worm and gets hit by this projectile.
+	 * 		| if (plan.getHitWorm() != null)
+	 * 		|	then setOverlappingWorm(plan.getHitWorm()) && hitWorm(plan.getHitWorm())
+	 * @effect If the plan hits no worm, this projectile is terminated.
+	 * 		| if (plan.getHitWorm() == null)
+	 * 		|	then Terminate()
+	 * @throws IllegalArgumentException
+	 * 		The given plan is not a plan of this projectile or it is no longer up to date.
+	 * 		| (plan == null) || (plan.getProjectile() != this) || (! plan.isUpToDate())
+	 */
+	public void jump(FlightPlan plan) throws IllegalArgumentException{
+		if ((plan == null) || (plan.getProjectile() != this) || (! plan.isUpToDate())){
+			throw new IllegalArgumentException("invalid flight plan");
+		}
+		this.setPosition(plan.getImpactPosition());
+
+		// checken of de worm die geraakt wordt dood is --> termineren 
+		if (plan.getHitWorm() != null){
+			this.setOverlappingWorm(plan.getHitWorm());
+			this.hitWorm(plan.getHitWorm());
+		}
+		else
+			this.Terminate();
 	}
 	
 	/**
@@ -332,14 +479,49 @@ public class Projectile extends MovingObjects {
 	 * 
 	 */
 	public void setOverlapsWorm(Position position){
-		List<Worm> worms = this.getWorld().getAllWorms();
+		this.setOverlapsWorm(position.getX(), position.getY());
+	}
+
+	/**
+	 * Sets the worm overlapping with this projectile if it were at the given coordinates.
+	 * @param x
+	 * 		The x-coordinate at which this projectile currently is.
+	 * @param y
+	 * 		The y-coordinate at which this projectile currently is.
+	 * @effect The overlapping worm is set as for the position with the given coordinates.
+	 * 		| setOverlapsWorm(new Position(x,y))
+	 */
+	public void setOverlapsWorm(double x, double y){
+		Worm worm = this.findOverlappingWorm(x, y);
+		if (worm != null){
+			this.setOverlappingWorm(worm);
+		}
+	}
+
+	/**
+	 * Returns the worm overlapping with this projectile if it were at the given coordinates.
+	 * @param x
+	 * 		The x-coordinate of this projectile.
+	 * @param y
+	 * 		The y-coordinate of this projectile.
+	 * @return The last worm near the given coordinates whose distance to them is smaller than the sum of its radius
+	 * 			and the radius of this projectile, or null if there is none.
+	 * 		| if (result != null)
+	 * 		|	then new Position(x,y).calculateDistance(result.getPosition()) < result.getRadius() + this.getRadius()
+	 */
+	@Model
+	private Worm findOverlappingWorm(double x, double y){
+		Worm overlapping = null;
+		List<Worm> worms = this.getWorld().getGameObjectsNear(Worm.class, x, y, this.getRadius());
 		for (Worm worm: worms){
-			
-			if (position.calculateDistance(worm.getPosition()) < worm.getRadius()+ this.getRadius()){
-				this.setOverlappingWorm(worm);
+			double distanceX = x - worm.getX();
+			double distanceY = y - worm.getY();
+			if (Math.sqrt(Math.pow(distanceX, 2)+Math.pow(distanceY, 2)) < worm.getRadius()+ this.getRadius()){
+				overlapping = worm;
 			}
 
 		}
+		return overlapping;
 	}
 	
 	
@@ -379,6 +561,56 @@ public class Projectile extends MovingObjects {
 	
 
 	
+	/**
+	 * Returns a memento holding the current state of this projectile.
+	 * @return A memento that also restores the weapon and the overlapping worm of this projectile.
+	 */
+	@Override @Model
+	Memento createMemento(){
+		return new Memento(this);
+	}
+
+	/**
+	 * Restores the state held by the given memento of this projectile.
+	 * @effect The state of this moving object is restored.
+	 * 		| super.restoreMemento(memento)
+	 * @post The weapon and the overlapping worm of this projectile equal those at the creation of the given memento.
+	 */
+	@Override @Model
+	void restoreMemento(GameObjects.Memento memento){
+		super.restoreMemento(memento);
+		this.weapon = ((Memento) memento).weapon;
+		this.overlappingWorm = ((Memento) memento).overlappingWorm;
+	}
+
+	/**
+	 * A class of mementos holding the state of a projectile.
+	 */
+	static class Memento extends MovingObjects.Memento {
+
+		/**
+		 * Initialize this new memento with the current state of the given projectile.
+		 */
+		Memento(Projectile projectile){
+			super(projectile);
+			this.weapon = projectile.weapon;
+			this.overlappingWorm = projectile.overlappingWorm;
+		}
+
+		/**
+		 * Initialize this new memento with the current state of the given projectile as a game object,
+		 * 	and the given state as a projectile.
+		 */
+		Memento(Projectile projectile, double mass, double direction, Weapon weapon, Worm overlappingWorm){
+			super(projectile, mass, direction);
+			this.weapon = weapon;
+			this.overlappingWorm = overlappingWorm;
+		}
+
+		private final Weapon weapon;
+		private final Worm overlappingWorm;
+	}
+
 }
 
 	
\ No newline at end of file
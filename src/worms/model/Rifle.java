@@ -12,11 +12,11 @@ public class Rifle extends Weapon {
 	/**
 	 * Intializes this new rifle with the characteristics of a rifle.
 	 * @effect This new rifle is initialized as a weapon, with it's specific characteristics
-	 * 		| super(1.5,1.5,0.01,new Points(10,SortPoints.AP),new Points(20,SortPoints.HP))
+	 * 		| super(1.5,1.5,0.01,Points.valueOf(10,SortPoints.AP),Points.valueOf(20,SortPoints.HP))
 
 	 */
 	public Rifle(){
-		super(1.5,1.5,0.01,new Points(10,SortPoints.AP),new Points(20,SortPoints.HP));
+		super(1.5,1.5,0.01,Points.valueOf(10,SortPoints.AP),Points.valueOf(20,SortPoints.HP));
 	}
 	
 }
@@ -0,0 +1,490 @@
+package worms.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import worms.model.position.Position;
+import worms.model.terrain.DistanceField;
+import worms.model.terrain.TerrainGrid;
+
+/**
+ * A class of saved games, storing the complete state of a world in a versioned binary file.
+ * 	The file starts with a header holding the magic number, the version and the dimensions of the world and of its map.
+ * 	The packed terrain follows as 64-bit words, then the distances of the distance field of the terrain as floats,
+ * 	so loading a game neither converts a passable map nor computes the distance field again.
+ * 	The teams, the game objects in the order of the world (position, radius, direction, mass, points, team, weapons)
+ * 	and the turn come last, game objects refer to each other by their index.
+ * 	Games are loaded through a memory-mapped file, the terrain and the distances are copied from it in bulk.
+ * 	The state of the random number generator of the world is not saved.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class SavedGame {
+
+	/**
+	 * The number every saved game starts with.
+	 */
+	public static final int MAGIC = 0x57534156;
+
+	/**
+	 * The version of the format of saved games.
+	 */
+	public static final short VERSION = 1;
+
+	/**
+	 * The kinds of game objects in a saved game.
+	 */
+	private static final byte WORM = 0, FOOD = 1, PROJECTILE = 2;
+
+	/**
+	 * The kinds of weapons in a saved game.
+	 */
+	private static final byte BAZOOKA = 0, RIFLE = 1;
+
+	/**
+	 * Saved games only have static methods.
+	 */
+	private SavedGame(){
+	}
+
+	/**
+	 * Saves the state of the given world to the given file.
+	 * @param world
+	 * 		The world to save.
+	 * @param file
+	 * 		The file to save the world to, replaced if it exists.
+	 * @throws IllegalArgumentException
+	 * 		The given world or file is not effective, or the world holds a weapon of an unknown kind.
+	 * 		| (world == null) || (file == null)
+	 * @throws IOException
+	 * 		The file could not be written.
+	 */
+	public static void save(World world, File file) throws IllegalArgumentException, IOException{
+		if ((world == null) || (file == null)){
+			throw new IllegalArgumentException("invalid saved game");
+		}
+		WorldSnapshot snapshot = world.createTransientSnapshot();
+		TerrainGrid terrain = world.getTerrain();
+		DistanceField distanceField = world.getDistanceField();
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			FileChannel channel = out.getChannel();
+			ByteBuffer header = ByteBuffer.allocate(35);
+			header.putInt(MAGIC);
+			header.putShort(VERSION);
+			header.putDouble(world.getWidth());
+			header.putDouble(world.getHeight());
+			header.putInt(terrain.getNbRows());
+			header.putInt(terrain.getNbColumns());
+			header.put((byte) ((distanceField == null) ? 0 : 1));
+			header.flip();
+			writeFully(channel, header);
+			ByteBuffer words = ByteBuffer.allocate(8 * terrain.getNbWords());
+			terrain.writeTo(words.asLongBuffer());
+			writeFully(channel, words);
+			if (distanceField != null){
+				ByteBuffer distances = ByteBuffer.allocate(4 * terrain.getNbRows() * terrain.getNbColumns());
+				distanceField.writeTo(distances.asFloatBuffer());
+				writeFully(channel, distances);
+			}
+			writeFully(channel, ByteBuffer.wrap(writeState(snapshot)));
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Writes all bytes remaining in the given buffer to the given channel.
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException{
+		while (buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Returns the teams, the game objects and the turn of the given snapshot in the format of saved games.
+	 */
+	private static byte[] writeState(WorldSnapshot snapshot) throws IOException{
+		GameObjects.Memento[] objects = snapshot.getObjects();
+		Map<Object, Integer> objectIndexes = new IdentityHashMap<Object, Integer>();
+		for (int i = 0; i < objects.length; i++){
+			objectIndexes.put(objects[i].getObject(), i);
+		}
+		Team.Memento[] teams = snapshot.getTeams();
+		Map<Object, Integer> teamIndexes = new IdentityHashMap<Object, Integer>();
+		for (int i = 0; i < teams.length; i++){
+			teamIndexes.put(teams[i].getTeam(), i);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeBoolean(snapshot.isStarted());
+		out.writeInt(teams.length);
+		for (Team.Memento memento: teams){
+			Team team = memento.getTeam();
+			writeString(out, team.getName());
+			out.writeInt(team.getNbWorms());
+			for (Worm worm: team.getAllWorms()){
+				out.writeInt(indexOf(objectIndexes, worm));
+			}
+		}
+		out.writeInt(objects.length);
+		for (GameObjects.Memento memento: objects){
+			GameObjects object = memento.getObject();
+			if (object instanceof Worm){
+				out.writeByte(WORM);
+			}
+			else if (object instanceof Food){
+				out.writeByte(FOOD);
+			}
+			else {
+				out.writeByte(PROJECTILE);
+			}
+			out.writeDouble(object.getX());
+			out.writeDouble(object.getY());
+			out.writeDouble(object.getRadius());
+			if (object instanceof Worm){
+				Worm worm = (Worm) object;
+				out.writeDouble(worm.getMass());
+				out.writeDouble(worm.getDirection());
+				writeString(out, worm.getName());
+				out.writeInt(worm.getMaxPoints());
+				out.writeInt(worm.getCurrentAPNumeral());
+				out.writeInt(worm.getCurrentHPNumeral());
+				out.writeDouble(((Worm.Memento) memento).getTerrainAngle());
+				List<Weapon> weapons = worm.getAllWeapons();
+				out.writeInt(weapons.size());
+				for (Weapon weapon: weapons){
+					out.writeByte(kindOf(weapon));
+				}
+				out.writeInt(worm.getActiveWeaponIndex());
+				out.writeInt(indexOf(objectIndexes, worm.getOverlappingFood()));
+			}
+			else if (object instanceof Projectile){
+				Projectile projectile = (Projectile) object;
+				out.writeDouble(projectile.getMass());
+				out.writeDouble(projectile.getDirection());
+				out.writeInt(projectile.getYield());
+				out.writeByte(kindOf(projectile.getWeapon()));
+				int owner = -1;
+				int weaponIndex = -1;
+				for (int i = 0; (i < objects.length) && (owner < 0); i++){
+					if (objects[i].getObject() instanceof Worm){
+						weaponIndex = ((Worm) objects[i].getObject()).getAllWeapons().indexOf(projectile.getWeapon());
+						if (weaponIndex >= 0){
+							owner = i;
+						}
+					}
+				}
+				out.writeInt(owner);
+				out.writeInt(weaponIndex);
+				out.writeInt(indexOf(objectIndexes, projectile.getOverlappingWorm()));
+			}
+		}
+		out.writeInt(indexOf(objectIndexes, snapshot.getCurrentWorm()));
+		out.writeInt(indexOf(teamIndexes, snapshot.getCurrentTeam()));
+		Worm[] teamless = snapshot.getTeamlessWorms();
+		if (teamless == null){
+			out.writeInt(-1);
+		}
+		else {
+			out.writeInt(teamless.length);
+			for (Worm worm: teamless){
+				out.writeInt(indexOf(objectIndexes, worm));
+			}
+		}
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Returns the index of the given element in the given indexes, -1 if the element is not effective or has no index.
+	 */
+	private static int indexOf(Map<Object, Integer> indexes, Object element){
+		Integer index = (element == null) ? null : indexes.get(element);
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * Returns the kind of the given weapon in saved games.
+	 * @throws IllegalArgumentException
+	 * 		The given weapon is neither a bazooka nor a rifle.
+	 */
+	private static byte kindOf(Weapon weapon) throws IllegalArgumentException{
+		if (weapon instanceof Bazooka){
+			return BAZOOKA;
+		}
+		if (weapon instanceof Rifle){
+			return RIFLE;
+		}
+		throw new IllegalArgumentException("unknown weapon " + weapon);
+	}
+
+	/**
+	 * Returns a new weapon of the given kind.
+	 * @throws IOException
+	 * 		The given kind is not a kind of weapons in saved games.
+	 */
+	private static Weapon newWeapon(byte kind) throws IOException{
+		if (kind == BAZOOKA){
+			return new Bazooka();
+		}
+		if (kind == RIFLE){
+			return new Rifle();
+		}
+		throw new IOException("unknown weapon kind " + kind);
+	}
+
+	/**
+	 * Writes the given string as its length followed by its characters.
+	 */
+	private static void writeString(DataOutputStream out, String string) throws IOException{
+		out.writeInt(string.length());
+		out.writeChars(string);
+	}
+
+	/**
+	 * Reads a string written by writeString.
+	 */
+	private static String readString(ByteBuffer buffer) throws IOException{
+		int length = buffer.getInt();
+		if ((length < 0) || (2L * length > buffer.remaining())){
+			throw new IOException("invalid string length " + length);
+		}
+		char[] chars = new char[length];
+		buffer.asCharBuffer().get(chars);
+		buffer.position(buffer.position() + 2 * length);
+		return new String(chars);
+	}
+
+	/**
+	 * Loads the world saved in the given file.
+	 * @param file
+	 * 		The file to load the world from.
+	 * @param random
+	 * 		The random number generator of the loaded world.
+	 * @return A new world with the state of the saved world, the given random number generator as its random number generator.
+	 * @throws IllegalArgumentException
+	 * 		The given file is not effective.
+	 * 		| file == null
+	 * @throws IOException
+	 * 		The file could not be read, or it does not hold a saved game of a known version, or the saved game is corrupt.
+	 */
+	public static World load(File file, Random random) throws IllegalArgumentException, IOException{
+		if (file == null){
+			throw new IllegalArgumentException("invalid saved game");
+		}
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = in.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return read(buffer, random);
+		}
+		catch (BufferUnderflowException exc){
+			throw new IOException("saved game ends too early", exc);
+		}
+		catch (IndexOutOfBoundsException exc){
+			throw new IOException("corrupt saved game", exc);
+		}
+		catch (IllegalArgumentException exc){
+			throw new IOException("corrupt saved game", exc);
+		}
+		catch (ClassCastException exc){
+			throw new IOException("corrupt saved game", exc);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Reads a saved game from the given buffer.
+	 */
+	private static World read(ByteBuffer buffer, Random random) throws IOException{
+		if (buffer.getInt() != MAGIC){
+			throw new IOException("not a saved game");
+		}
+		short version = buffer.getShort();
+		if (version != VERSION){
+			throw new IOException("unknown saved game version " + version);
+		}
+		double width = buffer.getDouble();
+		double height = buffer.getDouble();
+		int nbRows = buffer.getInt();
+		int nbColumns = buffer.getInt();
+		boolean hasDistanceField = (buffer.get() != 0);
+		TerrainGrid terrain = new TerrainGrid(nbRows, nbColumns, buffer.asLongBuffer());
+		buffer.position(buffer.position() + 8 * terrain.getNbWords());
+		DistanceField distanceField = null;
+		if (hasDistanceField){
+			distanceField = new DistanceField(terrain, width / nbColumns, height / nbRows, buffer.asFloatBuffer());
+			buffer.position(buffer.position() + 4 * nbRows * nbColumns);
+		}
+		World world = new World(width, height, terrain, distanceField, random);
+
+		boolean started = buffer.get() != 0;
+		int nbTeams = buffer.getInt();
+		List<Team> teams = new ArrayList<Team>();
+		int[][] teamWorms = new int[nbTeams][];
+		for (int i = 0; i < nbTeams; i++){
+			teams.add(new Team(readString(buffer), world));
+			teamWorms[i] = readIndexes(buffer, buffer.getInt());
+		}
+		int nbObjects = buffer.getInt();
+		GameObjects[] objects = new GameObjects[nbObjects];
+		ObjectState[] states = new ObjectState[nbObjects];
+		for (int i = 0; i < nbObjects; i++){
+			ObjectState state = new ObjectState();
+			states[i] = state;
+			byte kind = buffer.get();
+			Position position = new Position(buffer.getDouble(), buffer.getDouble());
+			double radius = buffer.getDouble();
+			if (kind == FOOD){
+				objects[i] = new Food(position, world);
+				continue;
+			}
+			state.mass = buffer.getDouble();
+			state.direction = buffer.getDouble();
+			if (kind == WORM){
+				String name = readString(buffer);
+				state.maxPoints = buffer.getInt();
+				state.currentAP = buffer.getInt();
+				state.currentHP = buffer.getInt();
+				state.terrainAngle = buffer.getDouble();
+				int nbWeapons = buffer.getInt();
+				if ((nbWeapons < 0) || (nbWeapons > buffer.remaining())){
+					throw new IOException("invalid number of weapons " + nbWeapons);
+				}
+				state.weapons = new Weapon[nbWeapons];
+				for (int j = 0; j < nbWeapons; j++){
+					state.weapons[j] = newWeapon(buffer.get());
+				}
+				state.activeWeaponIndex = buffer.getInt();
+				state.overlapping = buffer.getInt();
+				objects[i] = new Worm(name, radius, position.getX(), position.getY(), state.direction, world);
+			}
+			else if (kind == PROJECTILE){
+				int yield = buffer.getInt();
+				Weapon weapon = newWeapon(buffer.get());
+				int owner = buffer.getInt();
+				int weaponIndex = buffer.getInt();
+				if ((owner >= 0) && (owner < i) && (weaponIndex >= 0) && (weaponIndex < states[owner].weapons.length)){
+					weapon = states[owner].weapons[weaponIndex];
+				}
+				state.weapon = weapon;
+				state.overlapping = buffer.getInt();
+				objects[i] = new Projectile(position, world, yield, state.direction, radius, weapon);
+			}
+			else {
+				throw new IOException("unknown game object kind " + kind);
+			}
+		}
+		Worm currentWorm = (Worm) objectAt(objects, buffer.getInt());
+		int currentTeamIndex = buffer.getInt();
+		Team currentTeam = ((currentTeamIndex >= 0) && (currentTeamIndex < nbTeams)) ? teams.get(currentTeamIndex) : null;
+		int nbTeamless = buffer.getInt();
+		Worm[] teamless = null;
+		if (nbTeamless >= 0){
+			int[] indexes = readIndexes(buffer, nbTeamless);
+			List<Worm> worms = new ArrayList<Worm>();
+			for (int index: indexes){
+				if (objectAt(objects, index) != null){
+					worms.add((Worm) objectAt(objects, index));
+				}
+			}
+			teamless = worms.toArray(new Worm[worms.size()]);
+		}
+
+		Team[] teamOfWorm = new Team[nbObjects];
+		Team.Memento[] teamStates = new Team.Memento[nbTeams];
+		for (int i = 0; i < nbTeams; i++){
+			List<Worm> worms = new ArrayList<Worm>();
+			for (int index: teamWorms[i]){
+				if (objectAt(objects, index) != null){
+					worms.add((Worm) objectAt(objects, index));
+					teamOfWorm[index] = teams.get(i);
+				}
+			}
+			teamStates[i] = new Team.Memento(teams.get(i), worms.toArray(new Worm[worms.size()]));
+		}
+		GameObjects.Memento[] objectStates = new GameObjects.Memento[nbObjects];
+		for (int i = 0; i < nbObjects; i++){
+			ObjectState state = states[i];
+			if (objects[i] instanceof Worm){
+				Worm worm = (Worm) objects[i];
+				objectStates[i] = new Worm.Memento(worm, state.mass, state.direction, state.maxPoints, state.currentAP,
+						state.currentHP, worm.getName(), state.terrainAngle, teamOfWorm[i], state.weapons,
+						state.activeWeaponIndex, (Food) objectAt(objects, state.overlapping));
+			}
+			else if (objects[i] instanceof Projectile){
+				objectStates[i] = new Projectile.Memento((Projectile) objects[i], state.mass, state.direction,
+						state.weapon, (Worm) objectAt(objects, state.overlapping));
+			}
+			else {
+				objectStates[i] = objects[i].createMemento();
+			}
+		}
+		world.restoreUnsharedSnapshot(new WorldSnapshot(world, objectStates, teamStates, teamless, currentWorm, currentTeam,
+				started, false, world.getTerrain(), world.getDistanceField(), world.getAdjacencyIndex()));
+		return world;
+	}
+
+	/**
+	 * Reads the given number of indexes of game objects.
+	 */
+	private static int[] readIndexes(ByteBuffer buffer, int number) throws IOException{
+		if ((number < 0) || (4L * number > buffer.remaining())){
+			throw new IOException("invalid number of game objects " + number);
+		}
+		int[] result = new int[number];
+		for (int i = 0; i < number; i++){
+			result[i] = buffer.getInt();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the game object with the given index, null if the index is -1.
+	 * @throws IOException
+	 * 		The given index is neither -1 nor the index of a game object.
+	 */
+	private static GameObjects objectAt(GameObjects[] objects, int index) throws IOException{
+		if (index == -1){
+			return null;
+		}
+		if ((index < 0) || (index >= objects.length)){
+			throw new IOException("invalid game object index " + index);
+		}
+		return objects[index];
+	}
+
+	/**
+	 * A class of the state of a game object read from a saved game, applied once all game objects exist.
+	 */
+	private static class ObjectState {
+		private double mass;
+		private double direction;
+		private int maxPoints;
+		private int currentAP;
+		private int currentHP;
+		private double terrainAngle;
+		private Weapon[] weapons;
+		private int activeWeaponIndex;
+		private Weapon weapon;
+		private int overlapping = -1;
+	}
+}
@@ -0,0 +1,338 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.position.Position;
+import worms.model.terrain.AdjacencyIndex;
+
+/**
+ * A class of spawn candidates, the positions of a sampling grid over a world at which an entity with a given radius might be adjacent to impassable terrain.
+ * 	The grid has one sample per cell of the map of the world, or up to four per cell in each direction for entities smaller than two cells.
+ * 	Its rows are classified in bands on a pool of threads shared by all worlds by the adjacency index of the world, which rules out almost every sample,
+ * 	and samples without terrain below them in reach of an adjacency check are ruled out as well,
+ * 	and the candidates of the bands are concatenated in the order of the bands,
+ * 	so the candidates and their order only depend on the terrain and the radius, never on the number of threads.
+ * 	Candidates are only checked completely when they are drawn, at random positions inside their sample,
+ * 	and a candidate without an adjacent position at any of these is removed.
+ * 	Spawn candidates have to be computed again when the terrain of their world changes.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+class SpawnCandidates {
+
+	/**
+	 * Initialize these new spawn candidates for an entity with the given radius in the given world, searching the grid with the given number of threads.
+	 * @param world
+	 * 		The world to search.
+	 * @param radius
+	 * 		The radius of the entity.
+	 * @param nbThreads
+	 * 		The number of threads to search the grid with, 1 searches it in the calling thread.
+	 * @post The candidates are the positions of the sampling grid at which the entity might be adjacent, in the order of the grid.
+	 * 		| for each index in [0, ..., new.getNbCandidates()-1]:
+	 * 		|	world.getAdjacencyIndex().getState(column, row, radius) != AdjacencyIndex.NEVER
+	 * 		|		for the column and row of the cell of new.getCandidate(index)
+	 * @throws IllegalArgumentException
+	 * 		The given world is not effective or the given number of threads is not positive.
+	 * 		| (world == null) || (nbThreads < 1)
+	 */
+	SpawnCandidates(World world, double radius, int nbThreads) throws IllegalArgumentException{
+		if ((world == null) || (nbThreads < 1)){
+			throw new IllegalArgumentException("invalid spawn candidates");
+		}
+		this.world = world;
+		this.radius = radius;
+		this.columnsPerCell = samplesPerCell(world.getWidthConversion(), radius);
+		this.rowsPerCell = samplesPerCell(world.getHeightConversion(), radius);
+		this.nbColumns = world.getMapWidth() * columnsPerCell;
+		this.nbRows = world.getMapHeight() * rowsPerCell;
+		this.sampleWidth = world.getWidthConversion() / columnsPerCell;
+		this.sampleHeight = world.getHeightConversion() / rowsPerCell;
+		this.candidates = search(world, Math.min(nbThreads, Math.max(1, nbRows)));
+		this.nbCandidates = candidates.length;
+	}
+
+	/**
+	 * The world of these spawn candidates.
+	 */
+	private final World world;
+
+	/**
+	 * Returns the number of samples per cell in one direction, for cells of the given dimension and entities with the given radius.
+	 */
+	private static int samplesPerCell(double cellDimension, double radius){
+		if (! (radius > 0)){
+			return 1;
+		}
+		return (int) Math.max(1, Math.min(MAX_SAMPLES_PER_CELL, Math.ceil(2 * cellDimension / radius)));
+	}
+
+	/**
+	 * The largest number of samples per cell in one direction.
+	 */
+	private static final int MAX_SAMPLES_PER_CELL = 4;
+
+	/**
+	 * The number of bands of rows searched per thread, so threads that finish early take over the remaining bands.
+	 */
+	private static final int BANDS_PER_THREAD = 4;
+
+	/**
+	 * Searches the sampling grid of the given world in bands of rows with the given number of threads.
+	 * @return The indexes of the samples at which the entity might be adjacent, in the order of the grid.
+	 */
+	@Model
+	private int[] search(final World world, int nbThreads){
+		int nbBands = (nbThreads == 1) ? 1 : Math.min(nbRows, nbThreads * BANDS_PER_THREAD);
+		List<Callable<int[]>> bands = new ArrayList<Callable<int[]>>(nbBands);
+		for (int band = 0; band < nbBands; band++){
+			final int fromRow = (int) ((long) nbRows * band / nbBands);
+			final int toRow = (int) ((long) nbRows * (band + 1) / nbBands);
+			bands.add(new Callable<int[]>(){
+				@Override
+				public int[] call(){
+					return searchRows(world, fromRow, toRow);
+				}
+			});
+		}
+		if (nbThreads == 1){
+			return searchRows(world, 0, nbRows);
+		}
+		try {
+			List<int[]> found = new ArrayList<int[]>(nbBands);
+			int total = 0;
+			for (Future<int[]> future: getExecutor().invokeAll(bands)){
+				found.add(future.get());
+				total = total + future.get().length;
+			}
+			int[] result = new int[total];
+			int offset = 0;
+			for (int[] indexes: found){
+				System.arraycopy(indexes, 0, result, offset, indexes.length);
+				offset = offset + indexes.length;
+			}
+			return result;
+		}
+		catch (InterruptedException exc){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("spawn search interrupted", exc);
+		}
+		catch (ExecutionException exc){
+			throw new IllegalStateException("spawn search failed", exc.getCause());
+		}
+	}
+
+	/**
+	 * Returns the pool of threads on which the bands of all spawn candidates are searched, creating it the first time.
+	 * 	It has a thread per processor, its threads are daemon threads, so it is never shut down.
+	 */
+	@Model
+	private static synchronized ExecutorService getExecutor(){
+		if (executor == null){
+			executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory(){
+				@Override
+				public Thread newThread(Runnable runnable){
+					Thread thread = new Thread(runnable, "spawn-search");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * The pool of threads on which the bands of all spawn candidates are searched, null until it is needed.
+	 */
+	private static ExecutorService executor;
+
+	/**
+	 * Searches the rows of the sampling grid from the given row up to but not including the other given row.
+	 * 	Only reads the terrain of the given world, so bands can be searched at the same time.
+	 * @return The indexes of the samples in those rows at which the entity might be adjacent, in the order of the grid.
+	 */
+	@Model
+	private int[] searchRows(World world, int fromRow, int toRow){
+		AdjacencyIndex index = world.getAdjacencyIndex();
+		byte[] states = new byte[world.getMapWidth()];
+		Arrays.fill(states, AdjacencyIndex.CANDIDATE);
+		int[] found = new int[64];
+		int nbFound = 0;
+		for (int row = fromRow; row < toRow; row++){
+			if ((index != null) && ((row == fromRow) || (row % rowsPerCell == 0))){
+				int cellRow = row / rowsPerCell;
+				index.getRowStates(cellRow, radius, states);
+				for (int cellColumn = 0; cellColumn < states.length; cellColumn++){
+					if ((states[cellColumn] != AdjacencyIndex.NEVER) && (! hasTerrainBelow(world, cellColumn, cellRow))){
+						states[cellColumn] = AdjacencyIndex.NEVER;
+					}
+				}
+			}
+			for (int column = 0; column < nbColumns; column++){
+				if (states[column / columnsPerCell] != AdjacencyIndex.NEVER){
+					if (nbFound == found.length){
+						int[] larger = new int[2 * found.length];
+						System.arraycopy(found, 0, larger, 0, nbFound);
+						found = larger;
+					}
+					found[nbFound++] = row * nbColumns + column;
+				}
+			}
+		}
+		int[] result = new int[nbFound];
+		System.arraycopy(found, 0, result, 0, nbFound);
+		return result;
+	}
+
+	/**
+	 * Checks whether the given world has impassable terrain below the given cell, in reach of an entity in that cell that checks whether it is adjacent.
+	 * 	That check looks for terrain on the lower part of circles with a radius of up to 1.1 times the radius of the entity,
+	 * 	between 36 degrees below the horizon on the left and on the right.
+	 * @return True if some cell in a box around that part of the circles for every position in the given cell is impassable.
+	 */
+	@Model
+	private boolean hasTerrainBelow(World world, int cellColumn, int cellRow){
+		double cellWidth = world.getWidthConversion();
+		double cellHeight = world.getHeightConversion();
+		int mapWidth = world.getMapWidth();
+		int mapHeight = world.getMapHeight();
+		double reach = 1.1 * radius + CHECK_MARGIN;
+		double halfWidth = Math.cos(Math.PI / 5) * reach;
+		double cellBottom = (mapHeight - cellRow - 1) * cellHeight;
+		double top = cellBottom + cellHeight - Math.sin(Math.PI / 5) * radius;
+		double bottom = cellBottom - reach;
+		int firstColumn = Math.max(0, (int) Math.floor(cellColumn - halfWidth / cellWidth) - 1);
+		int lastColumn = Math.min(mapWidth - 1, (int) Math.ceil(cellColumn + 1 + halfWidth / cellWidth) + 1);
+		int firstRow = Math.max(0, (int) Math.floor(mapHeight - top / cellHeight) - 1);
+		int lastRow = Math.min(mapHeight - 1, (int) Math.ceil(mapHeight - bottom / cellHeight) + 1);
+		for (int row = firstRow; row <= lastRow; row++){
+			if (world.getTerrain().findImpassableInRow(row, firstColumn, lastColumn) >= 0){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The distance by which the reach of an adjacency check is overestimated, to cover its rounding.
+	 */
+	private static final double CHECK_MARGIN = 0.01;
+
+	/**
+	 * Returns the x-coordinate of the samples in the given column of the sampling grid.
+	 */
+	private double getX(int column){
+		return (column + 0.5) * sampleWidth;
+	}
+
+	/**
+	 * Returns the y-coordinate of the samples in the given row of the sampling grid, rows are numbered from the top.
+	 */
+	private double getY(int row){
+		return (nbRows - row - 0.5) * sampleHeight;
+	}
+
+	/**
+	 * Returns the radius of the entity of these spawn candidates.
+	 */
+	@Basic @Immutable
+	double getRadius(){
+		return this.radius;
+	}
+
+	/**
+	 * The radius of the entity of these spawn candidates.
+	 */
+	private final double radius;
+
+	/**
+	 * Returns the number of candidates that have not been removed.
+	 */
+	int getNbCandidates(){
+		return this.nbCandidates;
+	}
+
+	/**
+	 * Returns the candidate with the given index.
+	 * @param index
+	 * 		The index of the candidate.
+	 * @throws IndexOutOfBoundsException
+	 * 		The given index is not the index of a candidate.
+	 * 		| (index < 0) || (index >= getNbCandidates())
+	 */
+	Position getCandidate(int index) throws IndexOutOfBoundsException{
+		if (index >= nbCandidates){
+			throw new IndexOutOfBoundsException("no candidate " + index);
+		}
+		int sample = candidates[index];
+		return new Position(getX(sample % nbColumns), getY(sample / nbColumns));
+	}
+
+	/**
+	 * Draws a random position inside the sample of a random candidate at which the entity is adjacent, with the given random number generator.
+	 * 	Adjacent positions lie in narrow bands above the terrain, so a few positions are tried in every candidate that is drawn.
+	 * 	Candidates in which none of them is adjacent are removed, the last candidate takes their place.
+	 * @param random
+	 * 		The random number generator to draw with.
+	 * @return A position at which the entity is adjacent, null if there is none.
+	 * 		| if (result != null)
+	 * 		|	then world.isAdjacent(getRadius(), result)
+	 */
+	Position draw(Random random){
+		while (nbCandidates > 0){
+			int index = random.nextInt(nbCandidates);
+			int sample = candidates[index];
+			double left = getX(sample % nbColumns) - sampleWidth / 2;
+			double bottom = getY(sample / nbColumns) - sampleHeight / 2;
+			for (int i = 0; i < TRIES_PER_CANDIDATE; i++){
+				Position position = new Position(left + random.nextDouble() * sampleWidth, bottom + random.nextDouble() * sampleHeight);
+				if (world.isAdjacent(radius, position)){
+					return position;
+				}
+			}
+			nbCandidates = nbCandidates - 1;
+			candidates[index] = candidates[nbCandidates];
+		}
+		return null;
+	}
+
+	/**
+	 * The number of positions tried in a candidate before it is removed.
+	 */
+	private static final int TRIES_PER_CANDIDATE = 4;
+
+	/**
+	 * The indexes of the samples at which the entity might be adjacent, the first nbCandidates of them have not been removed.
+	 */
+	private final int[] candidates;
+
+	/**
+	 * The number of candidates that have not been removed.
+	 */
+	private int nbCandidates;
+
+	/**
+	 * The number of samples per cell of the map in a row and in a column.
+	 */
+	private final int columnsPerCell, rowsPerCell;
+
+	/**
+	 * The number of columns and rows of the sampling grid.
+	 */
+	private final int nbColumns, nbRows;
+
+	/**
+	 * The width and height of a sample of the sampling grid.
+	 */
+	private final double sampleWidth, sampleHeight;
+}
@@ -0,0 +1,55 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpawnCandidatesTest {
+
+	@Before
+	public void setUp() throws Exception {
+		boolean[][] passableMap = new boolean[80][160];
+		for (int row = 0; row < 80; row++){
+			for (int column = 0; column < 160; column++){
+				// rolling ground with floating islands
+				double ground = 20 + 8 * Math.sin(column / 9.0);
+				boolean island = ((row / 10) % 3 == 1) && ((column / 15) % 2 == 0) && (row % 10 < 3);
+				passableMap[row][column] = (80 - row > ground) && (! island);
+			}
+		}
+		world = new World(32, 16, passableMap, new Random(7357));
+	}
+	private World world;
+
+	@Test
+	public void testCandidates_SameForAnyNumberOfThreads(){
+		for (double radius: new double[] {0.25, 0.5, 1.0}){
+			SpawnCandidates single = new SpawnCandidates(world, radius, 1);
+			SpawnCandidates parallel = new SpawnCandidates(world, radius, 4);
+			assertTrue(single.getNbCandidates() > 0);
+			assertEquals(single.getNbCandidates(), parallel.getNbCandidates());
+			for (int index = 0; index < single.getNbCandidates(); index++){
+				assertEquals(single.getCandidate(index), parallel.getCandidate(index));
+			}
+		}
+	}
+
+	@Test
+	public void testDraw_SameForAnyNumberOfThreads(){
+		SpawnCandidates single = new SpawnCandidates(world, 0.5, 1);
+		SpawnCandidates parallel = new SpawnCandidates(world, 0.5, 4);
+		Random random = new Random(11);
+		Random other = new Random(11);
+		for (int i = 0; i < 20; i++){
+			assertEquals(single.draw(random), parallel.draw(other));
+		}
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructor_NoThreads(){
+		new SpawnCandidates(world, 0.5, 0);
+	}
+}
@@ -1,5 +1,6 @@
 package worms.model;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import be.kuleuven.cs.som.annotate.*;
@@ -511,4 +512,72 @@ public class Team{
 	private boolean isTerminated = false;
 	
 
+// memento
+
+	/**
+	 * Returns a memento holding the current state of this team.
+	 * @return A memento that restores the name, worms, world and termination of this team.
+	 */
+	@Model
+	Memento createMemento(){
+		return new Memento(this);
+	}
+
+	/**
+	 * Restores the state held by the given memento of this team.
+	 * @param memento
+	 * 		The memento to restore.
+	 * @post The name, worms, world and termination of this team equal those at the creation of the given memento.
+	 */
+	@Model
+	void restoreMemento(Memento memento){
+		this.name = memento.name;
+		this.worms.clear();
+		this.worms.addAll(Arrays.asList(memento.worms));
+		this.world = memento.world;
+		this.isTerminated = memento.isTerminated;
+	}
+
+	/**
+	 * A class of mementos holding the state of a team.
+	 */
+	static class Memento {
+
+		/**
+		 * Initialize this new memento with the current state of the given team.
+		 */
+		Memento(Team team){
+			this.team = team;
+			this.name = team.name;
+			this.worms = team.worms.toArray(new Worm[team.worms.size()]);
+			this.world = team.world;
+			this.isTerminated = team.isTerminated;
+		}
+
+		/**
+		 * Initialize this new memento with the current world and termination of the given team, and the given worms.
+		 */
+		Memento(Team team, Worm[] worms){
+			this.team = team;
+			this.name = team.name;
+			this.worms = worms.clone();
+			this.world = team.world;
+			this.isTerminated = team.isTerminated;
+		}
+
+		/**
+		 * Returns the team of this memento.
+		 */
+		@Basic
+		Team getTeam(){
+			return this.team;
+		}
+
+		private final Team team;
+		private final String name;
+		private final Worm[] worms;
+		private final World world;
+		private final boolean isTerminated;
+	}
+
 }
@@ -1,7 +1,13 @@
 package worms.model;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 import be.kuleuven.cs.som.annotate.*;
 import worms.exceptions.*;
@@ -9,6 +15,11 @@ import worms.gui.*;
 import worms.model.*; 
 import worms.model.Worm.*;
 import worms.model.position.Position;
+import worms.model.spatial.SpatialHash;
+import worms.model.terrain.AdjacencyIndex;
+import worms.model.terrain.DistanceField;
+import worms.model.terrain.SurfaceIndex;
+import worms.model.terrain.TerrainGrid;
 import worms.util.Util;
 
 
@@ -45,8 +56,9 @@ public class World {
 	 * 		|new.getHeight() == height
 	 * @post The new width of this new world is equal to the given width.
 	 * 		|new.getWidth() == width
-	 * @post The new passableMap of this new world equals the given passableMap.
-	 * 		| new.getPassableMap() == passableMap
+	 * @post The new passableMap of this new world has the same elements as the given passableMap,
+	 * 			later changes to the given passableMap do not affect this new world.
+	 * 		| Arrays.deepEquals(new.getPassableMap(), passableMap)
 	 * @post The new random number generator of this new world equals the given random number generator.
 	 * 		| new.getRandom() == random
 	 * 
@@ -71,8 +83,46 @@ public class World {
 		this.random = random;
 		this.width = width;
 		this.height = height;
-		this.passableMap = passableMap;
+		this.terrain = new TerrainGrid(passableMap);
 		setConversion();
+		setDistanceField(null);
+	}
+
+	/**
+	 * Initialize this new world with the given width, height, terrain, distance field and random number generator.
+	 * 	Saved games are loaded this way, without converting a passable map and without computing the distance field again.
+	 * @param width
+	 * 		The width of this new world.
+	 * @param height
+	 * 		The height of this new world.
+	 * @param terrain
+	 * 		The terrain of this new world.
+	 * @param distanceField
+	 * 		The distance field of the given terrain, null if it has to be computed.
+	 * @param random
+	 * 		The random number generator of this new world.
+	 * @post The new terrain of this new world is the given terrain.
+	 * 		| new.getTerrain() == terrain
+	 * @effect The conversion and the distance field are set for the given terrain, using the given distance field if it measures it.
+	 * 		| setConversion() && setDistanceField(distanceField)
+	 * @throws IllegalArgumentException
+	 * 		The given height (or width) is not a valid height (or width), or the given terrain is not effective.
+	 * 		| (! isValidHeight(height)) || (! isValidWidth(width)) || (terrain == null)
+	 */
+	@Raw
+	World(double width, double height, TerrainGrid terrain, DistanceField distanceField, Random random) throws IllegalArgumentException{
+		if ((! isValidHeight(height)) || (! isValidWidth(width))){
+			throw new IllegalArgumentException("Invalid world dimensions");
+		}
+		if (terrain == null){
+			throw new IllegalArgumentException("invalid terrain");
+		}
+		this.random = random;
+		this.width = width;
+		this.height = height;
+		this.terrain = terrain;
+		setConversion();
+		setDistanceField(distanceField);
 	}
 	
 	/**
@@ -208,33 +258,83 @@ public class World {
 	 */
 	private static final double foodRadius = 0.2;
 	
-	/**
-	 * The map that contains all the passable locations.
-	 */
-	public boolean[][] passableMap;
-	
 	/**
 	 * Return the passableMap belonging to this world.
+	 * @return A new matrix unpacked from the terrain of this world,
+	 * 			element [j][i] is true if and only if the map index (i,j) is passable.
+	 * 		| result == getTerrain().toPassableMap()
 	 */
-	@Basic @Immutable
 	public boolean[][] getPassableMap(){
-		return this.passableMap;
+		return getTerrain().toPassableMap();
 	}
-	
+
+	/**
+	 * Return the packed terrain grid that contains all the passable locations of this world.
+	 */
+	@Basic @Model
+	protected TerrainGrid getTerrain(){
+		return this.terrain;
+	}
+
+	/**
+	 * The packed terrain grid that contains all the passable locations.
+	 */
+	private TerrainGrid terrain;
+
+	/**
+	 * Checks whether the terrain of this world is shared with a snapshot of this world.
+	 * 	Shared terrain is copied before it is changed.
+	 */
+	@Basic @Model
+	private boolean isTerrainShared(){
+		return this.terrainShared;
+	}
+
+	/**
+	 * Variable registering whether the terrain of this world is shared with a snapshot of this world.
+	 */
+	private boolean terrainShared = false;
+
+	/**
+	 * Gives this world a terrain of its own if its terrain is shared with a snapshot.
+	 * @post If the terrain was shared, this world has a copy of its terrain, distance field, adjacency index and surface index,
+	 * 			which it does not share. A surface index built for another terrain is not copied.
+	 * 		| if (isTerrainShared())
+	 * 		|	then new.getTerrain() != getTerrain() && ! new.isTerrainShared()
+	 */
+	@Model
+	private void ensureOwnTerrain(){
+		if (isTerrainShared()){
+			TerrainGrid oldTerrain = this.terrain;
+			this.terrain = new TerrainGrid(oldTerrain);
+			if (this.distanceField != null){
+				this.distanceField = new DistanceField(this.distanceField, this.terrain);
+				this.adjacencyIndex = new AdjacencyIndex(this.distanceField, 1.1, EPS);
+			}
+			if ((this.surfaceIndex != null) && (this.surfaceIndex.getTerrain() == oldTerrain)){
+				this.surfaceIndex = new SurfaceIndex(this.surfaceIndex, this.terrain);
+			}
+			else {
+				this.surfaceIndex = null;
+			}
+			this.terrainShared = false;
+		}
+	}
+
 	/**
 	 * Return the number of rows (width of) in the passableMap.
 	 */
 	@Immutable
 	public int getMapHeight(){
-		return getPassableMap().length;
+		return getTerrain().getNbRows();
 	}
-	
+
 	/**
 	 * Return the number of columns (height of) in the passableMap.
 	 */
 	@Immutable
 	public int getMapWidth(){
-		return getPassableMap()[0].length;
+		return getTerrain().getNbColumns();
 	}
 	
 	/**
@@ -243,11 +343,11 @@ public class World {
 	 * 		The passableMap to check
 	 * @return true if and only if he passableMap contains elements and the passableMap is effective.
 	 * 		| result ==
-	 * 		| 	((passableMap.length != 0) && (passableMap != null))
+	 * 		| 	((passableMap != null) && (passableMap.length != 0))
 	 */
 	@Raw
 	public boolean isValidPassableMap(boolean [][] passableMap){
-		return 	((passableMap.length != 0) && (passableMap != null));
+		return 	((passableMap != null) && (passableMap.length != 0));
 	}
 	
 	/**
@@ -270,15 +370,30 @@ public class World {
 	 */
 	public boolean isPassable(Position position){
 		if (position == null){
-			return false;	
+			return false;
 		}
-		if (! positionInWorld(position)){
+		return isPassable(position.getX(), position.getY());
+	}
+
+	/**
+	 * Checks whether the position with the given coordinates is passable in this world.
+	 * @param x
+	 * 		The x-coordinate of the position to check.
+	 * @param y
+	 * 		The y-coordinate of the position to check.
+	 * @return true if the coordinates are not in this world,
+	 * 			otherwise whether the index of the map covering the coordinates is passable.
+	 * 		| if (! inWorld(x,y))
+	 * 		|	then result == true
+	 * 		| else result == isPassable(convertXToMap(x), convertYToMap(y))
+	 */
+	public boolean isPassable(double x, double y){
+		if (! inWorld(x,y)){
 			return true;
 		}
-		int [] indexes = convertPositionToMap(position);
-		return (isPassable(indexes[0],indexes[1]));
+		return (isPassable(convertXToMap(x), convertYToMap(y)));
 	}
-	
+
 	/**
 	 * Check if a given position is impassable in this world.
 	 * @param position
@@ -289,6 +404,19 @@ public class World {
 	public boolean isImpassable(Position position){
 		return (! isPassable(position));
 	}
+
+	/**
+	 * Checks whether the position with the given coordinates is impassable in this world.
+	 * @param x
+	 * 		The x-coordinate of the position to check.
+	 * @param y
+	 * 		The y-coordinate of the position to check.
+	 * @return true if and only if the position with the given coordinates is not passable
+	 * 		| result == (! isPassable(x,y))
+	 */
+	public boolean isImpassable(double x, double y){
+		return (! isPassable(x,y));
+	}
 	
 	/**
 	 * Checks whether a given position is passable for a circle with a given radius.
@@ -308,35 +436,253 @@ public class World {
 		if (position == null){
 			return false;
 		}
-		if (radius < 0){
+		return isPassableForCircle(startRadius, radius, position.getX(), position.getY());
+	}
+
+	/**
+	 * Checks whether the ring between the given radii around the given coordinates is passable.
+	 * 	The distance field of this world answers the question in a single lookup if the circle is far enough from impassable terrain,
+	 * 	otherwise every impassable cell in the bounding box of the circle is compared to the ring exactly.
+	 * @param startRadius
+	 * 		The radius from where to start the search.
+	 * @param radius
+	 * 		The radius of the circle.
+	 * @param x
+	 * 		The x-coordinate of the center of the circle.
+	 * @param y
+	 * 		The y-coordinate of the center of the circle.
+	 * @return True if and only if the given radius is not negative and no impassable cell of the map
+	 * 			has a point at a distance between the given radii from the center.
+	 * 		| result ==
+	 * 		|	((radius >= 0) &&
+	 * 		|	for each (i,j) for which ! isPassable(i,j):
+	 * 		|		(minimumDistance(x,y,i,j) > radius) || (maximumDistance(x,y,i,j) < Math.min(startRadius,radius)))
+	 */
+	public boolean isPassableForCircle(double startRadius, double radius, double x, double y){
+		if (! (radius >= 0)){
 			return false;
 		}
-		double x = position.getX();
-		double y = position.getY();
-		
-		double stepSize = Math.min(getHeightConversion(),getWidthConversion());
-		double loopRadius = startRadius;
-		boolean stop = false;
-		while (! stop){
-			if (loopRadius > radius){
-				stop = true;
-				loopRadius = radius;
+		if ((x + radius < 0) || (x - radius > getWidth()) || (y + radius < 0) || (y - radius > getHeight())){
+			return true;
+		}
+		if ((getDistanceField() != null) && inWorld(x,y)){
+			double clearance = getDistanceField().getDistance(getColumn(x), getRow(y)) - getCellDiagonal();
+			if (clearance > radius + CONTACT){
+				return true;
 			}
-			double alpha = 0;
-			double stepSizeAlpha = Math.PI/10;
-			while(alpha <= 2*Math.PI-stepSizeAlpha){
-				double xToCheck =  (x + loopRadius * Math.cos(alpha));
-				double yToCheck =  (y + loopRadius * Math.sin(alpha));
-				Position positionToCheck = new Position(xToCheck, yToCheck);
-				if (isImpassable(positionToCheck)){
-					return false;
+		}
+		double innerRadius = Math.max(0, Math.min(startRadius, radius));
+		return (! hasImpassableCellInRing(x, y, innerRadius, radius));
+	}
+
+	/**
+	 * Returns a distance within which no impassable terrain lies around the given coordinates.
+	 * 	Inside this world the distance field of this world is used, outside this world the distance to the boundaries of this world.
+	 * @param x
+	 * 		The x-coordinate of the point.
+	 * @param y
+	 * 		The y-coordinate of the point.
+	 * @return A non-negative distance that is not larger than the distance from the given point to any impassable cell of the map,
+	 * 			zero if this world has no distance field and the given point lies inside this world.
+	 * 		| for each (i,j) for which ! isPassable(i,j):
+	 * 		|	result <= minimumDistance(x,y,i,j)
+	 */
+	public double getTerrainClearance(double x, double y){
+		if (inWorld(x,y)){
+			if (getDistanceField() == null){
+				return 0;
+			}
+			return Math.max(0, getDistanceField().getDistance(getColumn(x), getRow(y)) - getCellDiagonal());
+		}
+		double dx = Math.max(0, Math.max(-x, x - getWidth()));
+		double dy = Math.max(0, Math.max(-y, y - getHeight()));
+		return Math.sqrt(dx*dx + dy*dy);
+	}
+
+	/**
+	 * Checks whether an impassable cell of the map has a point at a distance between the given radii from the given coordinates.
+	 * 	Rows without impassable cells in range are skipped a word of the terrain at a time.
+	 * @param x
+	 * 		The x-coordinate of the center of the ring.
+	 * @param y
+	 * 		The y-coordinate of the center of the ring.
+	 * @param innerRadius
+	 * 		The inner radius of the ring.
+	 * @param outerRadius
+	 * 		The outer radius of the ring.
+	 * @return true if and only if the rectangle of an impassable cell reaches the closed disk with the outer radius,
+	 * 			but does not lie inside the open disk with the inner radius, both up to the contact distance.
+	 * 		| result ==
+	 * 		|	for some (i,j) for which ! isPassable(i,j):
+	 * 		|		(minimumDistance(x,y,i,j) <= outerRadius + CONTACT) && (maximumDistance(x,y,i,j) >= innerRadius - CONTACT)
+	 */
+	@Model
+	private boolean hasImpassableCellInRing(double x, double y, double innerRadius, double outerRadius){
+		return findImpassableCellInRing(x, y, innerRadius, outerRadius) >= 0;
+	}
+
+	/**
+	 * Returns an impassable cell of the map that has a point at a distance between the given radii from the given coordinates.
+	 * @return The index row*getMapWidth()+column of such a cell, or -1 if there is none.
+	 * 		| if (hasImpassableCellInRing(x, y, innerRadius, outerRadius))
+	 * 		|	then (! isPassable(result % getMapWidth(), result / getMapWidth()))
+	 * 		|		&& isCellInRing(result % getMapWidth(), result / getMapWidth(), x, y, innerRadius, outerRadius)
+	 * 		| else result == -1
+	 */
+	@Model
+	private int findImpassableCellInRing(double x, double y, double innerRadius, double outerRadius){
+		double cellWidth = getWidthConversion();
+		double cellHeight = getHeightConversion();
+		int mapHeight = getMapHeight();
+		int mapWidth = getMapWidth();
+		outerRadius = outerRadius + CONTACT;
+		innerRadius = Math.max(0, innerRadius - CONTACT);
+		double outerSquare = outerRadius * outerRadius;
+		double innerSquare = innerRadius * innerRadius;
+		int firstRow = Math.max(0, (int) Math.ceil(mapHeight - 1 - (y + outerRadius) / cellHeight));
+		int lastRow = Math.min(mapHeight - 1, (int) Math.floor(mapHeight - (y - outerRadius) / cellHeight));
+		for (int j = firstRow; j <= lastRow; j++){
+			double bottom = (mapHeight - 1 - j) * cellHeight;
+			double top = bottom + cellHeight;
+			double dy = (y < bottom) ? bottom - y : ((y > top) ? y - top : 0);
+			if (dy > outerRadius){
+				continue;
+			}
+			double halfWidth = Math.sqrt(outerSquare - dy * dy);
+			int firstColumn = Math.max(0, (int) Math.ceil((x - halfWidth) / cellWidth) - 1);
+			int lastColumn = Math.min(mapWidth - 1, (int) Math.floor((x + halfWidth) / cellWidth));
+			double farY = Math.max(Math.abs(y - bottom), Math.abs(y - top));
+			int i = getTerrain().findImpassableInRow(j, firstColumn, lastColumn);
+			while (i >= 0){
+				double left = i * cellWidth;
+				double right = left + cellWidth;
+				double dx = (x < left) ? left - x : ((x > right) ? x - right : 0);
+				double farX = Math.max(Math.abs(x - left), Math.abs(x - right));
+				if ((dx * dx + dy * dy <= outerSquare) && (farX * farX + farY * farY >= innerSquare)){
+					return j * mapWidth + i;
 				}
-				
-				alpha = alpha + stepSizeAlpha;
+				i = (i < lastColumn) ? getTerrain().findImpassableInRow(j, i + 1, lastColumn) : -1;
 			}
-			loopRadius = loopRadius + stepSize;	
 		}
-		return true;
+		return -1;
+	}
+
+	/**
+	 * Checks whether the given cell of the map is impassable and has a point at a distance between the given radii from the given coordinates.
+	 * @return true if and only if the given cell is impassable, its rectangle reaches the closed disk with the outer radius
+	 * 			and it does not lie inside the open disk with the inner radius, both up to the contact distance.
+	 * 		| result == (! isPassable(column,row))
+	 * 		|	&& (minimumDistance(x,y,column,row) <= outerRadius + CONTACT) && (maximumDistance(x,y,column,row) >= innerRadius - CONTACT)
+	 */
+	@Model
+	private boolean isCellInRing(int column, int row, double x, double y, double innerRadius, double outerRadius){
+		if (getTerrain().isPassable(column, row)){
+			return false;
+		}
+		double cellWidth = getWidthConversion();
+		double cellHeight = getHeightConversion();
+		outerRadius = outerRadius + CONTACT;
+		innerRadius = Math.max(0, innerRadius - CONTACT);
+		double bottom = (getMapHeight() - 1 - row) * cellHeight;
+		double top = bottom + cellHeight;
+		double left = column * cellWidth;
+		double right = left + cellWidth;
+		double dy = (y < bottom) ? bottom - y : ((y > top) ? y - top : 0);
+		double dx = (x < left) ? left - x : ((x > right) ? x - right : 0);
+		double farY = Math.max(Math.abs(y - bottom), Math.abs(y - top));
+		double farX = Math.max(Math.abs(x - left), Math.abs(x - right));
+		return (dx * dx + dy * dy <= outerRadius * outerRadius) && (farX * farX + farY * farY >= innerRadius * innerRadius);
+	}
+
+	/**
+	 * The distance up to which terrain counts as touching a circle, it absorbs the rounding errors of coordinates.
+	 */
+	private static final double CONTACT = 1e-9;
+
+	/**
+	 * Returns the index of adjacent cells of the terrain of this world, or null if this world has no distance field.
+	 */
+	@Basic @Model
+	protected AdjacencyIndex getAdjacencyIndex(){
+		return this.adjacencyIndex;
+	}
+
+	/**
+	 * The index of adjacent cells of the terrain of this world.
+	 */
+	private AdjacencyIndex adjacencyIndex;
+
+	/**
+	 * Returns the index of the surfaces of the columns of the terrain of this world.
+	 * 	The index is built the first time it is needed, and again when this world restored a snapshot with other terrain.
+	 * @return A surface index of the terrain of this world.
+	 * 		| result.getTerrain() == getTerrain()
+	 */
+	@Model
+	protected SurfaceIndex getSurfaceIndex(){
+		if ((this.surfaceIndex == null) || (this.surfaceIndex.getTerrain() != getTerrain())){
+			this.surfaceIndex = new SurfaceIndex(getTerrain());
+		}
+		return this.surfaceIndex;
+	}
+
+	/**
+	 * The index of the surfaces of the columns of the terrain of this world, null if it has not been built yet.
+	 */
+	private SurfaceIndex surfaceIndex;
+
+	/**
+	 * Returns the signed distance field of the terrain of this world, or null if the cells of the map have no area.
+	 */
+	@Basic @Model
+	protected DistanceField getDistanceField(){
+		return this.distanceField;
+	}
+
+	/**
+	 * The signed distance field of the terrain of this world.
+	 */
+	private DistanceField distanceField;
+
+	/**
+	 * Returns the length of the diagonal of a single cell of the map.
+	 * @return The diagonal of a rectangle with the width and height conversion as dimensions.
+	 * 		| result == Math.sqrt(getWidthConversion()*getWidthConversion() + getHeightConversion()*getHeightConversion())
+	 */
+	@Model
+	private double getCellDiagonal(){
+		return this.cellDiagonal;
+	}
+
+	/**
+	 * The length of the diagonal of a single cell of the map.
+	 */
+	private double cellDiagonal;
+
+	/**
+	 * Returns the column of the map that covers the given x-coordinate.
+	 * @param x
+	 * 		The x-coordinate to convert.
+	 * @return The column covering the given coordinate, limited to the columns of the map.
+	 * 		| result == Math.max(0, Math.min(getMapWidth()-1, Math.floor(x/getWidthConversion())))
+	 */
+	@Model
+	private int getColumn(double x){
+		int i = (int) Math.floor(x / getWidthConversion());
+		return Math.max(0, Math.min(getMapWidth() - 1, i));
+	}
+
+	/**
+	 * Returns the row of the map that covers the given y-coordinate.
+	 * @param y
+	 * 		The y-coordinate to convert.
+	 * @return The row covering the given coordinate, limited to the rows of the map.
+	 * 		| result == Math.max(0, Math.min(getMapHeight()-1, getMapHeight() - Math.ceil(y/getHeightConversion())))
+	 */
+	@Model
+	private int getRow(double y){
+		int j = getMapHeight() - (int) Math.ceil(y / getHeightConversion());
+		return Math.max(0, Math.min(getMapHeight() - 1, j));
 	}
 	
 	/**
@@ -364,27 +710,169 @@ public class World {
 	 *  @note this method does not check whether the position obtained by moving a particular distance is adjacent.
 	 */
 	double wormCanPass(double radius, double maxDistance, double direction, Position position){
-		double stepSize = 0.01; 
+		return wormCanPass(radius, maxDistance, direction, position.getX(), position.getY());
+	}
+
+	/**
+	 * Returns the distance an entity with given radius can travel in given direction from the given coordinates,
+	 * 	the upperbound for this distance is the given maxDistance.
+	 * @param radius
+	 * 		The radius of the entity.
+	 * @param maxDistance
+	 * 		The maximum distance the entity can travel.
+	 * @param direction
+	 * 		The direction in which the entity wants to travel.
+	 * @param x
+	 * 		The x-coordinate from where to determine the distance the entity can travel.
+	 * @param y
+	 * 		The y-coordinate from where to determine the distance the entity can travel.
+	 * @return The same distance as for the position with the given coordinates.
+	 * 		| result == wormCanPass(radius, maxDistance, direction, new Position(x,y))
+	 */
+	double wormCanPass(double radius, double maxDistance, double direction, double x, double y){
+		double stepSize = 0.01;
 		double minDistance = 0.1;
-		double x = position.getX();
-		double y = position.getY();
-		if (! isPassableForCircle(radius, radius, new Position(x + minDistance*Math.cos(direction),y + minDistance*Math.sin(direction)))){
+		double cos = Math.cos(direction);
+		double sin = Math.sin(direction);
+		if (! isPassableForCircle(radius, radius, x + minDistance*cos, y + minDistance*sin)){
 			return 0;
 		}
 		minDistance = minDistance + stepSize;
-		
+
 		while (minDistance <= maxDistance){
-			double xToCheck = x + minDistance*Math.cos(direction);
-			double yToCheck = y + minDistance*Math.sin(direction);
-			Position positionToCheck = new Position(xToCheck, yToCheck);
-			if (! isPassableForCircle(radius,radius, positionToCheck)){
+			double xToCheck = x + minDistance*cos;
+			double yToCheck = y + minDistance*sin;
+			if (! isPassableForCircle(radius,radius, xToCheck, yToCheck)){
 				return minDistance - stepSize;
 			}
 			minDistance = minDistance + stepSize;
 		}
 		return maxDistance;
 	}
-	
+
+	/**
+	 * Returns the distances an entity with given radius can travel in each of the given directions from the given coordinates,
+	 * 	the upperbound for these distances is the given maxDistance.
+	 * 	The directions are searched in the given order, as one sweep: positions in neighbouring directions are mostly blocked by the same cell,
+	 * 	so the cells that blocked the last two blocked positions are checked first, before the terrain around a position is searched.
+	 * @param radius
+	 * 		The radius of the entity.
+	 * @param maxDistance
+	 * 		The maximum distance the entity can travel.
+	 * @param directions
+	 * 		The directions in which the entity wants to travel.
+	 * @param x
+	 * 		The x-coordinate from where to determine the distances the entity can travel.
+	 * @param y
+	 * 		The y-coordinate from where to determine the distances the entity can travel.
+	 * @param untilPassable
+	 * 		Whether the search stops at the first direction in which the entity can travel.
+	 * @return The distance for every given direction, in the order of the given directions,
+	 * 			zero for the directions after the first one with a positive distance if the search stops there.
+	 * 		| for each k in [0, ..., directions.length-1]:
+	 * 		|	if ((! untilPassable) || (for each l in [0, ..., k-1]: result[l] == 0))
+	 * 		|		then result[k] == wormCanPass(radius, maxDistance, directions[k], x, y)
+	 * 		|	else result[k] == 0
+	 */
+	double[] wormCanPass(double radius, double maxDistance, double[] directions, double x, double y, boolean untilPassable){
+		return wormCanPass(radius, maxDistance, directions, x, y, untilPassable, new int[] {-1, -1});
+	}
+
+	/**
+	 * Returns the distances an entity with given radius can travel in each of the given directions from the given coordinates,
+	 * 	checking the given cells first and remembering the cells that blocked the last two blocked positions in them.
+	 * 	Sweeps from positions close to each other, like the steps of a move, are mostly blocked by the same cells,
+	 * 	so the same cells can be passed to all of them.
+	 * @param blockingCells
+	 * 		The indexes row*getMapWidth()+column of the cells that blocked the last blocked positions, -1 for none.
+	 * @return The same distances as without the given cells.
+	 * 		| result == wormCanPass(radius, maxDistance, directions, x, y, untilPassable)
+	 * @post The given cells hold the cells that blocked the last two blocked positions, the most recent one first.
+	 */
+	double[] wormCanPass(double radius, double maxDistance, double[] directions, double x, double y, boolean untilPassable, int[] blockingCells){
+		double[] result = new double[directions.length];
+		if (! (radius >= 0)){
+			return result;
+		}
+		double stepSize = 0.01;
+		for (int k = 0; k < directions.length; k++){
+			double distance = 0.1;
+			double cos = Math.cos(directions[k]);
+			double sin = Math.sin(directions[k]);
+			int blocking = findCellBlockingCircle(radius, x + distance*cos, y + distance*sin, blockingCells);
+			if (blocking >= 0){
+				rememberBlockingCell(blockingCells, blocking);
+				result[k] = 0;
+				continue;
+			}
+			distance = distance + stepSize;
+			result[k] = maxDistance;
+			while (distance <= maxDistance){
+				blocking = findCellBlockingCircle(radius, x + distance*cos, y + distance*sin, blockingCells);
+				if (blocking >= 0){
+					rememberBlockingCell(blockingCells, blocking);
+					result[k] = distance - stepSize;
+					break;
+				}
+				distance = distance + stepSize;
+			}
+			if (untilPassable && (result[k] > 0)){
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Registers the given cell as the cell that blocked the last blocked position, in the given cells that blocked the last blocked positions.
+	 * @param blockingCells
+	 * 		The cells that blocked the last blocked positions, the most recent one first.
+	 * @param cell
+	 * 		The cell that blocked the last position.
+	 * @post The given cell is the first of the given cells, the others are shifted unless the given cell was the first already.
+	 */
+	private static void rememberBlockingCell(int[] blockingCells, int cell){
+		if (blockingCells[0] != cell){
+			System.arraycopy(blockingCells, 0, blockingCells, 1, blockingCells.length - 1);
+			blockingCells[0] = cell;
+		}
+	}
+
+	/**
+	 * Returns an impassable cell of the map that blocks a circle with the given radius around the given coordinates,
+	 * 	trying the given cells first, since circles close to each other are mostly blocked by the same cell.
+	 * @param radius
+	 * 		The radius of the circle.
+	 * @param x
+	 * 		The x-coordinate of the center of the circle.
+	 * @param y
+	 * 		The y-coordinate of the center of the circle.
+	 * @param guesses
+	 * 		The indexes row*getMapWidth()+column of the cells to try first, -1 for none.
+	 * @return -1 if the circle is passable, otherwise the index row*getMapWidth()+column of an impassable cell in its ring.
+	 * 		| if (isPassableForCircle(radius, radius, x, y))
+	 * 		|	then result == -1
+	 * 		| else (result >= 0) && ! isPassable(result % getMapWidth(), result / getMapWidth())
+	 */
+	@Model
+	private int findCellBlockingCircle(double radius, double x, double y, int[] guesses){
+		if ((x + radius < 0) || (x - radius > getWidth()) || (y + radius < 0) || (y - radius > getHeight())){
+			return -1;
+		}
+		if ((getDistanceField() != null) && inWorld(x,y)){
+			double clearance = getDistanceField().getDistance(getColumn(x), getRow(y)) - getCellDiagonal();
+			if (clearance > radius + CONTACT){
+				return -1;
+			}
+		}
+		for (int guess: guesses){
+			if ((guess >= 0) && isCellInRing(guess % getMapWidth(), guess / getMapWidth(), x, y, radius, radius)){
+				return guess;
+			}
+		}
+		return findImpassableCellInRing(x, y, radius, radius);
+	}
+
 	/**
 	 * Returns whether the given indexes are passable according to passableMap.
 	 * @param i
@@ -392,40 +880,125 @@ public class World {
 	 * @param j
 	 * 		The row to check (corresponding to y-coordinates).
 	 * @return 
-	 * 		if both the given indexes are in the map, i in [0,getMapWidth()] and j in [0,getMapHeight()], negative indexes don't exist.
+	 * 		if both the given indexes are in the map, i in [0,getMapWidth()-1] and j in [0,getMapHeight()-1], negative indexes don't exist.
 	 * 			true if and only if the given indexes correspond to a passable point on the map or
-	 * 		| if ( (i<=getMapWidth()) && (j<=getMapHeight()) )
+	 * 		| if ( (i<getMapWidth()) && (j<getMapHeight()) )
 	 * 		|		then return (getPassableMap[j][i])
 	 * 
-	 * 		if index i is out of bounds, replace i by the maximum allowed index and try again or
-	 * 		| if (i>getMapWidth())
-	 * 		|		then return (isPassable(getMapWidth(),j)
+	 * 		if index i is out of bounds, replace i by the nearest allowed index and try again or
+	 * 		| if (i>=getMapWidth())
+	 * 		|		then return (isPassable(getMapWidth()-1,j)
 	 * 		| if (i<0)
 	 * 		|		then return (isPassable(0,j) 
 	 * 
-	 * 		if index j is out of bounds, replace j by the maximum allowed index and try again 
-	 * 		| if (i>getMapHeight())
-	 * 		| 		then return (isPassableget(i,getMapHeight())
+	 * 		if index j is out of bounds, replace j by the nearest allowed index and try again 
+	 * 		| if (j>=getMapHeight())
+	 * 		| 		then return (isPassable(i,getMapHeight()-1)
 	 * 		| if (j<0)
 	 * 		|		then return (isPassable(i,0) 
 	 */
 	@Model
 	private boolean isPassable(int i, int j){
-		if (i > getMapWidth()){
-			isPassable(getMapWidth(),j);
+		if (i >= getMapWidth()){
+			i = getMapWidth() - 1;
 		}
 		if (i < 0){
-			isPassable(0,j);
+			i = 0;
 		}
-		if(j > getMapHeight()){
-			isPassable(i,getMapHeight());
+		if (j >= getMapHeight()){
+			j = getMapHeight() - 1;
 		}
-		if (i < 0){
-			isPassable(i,0);
+		if (j < 0){
+			j = 0;
 		}
-		return (getPassableMap()[j][i]);
+		return getTerrain().isPassable(i,j);
 	}
 	
+	/**
+	 * Carves a crater with the given radius around the given position out of the terrain of this world.
+	 * @param center
+	 * 		The center of the crater.
+	 * @param radius
+	 * 		The radius of the crater.
+	 * @post Every index of the map whose center lies within the given radius from the given center is passable,
+	 * 			every other index keeps its passability.
+	 * 		| for each (i,j) in the map:
+	 * 		|	if (cellCenter(i,j).calculateDistance(center) <= radius)
+	 * 		|		then new.isPassable(i,j)
+	 * 		|		else new.isPassable(i,j) == this.isPassable(i,j)
+	 * @effect Only the passability and the distances inside the bounding box of the crater (and the truncation margin around it) are recomputed.
+	 * 		| changeTerrain(center.getX(), center.getY(), radius, true)
+	 * @throws IllegalArgumentException
+	 * 		The given center is not effective or the given radius is not a valid radius.
+	 * 		| (center == null) || (! (radius >= 0))
+	 * @note Game objects are not moved, a worm that lost the terrain beneath it will fall when it moves again.
+	 */
+	public void carveCrater(Position center, double radius) throws IllegalArgumentException{
+		if ((center == null) || (! (radius >= 0))){
+			throw new IllegalArgumentException("invalid crater");
+		}
+		changeTerrain(center.getX(), center.getY(), radius, true);
+	}
+
+	/**
+	 * Sets the passability of every index of the map whose center lies within the given radius from the given coordinates.
+	 * @param x
+	 * 		The x-coordinate of the center of the changed region.
+	 * @param y
+	 * 		The y-coordinate of the center of the changed region.
+	 * @param radius
+	 * 		The radius of the changed region.
+	 * @param passable
+	 * 		The new passability of the changed region.
+	 * @post Every index whose center lies within the given radius has the given passability.
+	 * 		| for each (i,j) for which cellCenter(i,j).calculateDistance(new Position(x,y)) <= radius:
+	 * 		|	new.isPassable(i,j) == passable
+	 * @effect If an index changed, the terrain is first copied if it is shared with a snapshot,
+	 * 			the distance field is updated for the bounding box of the changed indexes
+	 * 			the adjacency index forgets its classifications and the surface index is updated for the changed columns.
+	 * 		| getDistanceField().update(firstChangedColumn, firstChangedRow, lastChangedColumn, lastChangedRow)
+	 * 		| && getAdjacencyIndex().clear()
+	 * 		| && getSurfaceIndex().update(firstChangedColumn, lastChangedColumn)
+	 */
+	@Model
+	private void changeTerrain(double x, double y, double radius, boolean passable){
+		double cellWidth = getWidthConversion();
+		double cellHeight = getHeightConversion();
+		int mapHeight = getMapHeight();
+		int firstColumn = Math.max(0, (int) Math.ceil((x - radius) / cellWidth - 0.5));
+		int lastColumn = Math.min(getMapWidth() - 1, (int) Math.floor((x + radius) / cellWidth - 0.5));
+		int firstRow = Math.max(0, (int) Math.ceil(mapHeight - 0.5 - (y + radius) / cellHeight));
+		int lastRow = Math.min(mapHeight - 1, (int) Math.floor(mapHeight - 0.5 - (y - radius) / cellHeight));
+		int fromColumn = Integer.MAX_VALUE;
+		int toColumn = -1;
+		int fromRow = Integer.MAX_VALUE;
+		int toRow = -1;
+		for (int j = firstRow; j <= lastRow; j++){
+			double dy = (mapHeight - j - 0.5) * cellHeight - y;
+			for (int i = firstColumn; i <= lastColumn; i++){
+				double dx = (i + 0.5) * cellWidth - x;
+				if ((dx * dx + dy * dy <= radius * radius) && (getTerrain().isPassable(i,j) != passable)){
+					ensureOwnTerrain();
+					getTerrain().setPassable(i, j, passable);
+					fromColumn = Math.min(fromColumn, i);
+					toColumn = Math.max(toColumn, i);
+					fromRow = Math.min(fromRow, j);
+					toRow = Math.max(toRow, j);
+				}
+			}
+		}
+		if ((toColumn >= 0) && (getDistanceField() != null)){
+			getDistanceField().update(fromColumn, fromRow, toColumn, toRow);
+			getAdjacencyIndex().clear();
+		}
+		if ((toColumn >= 0) && (this.surfaceIndex != null) && (this.surfaceIndex.getTerrain() == getTerrain())){
+			this.surfaceIndex.update(fromColumn, toColumn);
+		}
+		if (toColumn >= 0){
+			spawnCandidates.clear();
+		}
+	}
+
 	/**
 	 * Checks if a given position is adjacent to impassable terrain for an entity with given radius.
 	 * @param position
@@ -447,17 +1020,39 @@ public class World {
 	 * 			|	then return false
 	 */
 	public boolean isAdjacent(double radius,Position position){
+		if (position == null){
+			return false;
+		}
+		return isAdjacent(radius, position.getX(), position.getY());
+	}
+
+	/**
+	 * Checks if the given coordinates are adjacent to impassable terrain for an entity with given radius.
+	 * 	The adjacency index of this world rules out most cells with a single probe and tells when the entity is surely free from terrain,
+	 * 	only the remaining positions are checked ring by ring.
+	 * @param radius
+	 * 		The radius of the entity to check whether the given coordinates are adjacent.
+	 * @param x
+	 * 		The x-coordinate to check.
+	 * @param y
+	 * 		The y-coordinate to check.
+	 * @return The same result as the check of the position with the given coordinates.
+	 * 		| result == isAdjacent(radius, new Position(x,y))
+	 */
+	public boolean isAdjacent(double radius, double x, double y){
 		if ((radius <= 0) || (2*radius > Math.min(getHeight(), getWidth()))){
 			return false;
 		}
-		if (position == null){
+		byte state = AdjacencyIndex.CANDIDATE;
+		if ((getAdjacencyIndex() != null) && inWorld(x,y)){
+			state = getAdjacencyIndex().getState(getColumn(x), getRow(y), radius);
+		}
+		if (state == AdjacencyIndex.NEVER){
 			return false;
 		}
-		if (! isPassableForCircle(0,radius,position)){
+		if ((state != AdjacencyIndex.CLEAR) && (! isPassableForCircle(0,radius,x,y))){
 			return false;
 		}
-		double x = position.getX();
-		double y = position.getY();
 		
 		double stepSize = 0.001;
 		double loopRadius = radius;
@@ -493,9 +1088,8 @@ public class World {
 		while(alpha <= 2*Math.PI-Math.PI/5){
 			double xToCheck =  (x + radius * Math.cos(alpha));
 			double yToCheck =  (y + radius * Math.sin(alpha));
-			Position positionToCheck = new Position(xToCheck, yToCheck);
-			
-			if (isImpassable(positionToCheck)){
+
+			if (isImpassable(xToCheck, yToCheck)){
 				found = found + 1;
 			}
 			alpha = alpha + stepSize;
@@ -554,12 +1148,26 @@ public class World {
 		if (position == null){
 			return false;
 		}
+		return circleInWorld(radius, position.getX(), position.getY());
+	}
+
+	/**
+	 * Checks whether a circle with given radius around the given coordinates fits in the boundaries of this world.
+	 * @param radius
+	 * 		The radius of the circle.
+	 * @param x
+	 * 		The x-coordinate of the center of the circle.
+	 * @param y
+	 * 		The y-coordinate of the center of the circle.
+	 * @return The same result as for the position with the given coordinates.
+	 * 		| result == circleInWorld(radius, new Position(x,y))
+	 */
+	@Model
+	private boolean circleInWorld(double radius, double x, double y){
 		if (radius < 0){
 			return false;
 		}
-		double x = position.getX();
-		double y = position.getY();
-		
+
 		double stepSize = Math.min(getHeightConversion(),getWidthConversion());
 		double loopRadius = 0;
 		boolean stop = false;
@@ -573,8 +1181,7 @@ public class World {
 			while(alpha <= 2*Math.PI-stepSizeAlpha){
 				double xToCheck =  (x + loopRadius * Math.cos(alpha));
 				double yToCheck =  (y + loopRadius * Math.sin(alpha));
-				Position positionToCheck = new Position(xToCheck, yToCheck);
-				if (! positionInWorld(positionToCheck)){
+				if (! inWorld(xToCheck, yToCheck)){
 					return false;
 				}
 				alpha = alpha + stepSizeAlpha;
@@ -648,30 +1255,48 @@ public class World {
 		if (! positionInWorld(position)){
 			throw new IllegalArgumentException("position not in world");
 		}
-		double x = position.getX();
+		int i = convertXToMap(position.getX());
+		int j = convertYToMap(position.getY());
+
+		int [] indexes = {i,j};
+		return indexes;
+	}
+
+	/**
+	 * Converts the given x-coordinate in the world to the corresponding column in passableMap.
+	 * @param x
+	 * 		The x-coordinate to convert.
+	 * @return The column in passableMap covering the given x-coordinate.
+	 * 		| result == convertPositionToMap(new Position(x,y))[0]
+	 */
+	@Model
+	private int convertXToMap(double x){
 		if (x == 0){ //correction 1
 			x = EPS;
 		}
 		if (x == getWidth()){ // correction 2
 			x = x - EPS;
 		}
-		
-		int i = (int) Math.floor(x/(getWidthConversion()));
-		double y = position.getY();
-		
+		return (int) Math.floor(x/(getWidthConversion()));
+	}
+
+	/**
+	 * Converts the given y-coordinate in the world to the corresponding row in passableMap.
+	 * @param y
+	 * 		The y-coordinate to convert.
+	 * @return The row in passableMap covering the given y-coordinate.
+	 * 		| result == convertPositionToMap(new Position(x,y))[1]
+	 */
+	@Model
+	private int convertYToMap(double y){
 		if (y == 0){ // correction 3
 			y = EPS;
 		}
-		if (y >= getMapHeight()){ // correction 4 
+		if (y >= getMapHeight()){ // correction 4
 			y = y - EPS;
 		}
-		
 		int inverseJ = (int) Math.ceil(y/(getHeightConversion()));
-		int j = getMapHeight() - inverseJ;
-		
-		
-		int [] indexes = {i,j};	
-		return indexes;
+		return getMapHeight() - inverseJ;
 	}
 	
 	/**
@@ -728,6 +1353,37 @@ public class World {
 	 * The conversions between the world's dimensions and the map's dimensions.
 	 */
 	private double [] conversion;
+
+	/**
+	 * Sets the signed distance field of the terrain of this world, computing it unless the given distance field measures it.
+	 * @param known
+	 * 		A distance field of the terrain of this world, null if there is none.
+	 * @post If the cells of the map have a positive width and height, the new distance field measures the terrain of this world
+	 * 			and the new adjacency index classifies its cells, otherwise this world has neither.
+	 * 		| if ((getWidthConversion() > 0) && (getHeightConversion() > 0))
+	 * 		|	then new.getDistanceField().getTerrain() == getTerrain()
+	 * 		| else new.getDistanceField() == null
+	 * @post The given distance field is the new distance field if it measures the terrain of this world with cells of the map's dimensions.
+	 * 		| if ((known != null) && (known.getTerrain() == getTerrain())
+	 * 		|		&& (known.getCellWidth() == getWidthConversion()) && (known.getCellHeight() == getHeightConversion()))
+	 * 		|	then new.getDistanceField() == known
+	 */
+	@Raw @Model
+	private void setDistanceField(DistanceField known){
+		double cellWidth = getWidthConversion();
+		double cellHeight = getHeightConversion();
+		this.cellDiagonal = Math.sqrt(cellWidth * cellWidth + cellHeight * cellHeight);
+		if ((cellWidth > 0) && (cellHeight > 0) && (! Double.isInfinite(this.cellDiagonal))){
+			if ((known != null) && (known.getTerrain() == getTerrain())
+					&& (known.getCellWidth() == cellWidth) && (known.getCellHeight() == cellHeight)){
+				this.distanceField = known;
+			}
+			else {
+				this.distanceField = new DistanceField(getTerrain(), cellWidth, cellHeight);
+			}
+			this.adjacencyIndex = new AdjacencyIndex(this.distanceField, 1.1, EPS);
+		}
+	}
 	
 	// startGame en startTurn
 	
@@ -846,7 +1502,7 @@ public class World {
 		setCurrentTeam();
 		raiseAPAndHP(nextWorm);
 		
-		if (oldWorm.getCurrentHP().getNumeral() == 0){
+		if (oldWorm.getCurrentHPNumeral() == 0){
 			if (oldWorm.getTeam() == null){
 				oldWorm.terminate();
 				setTeamlessWorms();
@@ -868,8 +1524,8 @@ public class World {
 	 */
 	@Model
 	private boolean checkPoints(Worm worm){
-		int APWorm = worm.getCurrentAP().getNumeral();
-		int HPWorm = worm.getCurrentHP().getNumeral(); 
+		int APWorm = worm.getCurrentAPNumeral();
+		int HPWorm = worm.getCurrentHPNumeral(); 
 		if ((APWorm != 0) && (HPWorm !=0)){
 				return false;
 			}
@@ -1026,13 +1682,11 @@ public class World {
 	 * 		|	worm.getTeam() == null
 	 */
 	private List<Worm> getWormsWithoutTeam() {
-		List<Worm> teamless = getAllWorms();
-		int index = getAllWorms().size()-1;
-		while (index >= 0){
-			if (teamless.get(index).getTeam() != null){
-				teamless.remove(index);
+		List<Worm> teamless = new ArrayList<Worm>();
+		for (Worm worm: getAllWorms()){
+			if (worm.getTeam() == null){
+				teamless.add(worm);
 			}
-			index = index - 1;
 		}
 		return teamless;
 	}
@@ -1111,20 +1765,14 @@ public class World {
 	 * 		
 	 * 			the active projectile otherwise
 	 * 		| if for one object in getAllGameObjects():
-	 * 		|	object.getClass() == Projectile.class
-	 * 		|		then result == object
-	 */
-	public Projectile getActiveProjectile(){
-		List<GameObjects> allGameObjects = getAllGameObjects();
-		int index = 0;
-		Projectile activeProjectile = null;
-		while(index < (allGameObjects.size())){
-			if (allGameObjects.get(index).getClass() == Projectile.class){
-				activeProjectile = (Projectile) allGameObjects.get(index);
-			}
-			index = index + 1;
+	 * 		|	object.getClass() == Projectile.class
+	 * 		|		then result == object
+	 */
+	public Projectile getActiveProjectile(){
+		if (projectiles.isEmpty()){
+			return null;
 		}
-		return activeProjectile;
+		return projectiles.get(projectiles.size() - 1);
 	}
 	
 	/**
@@ -1152,6 +1800,8 @@ public class World {
 	
 	/**
 	 * Generates a random adjacent position that is adjacent for an entity with given radius.
+	 * 	The position is drawn with the random number generator of this world from the spawn candidates for the given radius,
+	 * 	only if none of them is adjacent the world is searched on circles around its center, starting at a random position.
 	 * @param radius
 	 * 		The radius of the entity that has to be placed on an adjacent position in the world.
 	 * @return an adjacent position in the world, if such a position is found
@@ -1165,6 +1815,13 @@ public class World {
 	 */
 	@Model
 	private Position generateRandomAdjacentPosition(double radius){
+		SpawnCandidates candidates = getSpawnCandidates(radius);
+		if (candidates.getNbCandidates() > 0){
+			Position result = candidates.draw(getRandom());
+			if (result != null){
+				return result;
+			}
+		}
 		Position beginPosition = randomPosition();
 		Position toPosition = new Position(getWidth()/2,getHeight()/2);
 		double distance = beginPosition.calculateDistance(toPosition);	
@@ -1177,6 +1834,62 @@ public class World {
 		return result;
 	}
 	
+	/**
+	 * Returns the spawn candidates of this world for an entity with the given radius, computing them if needed.
+	 * 	They are computed on the number of spawn threads of this world, and kept until the terrain of this world changes.
+	 * @param radius
+	 * 		The radius of the entity.
+	 * @return Spawn candidates for the given radius, for the current terrain of this world.
+	 * 		| result.getRadius() == radius
+	 */
+	@Model
+	private SpawnCandidates getSpawnCandidates(double radius){
+		Double key = Double.valueOf(radius);
+		SpawnCandidates result = spawnCandidates.get(key);
+		if (result == null){
+			result = new SpawnCandidates(this, radius, getNbSpawnThreads());
+			spawnCandidates.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * The spawn candidates of this world per radius, for the current terrain of this world.
+	 */
+	private final Map<Double, SpawnCandidates> spawnCandidates = new HashMap<Double, SpawnCandidates>();
+
+	/**
+	 * Returns the number of threads on which the spawn candidates of this world are computed.
+	 */
+	@Basic
+	public int getNbSpawnThreads(){
+		return this.nbSpawnThreads;
+	}
+
+	/**
+	 * Sets the number of threads on which the spawn candidates of this world are computed.
+	 * 	Worlds that are played in a thread of their own, next to other worlds, should use a single thread.
+	 * 	The spawn candidates do not depend on the number of threads.
+	 * @param nbThreads
+	 * 		The new number of spawn threads.
+	 * @post The number of spawn threads of this world equals the given number.
+	 * 		| new.getNbSpawnThreads() == nbThreads
+	 * @throws IllegalArgumentException
+	 * 		The given number is not positive.
+	 * 		| nbThreads < 1
+	 */
+	public void setNbSpawnThreads(int nbThreads) throws IllegalArgumentException{
+		if (nbThreads < 1){
+			throw new IllegalArgumentException("invalid number of spawn threads");
+		}
+		this.nbSpawnThreads = nbThreads;
+	}
+
+	/**
+	 * The number of threads on which the spawn candidates of this world are computed, as many as there are processors by default.
+	 */
+	private int nbSpawnThreads = Runtime.getRuntime().availableProcessors();
+
 	/**
 	 * Find an adjacent position on the circumference of a cirlce with given radius for an entity with given radius.
 	 * @param center
@@ -1283,24 +1996,46 @@ public class World {
 		if (position == null){
 			throw new IllegalArgumentException("non-effective position");
 		}
+		return calculateSlope(position.getX(), position.getY(), direction, radiusWorm);
+	}
+
+	/**
+	 * Calculates the slope at the given coordinates in the given direction.
+	 * @param x
+	 * 		The x-coordinate at which to calculate the slope.
+	 * @param y
+	 * 		The y-coordinate at which to calculate the slope.
+	 * @param direction
+	 * 		The direction in which to calculate the slope.
+	 * @param radiusWorm
+	 * 		The radius of the worm standing on the slope.
+	 * @return The same slope as for the position with the given coordinates.
+	 * 		| result == calculateSlope(new Position(x,y), direction, radiusWorm)
+	 * @throws IllegalPositionException
+	 * 		One of the positions on the slope is not in this world.
+	 * @throws IllegalYCoordinateException
+	 * 		The positions on the slope are found in opposite infinite directions.
+	 */
+	public double calculateSlope(double x, double y, double direction, double radiusWorm) throws IllegalPositionException,IllegalYCoordinateException{
 		int totalPositions = 10;
 		int loop = totalPositions;
-		Position total = new Position(0,0);
+		double totalX = 0;
+		double totalY = 0;
 		while (loop > 0){
-			double nextX = nextX(position, direction, 1*loop);
-			Position nextPosition = new Position(nextX,position.getY()-radiusWorm);
-			Position nextPositionOnSlope = findNextPositionOnSlope(nextPosition);
-			total = total.add(nextPositionOnSlope);
+			double nextX = nextX(x, direction, 1*loop);
+			totalX = totalX + nextX;
+			totalY = totalY + findNextPositionOnSlope(nextX, y-radiusWorm);
+			if (! Position.isValidY(totalY)){
+				throw new IllegalYCoordinateException(totalY);
+			}
 
 			loop = loop - 1;
 		}
-		
-		Position nextPositionOnSlopeAverage = new Position(total.getX()/totalPositions,total.getY()/totalPositions);
-		
-		double xBegin = position.getX();
-		double xEnd = nextPositionOnSlopeAverage.getX();
-		double yBegin = position.getY()-radiusWorm;
-		double yEnd = nextPositionOnSlopeAverage.getY();
+
+		double xBegin = x;
+		double xEnd = totalX/totalPositions;
+		double yBegin = y-radiusWorm;
+		double yEnd = totalY/totalPositions;
 		double s = Math.atan((yBegin-yEnd)/(xBegin-xEnd));
 		if ((xEnd - xBegin) < 0){
 			if ((yEnd - yBegin) < 0){
@@ -1328,29 +2063,24 @@ public class World {
 	}
 	
 	/**
-	 * Calculates the position on the slope, according to the given position, the given direction 
-	 * 	and whether or not the given position is passable.
-	 * @param position
-	 * 		A position on the slope with the same x-coordinate as the given position.
-	 * @return the first position that satisfies the conditions of a position on the slope.
-	 * 		| result == (findPositionOnSlope(position.getX(),position.getY(), isImpassable(position)))
+	 * Calculates the y-coordinate on the slope, according to the given coordinates
+	 * 	and whether or not the position with the given coordinates is passable.
+	 * @param x
+	 * 		The x-coordinate of the position, the position on the slope has the same x-coordinate.
+	 * @param y
+	 * 		The y-coordinate of the position.
+	 * @return the y-coordinate of the first position that satisfies the conditions of a position on the slope.
+	 * 		| result == (findPositionOnSlope(x, y, isImpassable(x,y)))
 	 * @throws IllegalPositionException
-	 * 		if the given position is not a position in this world
-	 * 		| ! positionInWorld(position)
+	 * 		if the given coordinates are not in this world
+	 * 		| ! inWorld(x,y)
 	 */
 	@Model
-	private Position findNextPositionOnSlope(Position position) throws IllegalPositionException{
-		if (! positionInWorld(position)){
-			throw new IllegalPositionException(position);
-		}
-		Position nextPositionOnSlope;
-		if (isPassable(position)){
-			nextPositionOnSlope = findPositionOnSlope(position.getX(),position.getY(),false);
+	private double findNextPositionOnSlope(double x, double y) throws IllegalPositionException{
+		if (! inWorld(x,y)){
+			throw new IllegalPositionException(new Position(x,y));
 		}
-		else {
-			nextPositionOnSlope = findPositionOnSlope(position.getX(),position.getY(),true);
-		}
-		return nextPositionOnSlope;
+		return findPositionOnSlope(x, y, isImpassable(x,y));
 	}
 
 	/**
@@ -1363,7 +2093,7 @@ public class World {
 	 * 		Boolean indicating whether to search at an higher(lower) y than given y.
 	 * 		up --> higher
 	 * 		down --> lower 
-	 * @return the first position for which there is a transition from passable to impassable (next position)
+	 * @return the y-coordinate of the first position for which there is a transition from passable to impassable (next position)
 	 * 			|	-notation: (x,y) = new Position(x,y)
 	 * 			| if ((! up) && (for pos in [(x,y),(x,y-getHeightConversion()), ..., (x,0)]:
 	 * 			|					for each p in [(x,y),(x,y-getHeightConversion()), ..., (x,yEnd)] :
@@ -1394,9 +2124,11 @@ public class World {
 	 * 		if the this position is such that the next position to check is not a valid position in this world
 	 * 		|((up) && (y == getHeight()) || ((!up) && (y == 0))
 	 * 		
+	 * @note The positions (x,y+k*stepSize) are not checked one by one, the surface index of this world gives the row of the first one
+	 * 			with another passability, so only the positions around that row and around the border of this world are checked.
 	 */
 	@Model
-	private Position findPositionOnSlope(double x, double y, boolean up) throws IllegalPositionException{
+	private double findPositionOnSlope(double x, double y, boolean up) throws IllegalPositionException{
 		if ((up) && (y == getHeight())){
 			throw new IllegalPositionException(new Position(x,y+1));
 		}
@@ -1410,27 +2142,135 @@ public class World {
 		else {
 			stepSize = -1*getHeightConversion();
 		}
-		boolean thisOne = isPassable(new Position(x,y));
-		Position position = new Position(x,y + stepSize);
-		while ((isPassable(position) == thisOne)){ 
-			position = new Position(x,y);
-			y = y + stepSize;
-			
-			if(! positionInWorld(position)){		// Pi/2 and -Pi/2   
-				double infinity = Double.POSITIVE_INFINITY * stepSize;
-				return new Position(x,infinity);			
+		boolean thisOne = isPassable(x,y);
+		int lastStep = findLastStepInWorld(x, y, stepSize);
+		int step = findFirstStepWithOtherPassability(x, y, stepSize, thisOne, lastStep);
+		if (step > lastStep){
+			if ((lastStep > 0) || (thisOne)){		// Pi/2 and -Pi/2
+				return Double.POSITIVE_INFINITY * stepSize;
 			}
+			step = 1;
 		}
 		if (stepSize > 0){
-			return new Position(position.getX(),position.getY() - stepSize);
+			return y + (step - 1) * stepSize;
 		}
-		return position;
+		return y + step * stepSize;
+	}
+
+	/**
+	 * Returns the number of steps of the given size that can be taken from the given coordinates without leaving this world.
+	 * @return The largest number of steps k for which the position (x,y+k*stepSize) is in this world.
+	 * 		| inWorld(x, y + result*stepSize) && ! inWorld(x, y + (result+1)*stepSize)
+	 */
+	@Model
+	private int findLastStepInWorld(double x, double y, double stepSize){
+		double room = (stepSize > 0) ? (getHeight() - y) : y;
+		int step = (int) Math.max(0, Math.min(Integer.MAX_VALUE - 1, Math.floor(room / Math.abs(stepSize))));
+		while ((step > 0) && (! inWorld(x, y + step * stepSize))){
+			step = step - 1;
+		}
+		while (inWorld(x, y + (step + 1) * stepSize)){
+			step = step + 1;
+		}
+		return step;
+	}
+
+	/**
+	 * Returns the first number of steps of the given size from the given coordinates at which the passability differs from the given passability,
+	 * 	looking no further than the given number of steps.
+	 * @return The smallest number of steps k, not larger than the given last step, for which the position (x,y+k*stepSize)
+	 * 			does not have the given passability, or the given last step plus one if there is none.
+	 * 		| if (result <= lastStep)
+	 * 		|	then isPassable(x, y + result*stepSize) != passable
+	 * 		| for each k in [1, ..., result-1]: isPassable(x, y + k*stepSize) == passable
+	 */
+	@Model
+	private int findFirstStepWithOtherPassability(double x, double y, double stepSize, boolean passable, int lastStep){
+		if (lastStep < 1){
+			return lastStep + 1;
+		}
+		int column = Math.max(0, Math.min(getMapWidth() - 1, convertXToMap(x)));
+		int firstRow = getRowOnSlope(y + stepSize);
+		if (getTerrain().isPassable(column, firstRow) != passable){
+			return 1;
+		}
+		int otherRow = (stepSize > 0) ? getSurfaceIndex().findChangeAbove(column, firstRow)
+				: getSurfaceIndex().findChangeBelow(column, firstRow);
+		if (otherRow < 0){
+			return lastStep + 1;
+		}
+		int step = Math.min(lastStep + 1, 1 + Math.abs(otherRow - firstRow));
+		while ((step > 1) && reachesRow(y + (step - 1) * stepSize, otherRow, stepSize > 0)){
+			step = step - 1;
+		}
+		while ((step <= lastStep) && (! reachesRow(y + step * stepSize, otherRow, stepSize > 0))){
+			step = step + 1;
+		}
+		return step;
+	}
+
+	/**
+	 * Returns the y-coordinate at which a point falling straight down from the given coordinates first meets impassable terrain.
+	 * 	The surface index of this world gives the first impassable cell below the given coordinates, so no cells are checked one by one.
+	 * @param x
+	 * 		The x-coordinate of the falling point.
+	 * @param y
+	 * 		The y-coordinate from which the point falls.
+	 * @return The given y-coordinate, or the height of this world if the given y-coordinate lies above it,
+	 * 			if the terrain there is already impassable,
+	 * 			otherwise the top of the first impassable cell below it, in the column covering the given x-coordinate.
+	 * 			Negative infinity if there is no impassable terrain below the given coordinates in this world.
+	 * 		| if ((x < 0) || (x > getWidth()) || (! (y >= 0)) || (for each Y in [0, Math.min(y, getHeight())]: isPassable(x,Y)))
+	 * 		|	then result == Double.NEGATIVE_INFINITY
+	 * 		| else isImpassable(x,result) && for each Y in ]result, Math.min(y, getHeight())]: isPassable(x,Y)
+	 * @note Positions on the border between two cells are rounded as by isPassable(x,y), up to the rounding of that comparison.
+	 */
+	public double getGroundBelow(double x, double y){
+		if ((x < 0) || (x > getWidth()) || (! (y >= 0))){
+			return Double.NEGATIVE_INFINITY;
+		}
+		double top = Math.min(y, getHeight());
+		int column = Math.max(0, Math.min(getMapWidth() - 1, convertXToMap(x)));
+		int row = getRowOnSlope(top);
+		if (! getTerrain().isPassable(column, row)){
+			return top;
+		}
+		int ground = getSurfaceIndex().findChangeBelow(column, row);
+		if (ground < 0){
+			return Double.NEGATIVE_INFINITY;
+		}
+		return (getMapHeight() - ground) * getHeightConversion();
+	}
+
+	/**
+	 * Returns the row of the map covering the given y-coordinate, the nearest row if the y-coordinate lies outside the map.
+	 * @return The row covering the given y-coordinate, clamped between the first and the last row.
+	 * 		| result == Math.max(0, Math.min(getMapHeight() - 1, convertYToMap(y)))
+	 */
+	@Model
+	private int getRowOnSlope(double y){
+		return Math.max(0, Math.min(getMapHeight() - 1, convertYToMap(y)));
+	}
+
+	/**
+	 * Checks whether the row covering the given y-coordinate lies at or past the given row, going up or down.
+	 * @return Whether the row covering the given y-coordinate is the given row or lies above it, going up, or below it, going down.
+	 * 		| if (up)
+	 * 		|	then result == (getRowOnSlope(y) <= row)
+	 * 		| else result == (getRowOnSlope(y) >= row)
+	 */
+	@Model
+	private boolean reachesRow(double y, int row, boolean up){
+		if (up){
+			return getRowOnSlope(y) <= row;
+		}
+		return getRowOnSlope(y) >= row;
 	}
 
 	/**
 	 * Determines what the best x-coordinate is for the position to calculate the slope. 
-	 * @param position
-	 * 		The position for which to determine the next x-coordinate
+	 * @param x
+	 * 		The x-coordinate for which to determine the next x-coordinate
 	 * @param direction
 	 * 		The direction in which to search the next x-coordinate
 	 * @param distance
@@ -1447,11 +2287,11 @@ public class World {
 	 * 		|	then return new Position(position.getX() -(1*getWidthConversion())
 	 */
 	@Model
-	private double nextX(Position position, double direction, int distance) {
+	private double nextX(double x, double direction, int distance) {
 		if (facingRight(direction)){
-			return (position.getX() + (distance*getWidthConversion()));
+			return (x + (distance*getWidthConversion()));
 		}
-		return (position.getX() - (distance*getWidthConversion()));
+		return (x - (distance*getWidthConversion()));
 	}
 
 // Teams	
@@ -1760,10 +2600,11 @@ public class World {
 		
 	/**
 	 * Return a list of all gameobjects.
+	 * 	The list is a read-only view that follows the game objects of this world as they change.
 	 */
 	@Basic
 	public List<GameObjects> getAllGameObjects(){
-		return this.gameobjects;
+		return this.gameobjectsView;
 	}
 	
 	/**
@@ -1816,15 +2657,7 @@ public class World {
 		if (object == null){
 			return false;
 		}
-		int index = 0;
-		boolean found = false;
-		while (index < getNbGameObjects()){
-			if (getGameObjectAt(index) == object)
-				return true;
-			
-			index = index + 1;
-		}
-		return found;
+		return gameobjectSet.contains(object);
 	}
 	
 	/**
@@ -1843,6 +2676,7 @@ public class World {
 			throw new IllegalArgumentException("gameobject not in this world's game objects");
 		}
 		gameobjects.remove(gameobject);
+		unregisterGameObject(gameobject);
 	}
 		
 	/**
@@ -1867,7 +2701,107 @@ public class World {
 			throw new IllegalArgumentException("gameobject already a game object in this world");
 		}
 		gameobjects.add(gameobject);
+		registerGameObject(gameobject);
+	}
+
+	/**
+	 * Registers the given game object in the set, the typed lists and the spatial index of the game objects of this world.
+	 * @param gameobject
+	 * 		The game object that was added to the list of game objects.
+	 */
+	@Model
+	private void registerGameObject(GameObjects gameobject){
+		registerType(gameobject);
+		spatialIndex.add(gameobject, gameobject.getX(), gameobject.getY(), gameobject.getRadius());
+	}
+
+	/**
+	 * Registers the given game object in the set and the typed lists of the game objects of this world.
+	 * @param gameobject
+	 * 		The game object that was added to the list of game objects.
+	 */
+	@Model
+	private void registerType(GameObjects gameobject){
+		gameobjectSet.add(gameobject);
+		if (gameobject instanceof Worm){
+			worms.add((Worm) gameobject);
+		}
+		if (gameobject instanceof Food){
+			foods.add((Food) gameobject);
+		}
+		if (gameobject.getClass() == Projectile.class){
+			projectiles.add((Projectile) gameobject);
+		}
+	}
+
+	/**
+	 * Removes the given game object from the set, the typed lists and the spatial index of the game objects of this world.
+	 * @param gameobject
+	 * 		The game object that was removed from the list of game objects.
+	 */
+	@Model
+	private void unregisterGameObject(GameObjects gameobject){
+		gameobjectSet.remove(gameobject);
+		if (gameobject instanceof Worm){
+			worms.remove(gameobject);
+		}
+		if (gameobject instanceof Food){
+			foods.remove(gameobject);
+		}
+		if (gameobject.getClass() == Projectile.class){
+			projectiles.remove(gameobject);
+		}
+		spatialIndex.remove(gameobject);
+	}
+
+	/**
+	 * Registers the current position and radius of the given game object of this world.
+	 * @param gameobject
+	 * 		The game object that moved or changed its radius.
+	 * @post Queries for game objects near a position take the current position and radius of the given game object into account,
+	 * 		if it is a game object of this world.
+	 */
+	void updateGameObject(GameObjects gameobject){
+		if (spatialIndex.hasAsElement(gameobject)){
+			spatialIndex.update(gameobject, gameobject.getX(), gameobject.getY(), gameobject.getRadius());
+		}
+	}
+
+	/**
+	 * Returns the game objects of the given type that might lie within the given range of the given point.
+	 * 	Only the game objects registered in the cells of the spatial index around the point are looked at.
+	 * @param type
+	 * 		The class of the game objects to look for.
+	 * @param x
+	 * 		The x-coordinate of the point.
+	 * @param y
+	 * 		The y-coordinate of the point.
+	 * @param range
+	 * 		The distance from the point within which game objects are looked for.
+	 * @return A new list of game objects of the given type in the same order as in the list of all game objects,
+	 * 			containing at least every such game object that lies within the given range of the given point.
+	 * 		| for each object in getAllGameObjects():
+	 * 		|	if (type.isInstance(object) 
+	 * 		|		&& (new Position(x,y).calculateDistance(object.getPosition()) <= object.getRadius() + range))
+	 * 		|		then result.contains(object)
+	 * @throws IllegalArgumentException
+	 * 		The given range is negative or the given point or range is not finite.
+	 * 		| ! SpatialHash.isValidCircle(x,y,range)
+	 */
+	public <T extends GameObjects> List<T> getGameObjectsNear(Class<T> type, double x, double y, double range) throws IllegalArgumentException{
+		List<T> result = new ArrayList<T>();
+		for (GameObjects gameobject: spatialIndex.getElementsNear(x, y, range)){
+			if (type.isInstance(gameobject)){
+				result.add(type.cast(gameobject));
+			}
+		}
+		return result;
 	}
+
+	/**
+	 * The size of the cells of the spatial index of the game objects (in meters).
+	 */
+	public static final double SPATIAL_CELL_SIZE = 1.0;
 		
 	
 	/**
@@ -2002,6 +2936,7 @@ public class World {
 			throw new IllegalArgumentException("gameobject already a gameobject in this world");
 		}
 		gameobjects.add(index, gameobject);
+		registerGameObject(gameobject);
 	}
 		
 	/**
@@ -2025,18 +2960,201 @@ public class World {
 		if (! this.isValidGameObjectIndex(index)){
 			throw new IllegalArgumentException("invalid game object index");
 		}
-		gameobjects.remove(index);
+		unregisterGameObject(gameobjects.remove(index));
 	}
 	
 	/**
 	 * A list referencing all the gameObjects in a world.
 	 */
-	private List<GameObjects> gameobjects = new ArrayList<GameObjects>();
+	private final ArrayList<GameObjects> gameobjects = new ArrayList<GameObjects>();
+
+	/**
+	 * A read-only view of the list of all the gameObjects in this world.
+	 */
+	private final List<GameObjects> gameobjectsView = Collections.unmodifiableList(gameobjects);
+
+	/**
+	 * A set containing all the gameObjects in this world, compared by identity.
+	 */
+	private final Set<GameObjects> gameobjectSet = Collections.newSetFromMap(new IdentityHashMap<GameObjects, Boolean>());
+
+	/**
+	 * A list referencing all the worms in this world, in the order of the list of all gameObjects.
+	 */
+	private final ArrayList<Worm> worms = new ArrayList<Worm>();
+
+	/**
+	 * A list referencing all the food in this world, in the order of the list of all gameObjects.
+	 */
+	private final ArrayList<Food> foods = new ArrayList<Food>();
+
+	/**
+	 * A list referencing all the projectiles in this world, in the order of the list of all gameObjects.
+	 */
+	private final List<Projectile> projectiles = new ArrayList<Projectile>();
+
+	/**
+	 * A spatial index of all the game objects in this world, by their position and radius.
+	 */
+	private final SpatialHash<GameObjects> spatialIndex = new SpatialHash<GameObjects>(SPATIAL_CELL_SIZE);
+
+// snapshots
+
+	/**
+	 * Returns a snapshot of the current state of this world.
+	 * 	The snapshot holds the state of the game objects and the teams of this world, the turn and the terrain,
+	 * 	but not the state of the random number generator.
+	 * 	The terrain is not copied, it is shared with the snapshot until this world changes it.
+	 * @return A snapshot of this world that restores its current state.
+	 * 		| result.getWorld() == this
+	 * @post The terrain of this world is shared with the snapshot.
+	 * 		| new.isTerrainShared()
+	 */
+	public WorldSnapshot createSnapshot(){
+		GameObjects.Memento[] objects = new GameObjects.Memento[gameobjects.size()];
+		for (int i = 0; i < objects.length; i++){
+			objects[i] = gameobjects.get(i).createMemento();
+		}
+		Team.Memento[] teamStates = new Team.Memento[teams.size()];
+		for (int i = 0; i < teamStates.length; i++){
+			teamStates[i] = teams.get(i).createMemento();
+		}
+		Worm[] teamless = null;
+		if (teamLessWorms != null){
+			teamless = teamLessWorms.toArray(new Worm[teamLessWorms.size()]);
+		}
+		this.terrainShared = true;
+		return new WorldSnapshot(this, objects, teamStates, teamless, currentWorm, currentTeam, start, isTerminated,
+				terrain, distanceField, adjacencyIndex);
+	}
+
+	/**
+	 * Returns a snapshot of the current state of this world that is read right away and never restored.
+	 * 	Saved games are written this way, the terrain of this world does not become shared.
+	 * @return A snapshot of this world.
+	 * 		| result.getWorld() == this
+	 * @post Whether the terrain of this world is shared does not change.
+	 * 		| new.isTerrainShared() == isTerrainShared()
+	 */
+	WorldSnapshot createTransientSnapshot(){
+		boolean shared = isTerrainShared();
+		WorldSnapshot result = createSnapshot();
+		this.terrainShared = shared;
+		return result;
+	}
+
+	/**
+	 * Restores this world to the state held by the given snapshot.
+	 * 	Game objects and teams that did not exist when the snapshot was created no longer belong to this world.
+	 * 	A snapshot can be restored any number of times.
+	 * @param snapshot
+	 * 		The snapshot to restore.
+	 * @post The game objects and teams of this world, their state, the turn and the terrain equal those
+	 * 			at the creation of the given snapshot.
+	 * @post The terrain of this world is shared with the snapshot.
+	 * 		| new.isTerrainShared()
+	 * @throws IllegalArgumentException
+	 * 		The given snapshot is not effective or it is not a snapshot of this world.
+	 * 		| (snapshot == null) || (snapshot.getWorld() != this)
+	 */
+	public void restoreSnapshot(WorldSnapshot snapshot) throws IllegalArgumentException{
+		if ((snapshot == null) || (snapshot.getWorld() != this)){
+			throw new IllegalArgumentException("not a snapshot of this world");
+		}
+		List<GameObjects> former = new ArrayList<GameObjects>(gameobjects);
+		gameobjects.clear();
+		gameobjectSet.clear();
+		worms.clear();
+		foods.clear();
+		projectiles.clear();
+		for (GameObjects.Memento memento: snapshot.getObjects()){
+			GameObjects gameobject = memento.getObject();
+			gameobject.restoreMemento(memento);
+			gameobjects.add(gameobject);
+			registerType(gameobject);
+		}
+		restoreSpatialIndex(former);
+		teams.clear();
+		for (Team.Memento memento: snapshot.getTeams()){
+			memento.getTeam().restoreMemento(memento);
+			teams.add(memento.getTeam());
+		}
+		if (snapshot.getTeamlessWorms() == null){
+			this.teamLessWorms = null;
+		}
+		else {
+			this.teamLessWorms = new ArrayList<Worm>(Arrays.asList(snapshot.getTeamlessWorms()));
+		}
+		this.currentWorm = snapshot.getCurrentWorm();
+		this.currentTeam = snapshot.getCurrentTeam();
+		this.start = snapshot.isStarted();
+		this.isTerminated = snapshot.isTerminated();
+		if (this.terrain != snapshot.getTerrain()){
+			spawnCandidates.clear();
+			this.surfaceIndex = null;
+		}
+		this.terrain = snapshot.getTerrain();
+		this.distanceField = snapshot.getDistanceField();
+		this.adjacencyIndex = snapshot.getAdjacencyIndex();
+		this.terrainShared = true;
+	}
+
+	/**
+	 * Restores this world to the state held by the given snapshot, a snapshot nobody else holds.
+	 * 	Saved games are loaded this way, the terrain is not copied when it changes afterwards.
+	 * @param snapshot
+	 * 		The snapshot to restore.
+	 * @effect The given snapshot is restored.
+	 * 		| restoreSnapshot(snapshot)
+	 * @post The terrain of this world is not shared.
+	 * 		| ! new.isTerrainShared()
+	 */
+	void restoreUnsharedSnapshot(WorldSnapshot snapshot) throws IllegalArgumentException{
+		restoreSnapshot(snapshot);
+		this.terrainShared = false;
+	}
+
+	/**
+	 * Brings the spatial index up to date with the restored game objects of this world.
+	 * 	The spatial index reports game objects in the order in which they were added to it,
+	 * 	so it is rebuilt in the order of the game objects if a restored game object is not in it.
+	 * @param former
+	 * 		The game objects of this world before the snapshot was restored.
+	 * @post The spatial index holds exactly the game objects of this world, at their current position and radius.
+	 */
+	@Model
+	private void restoreSpatialIndex(List<GameObjects> former){
+		for (GameObjects gameobject: former){
+			if (! gameobjectSet.contains(gameobject)){
+				spatialIndex.remove(gameobject);
+			}
+		}
+		boolean rebuild = false;
+		for (GameObjects gameobject: gameobjects){
+			if (! spatialIndex.hasAsElement(gameobject)){
+				rebuild = true;
+			}
+		}
+		for (GameObjects gameobject: gameobjects){
+			if (rebuild && spatialIndex.hasAsElement(gameobject)){
+				spatialIndex.remove(gameobject);
+			}
+		}
+		for (GameObjects gameobject: gameobjects){
+			if (spatialIndex.hasAsElement(gameobject)){
+				spatialIndex.update(gameobject, gameobject.getX(), gameobject.getY(), gameobject.getRadius());
+			}
+			else {
+				spatialIndex.add(gameobject, gameobject.getX(), gameobject.getY(), gameobject.getRadius());
+			}
+		}
+	}
 	
 // Worms
 	
 	/**
 	 * Returns als the worms in this world.
+	 * 	The list is a read-only view that follows the worms of this world as they change.
 	 * @return a list with all the worms of this world
 	 * 		| result ==
 	 * 		|	List<Worm>
@@ -2044,17 +3162,17 @@ public class World {
 	 * 		|		((object isinstanceof Worm) == true)
 	 */
 	public List<Worm>  getAllWorms(){
-		List<Worm> worms = new ArrayList<Worm>();
-		for (GameObjects gameobject: gameobjects){
-			if (gameobject instanceof Worm)
-				worms.add((Worm) gameobject);
-			}
-		return worms;
-			
+		return this.wormsView;
 	}
+
+	/**
+	 * A read-only view of the list of all the worms in this world.
+	 */
+	private final List<Worm> wormsView = Collections.unmodifiableList(worms);
 	
 	/**
 	 * Returns a list of al the food this world contains.
+	 * 	The list is a read-only view that follows the food of this world as it changes.
 	 * @return a list with all the food of this world
 	 * 		| result ==
 	 * 		|	List<Food>
@@ -2062,14 +3180,13 @@ public class World {
 	 * 		|		((object isinstanceof Food) == true)
 	 */
 	public List<Food> getAllFood(){
-		List<Food> food = new ArrayList<Food>();
-		for (GameObjects gameobject: gameobjects){
-			if (gameobject instanceof Food)
-				food.add((Food) gameobject);
-			}
-		
-		return food;
+		return this.foodsView;
 	}
+
+	/**
+	 * A read-only view of the list of all the food in this world.
+	 */
+	private final List<Food> foodsView = Collections.unmodifiableList(foods);
 	
 	/**
 	 * Returns a list of the worm(s) that are currently winning.
@@ -2120,6 +3237,115 @@ public class World {
 		}
 		new Worm(this,position);
 	}
+
+	/**
+	 * Adds the given number of worms and food rations to this world at once.
+	 * 	The positions of all of them are drawn first, the worms before the food, in the same way as for adding a single worm or food ration.
+	 * 	A position at which the new game object would overlap a game object of this world or a position drawn before is drawn again,
+	 * 	a game object for which no position is found after MAX_SPAWN_ATTEMPTS draws is left out.
+	 * 	The game objects are added after all positions are known, with room reserved for them in the lists of this world.
+	 * @param nbWorms
+	 * 		The number of worms to add.
+	 * @param nbFood
+	 * 		The number of food rations to add.
+	 * @return The number of game objects that were added, at most the given number of worms and food rations.
+	 * 		| result <= nbWorms + nbFood
+	 * @post The worms and food rations are added behind the game objects of this world, none of them overlaps another game object.
+	 * 		| new.getNbGameObjects() == this.getNbGameObjects() + result
+	 * @throws IllegalCommandException
+	 * 		The game has already started.
+	 * 		| start == true
+	 * @throws IllegalArgumentException
+	 * 		One of the given numbers is negative.
+	 * 		| (nbWorms < 0) || (nbFood < 0)
+	 */
+	public int populate(int nbWorms, int nbFood) throws IllegalCommandException, IllegalArgumentException{
+		if (start == true){
+			throw new IllegalCommandException("Game has already started, worms and food cannot be added");
+		}
+		if ((nbWorms < 0) || (nbFood < 0)){
+			throw new IllegalArgumentException("invalid number of worms or food");
+		}
+		List<Position> wormPositions = new ArrayList<Position>(nbWorms);
+		List<Position> foodPositions = new ArrayList<Position>(nbFood);
+		for (int i = 0; i < nbWorms; i++){
+			Position position = generateFreePosition(0.25, wormPositions, foodPositions);
+			if (position != null){
+				wormPositions.add(position);
+			}
+		}
+		for (int i = 0; i < nbFood; i++){
+			Position position = generateFreePosition(getFoodRadius(), wormPositions, foodPositions);
+			if (position != null){
+				foodPositions.add(position);
+			}
+		}
+		int nbAdded = wormPositions.size() + foodPositions.size();
+		gameobjects.ensureCapacity(gameobjects.size() + nbAdded);
+		worms.ensureCapacity(worms.size() + wormPositions.size());
+		foods.ensureCapacity(foods.size() + foodPositions.size());
+		for (Position position: wormPositions){
+			new Worm(this, position);
+		}
+		for (Position position: foodPositions){
+			new Food(position, this);
+		}
+		return nbAdded;
+	}
+
+	/**
+	 * Generates a random adjacent position for an entity with the given radius that does not overlap
+	 * 	a game object of this world, nor a worm or food ration at one of the given positions.
+	 * @param radius
+	 * 		The radius of the entity.
+	 * @param wormPositions
+	 * 		The positions of worms that will be added.
+	 * @param foodPositions
+	 * 		The positions of food rations that will be added.
+	 * @return An adjacent position at which the entity overlaps nothing, null if none is found after MAX_SPAWN_ATTEMPTS draws.
+	 */
+	@Model
+	private Position generateFreePosition(double radius, List<Position> wormPositions, List<Position> foodPositions){
+		for (int attempt = 0; attempt < MAX_SPAWN_ATTEMPTS; attempt++){
+			Position position = generateRandomAdjacentPosition(radius);
+			if (position == null){
+				return null;
+			}
+			if (isFree(position, radius, wormPositions, foodPositions)){
+				return position;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether an entity with the given radius at the given position overlaps no game object of this world,
+	 * 	and no worm or food ration at one of the given positions.
+	 */
+	@Model
+	private boolean isFree(Position position, double radius, List<Position> wormPositions, List<Position> foodPositions){
+		for (GameObjects gameobject: getGameObjectsNear(GameObjects.class, position.getX(), position.getY(), radius)){
+			if (position.calculateDistance(gameobject.getPosition()) < radius + gameobject.getRadius()){
+				return false;
+			}
+		}
+		for (Position other: wormPositions){
+			if (position.calculateDistance(other) < radius + 0.25){
+				return false;
+			}
+		}
+		for (Position other: foodPositions){
+			if (position.calculateDistance(other) < radius + getFoodRadius()){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The number of positions drawn for a game object added by populate before it is left out.
+	 */
+	public static final int MAX_SPAWN_ATTEMPTS = 20;
 	
 	
 	/**
@@ -2163,7 +3389,7 @@ public class World {
 		Worm wormWithHighestHP = worms.get(0);
 		int index = 1;
 		while (index < worms.size()){
-			if (worms.get(index).getCurrentHP().isGreaterThan(wormWithHighestHP.getCurrentHP())){
+			if (worms.get(index).getCurrentHPNumeral() > wormWithHighestHP.getCurrentHPNumeral()){
 				wormWithHighestHP = worms.get(index);
 			}
 			index = index +1;
@@ -2206,7 +3432,7 @@ public class World {
 		for(Team team:this.getAllTeams()){
 			team.terminate();
 		}
-		for(GameObjects gameobject: this.getAllGameObjects()){
+		for(GameObjects gameobject: new ArrayList<GameObjects>(this.getAllGameObjects())){
 			gameobject.Terminate();		
 		}
 		this.isTerminated = true;
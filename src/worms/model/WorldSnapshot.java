@@ -0,0 +1,186 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.model.terrain.AdjacencyIndex;
+import worms.model.terrain.DistanceField;
+import worms.model.terrain.TerrainGrid;
+
+/**
+ * A class of snapshots of the state of a world, created by World.createSnapshot() and restored by World.restoreSnapshot(WorldSnapshot).
+ * 	A snapshot holds the state of every game object and team of its world, the turn and the terrain.
+ * 	The terrain is shared with the world, the world copies it before it changes it, so taking a snapshot copies no terrain.
+ * 	Snapshots are immutable, the same snapshot can be restored any number of times, for instance to look ahead or to undo actions.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class WorldSnapshot {
+
+	/**
+	 * Initialize this new snapshot of the given world with the given state.
+	 */
+	WorldSnapshot(World world, GameObjects.Memento[] objects, Team.Memento[] teams, Worm[] teamlessWorms,
+			Worm currentWorm, Team currentTeam, boolean started, boolean terminated,
+			TerrainGrid terrain, DistanceField distanceField, AdjacencyIndex adjacencyIndex){
+		this.world = world;
+		this.objects = objects;
+		this.teams = teams;
+		this.teamlessWorms = teamlessWorms;
+		this.currentWorm = currentWorm;
+		this.currentTeam = currentTeam;
+		this.started = started;
+		this.terminated = terminated;
+		this.terrain = terrain;
+		this.distanceField = distanceField;
+		this.adjacencyIndex = adjacencyIndex;
+	}
+
+	/**
+	 * Returns the world of this snapshot.
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * The world of this snapshot.
+	 */
+	private final World world;
+
+	/**
+	 * Returns the number of game objects of the world of this snapshot at the creation of this snapshot.
+	 */
+	public int getNbGameObjects(){
+		return this.objects.length;
+	}
+
+	/**
+	 * Returns the mementos of the game objects of the world, in the order of the game objects.
+	 */
+	@Basic @Immutable
+	GameObjects.Memento[] getObjects(){
+		return this.objects;
+	}
+
+	/**
+	 * The mementos of the game objects of the world.
+	 */
+	private final GameObjects.Memento[] objects;
+
+	/**
+	 * Returns the mementos of the teams of the world, in the order of the teams.
+	 */
+	@Basic @Immutable
+	Team.Memento[] getTeams(){
+		return this.teams;
+	}
+
+	/**
+	 * The mementos of the teams of the world.
+	 */
+	private final Team.Memento[] teams;
+
+	/**
+	 * Returns the worms without a team taking turns in the world, null if the game had not started.
+	 */
+	@Basic @Immutable
+	Worm[] getTeamlessWorms(){
+		return this.teamlessWorms;
+	}
+
+	/**
+	 * The worms without a team taking turns in the world.
+	 */
+	private final Worm[] teamlessWorms;
+
+	/**
+	 * Returns the worm whose turn it was.
+	 */
+	@Basic @Immutable
+	public Worm getCurrentWorm(){
+		return this.currentWorm;
+	}
+
+	/**
+	 * The worm whose turn it was.
+	 */
+	private final Worm currentWorm;
+
+	/**
+	 * Returns the team whose turn it was.
+	 */
+	@Basic @Immutable
+	Team getCurrentTeam(){
+		return this.currentTeam;
+	}
+
+	/**
+	 * The team whose turn it was.
+	 */
+	private final Team currentTeam;
+
+	/**
+	 * Checks whether the game of the world had started.
+	 */
+	@Basic @Immutable
+	public boolean isStarted(){
+		return this.started;
+	}
+
+	/**
+	 * Whether the game of the world had started.
+	 */
+	private final boolean started;
+
+	/**
+	 * Checks whether the world was terminated.
+	 */
+	@Basic @Immutable
+	boolean isTerminated(){
+		return this.terminated;
+	}
+
+	/**
+	 * Whether the world was terminated.
+	 */
+	private final boolean terminated;
+
+	/**
+	 * Returns the terrain of the world.
+	 */
+	@Basic @Immutable
+	TerrainGrid getTerrain(){
+		return this.terrain;
+	}
+
+	/**
+	 * The terrain of the world, shared with the world until the world changes it.
+	 */
+	private final TerrainGrid terrain;
+
+	/**
+	 * Returns the distance field of the terrain of the world.
+	 */
+	@Basic @Immutable
+	DistanceField getDistanceField(){
+		return this.distanceField;
+	}
+
+	/**
+	 * The distance field of the terrain of the world.
+	 */
+	private final DistanceField distanceField;
+
+	/**
+	 * Returns the adjacency index of the terrain of the world.
+	 */
+	@Basic @Immutable
+	AdjacencyIndex getAdjacencyIndex(){
+		return this.adjacencyIndex;
+	}
+
+	/**
+	 * The adjacency index of the terrain of the world.
+	 */
+	private final AdjacencyIndex adjacencyIndex;
+}
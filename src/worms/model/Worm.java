@@ -74,9 +74,9 @@ public class Worm extends MovingObjects{
 	 * @effect the given name is the name of this new Worm
 	 * 		| setName(name)
 	 * @effect the current action points of this new Worm equals the maximum amount of action points of this new Worm
-	 * 		| this.setCurrentAP(new Points(this.getMaxPoints(),SortPoints.AP))
+	 * 		| this.setCurrentAP(this.getMaxPoints())
 	 * @effect the current hit points of this new Worm equals the maximum amount of hit points for this new Worm
-	 * 		| this.setCurrentHP(new Points(this.getMaxPoints(),SortPoints.HP))
+	 * 		| this.setCurrentHP(this.getMaxPoints())
 	 * @effect this new worm is initialized as a moving object with given radius, given position, given world, calculated mass (via given radius) and given direction
 	 * 		| super(radius, new Position(x,y),world, calculateMass(radius,0.25),Direction)
 	 * @effect a bazooka is added to this new worm's weapons
@@ -91,8 +91,8 @@ public class Worm extends MovingObjects{
 		super(radius, new Position(x,y),world, calculateMass(radius,0.25),Direction);
 						
 		this.setName(name);
-		this.setCurrentAP(new Points(this.getMaxPoints(),SortPoints.AP));
-		this.setCurrentHP(new Points(this.getMaxPoints(),SortPoints.HP));
+		this.setCurrentAP(this.getMaxPoints());
+		this.setCurrentHP(this.getMaxPoints());
 		this.addWeapon(new Bazooka());
 		this.addWeapon(new Rifle());
 				
@@ -263,6 +263,8 @@ public class Worm extends MovingObjects{
 	 * 		|new.getRadius() == radius
 	 * @effect the mass of this worm will be adjusted according to the new radius
 	 * 		| setMassGivenRadius(radius)
+	 * @effect The world of this worm registers the new radius.
+	 * 		| updateLocationInWorld()
 	 * 			
 	 * @throws IllegalRadiusException
 	 * 		if the given radius is not a valid value as radius of this Worm
@@ -275,6 +277,7 @@ public class Worm extends MovingObjects{
 			}
 		this.radius = radius;
 		this.setMassGivenRadius(radius); 
+		this.updateLocationInWorld();
 		
 	}
 	 
@@ -346,10 +349,10 @@ public class Worm extends MovingObjects{
 	 */
 	public void turn(double angle){
 		assert(isValidDirection(angle));
-		assert(getCurrentAP().isGreaterThan(costOfTurn(angle)) || getCurrentAP().isEqualTo(costOfTurn(angle)));
+		assert(getCurrentAPNumeral() >= getTurnCost(angle));
 		double oldDirection = this.getDirection();
 		
-		Points AP = costOfTurn(angle);
+		int AP = getTurnCost(angle);
 		if (isValidDirection(oldDirection+angle) && (enoughAPLeft(AP))){
 			this.setDirection(oldDirection+angle);
 			this.decreaseCurrentAP(AP);
@@ -408,16 +411,16 @@ public class Worm extends MovingObjects{
 	 * @effect the worm will get a new position if this position is passable, this worm will maximize the distance it travels
 	 * 			and minimize the difference between the direction in which it travels and the direction in which it faces 
 	 * 			whilst not exceeding a difference of 0.7875 with respect to the direction in which it faces
-	 * 		|  -New variable: BiggestDistance = canPass(direction + index * stepsize, getRadius(),getPosition)
+	 * 		|  -New variable: BiggestDistance = canPass(direction + index * stepsize, getRadius(),getX(),getY())
 	 * 		|  -New variable: direction = getDirection()
 	 * 		| 
 	 * 		|bestAngle == bestDirection
 	 * 		| if for each notAGoodDirection for which Math.abs(notAGoodDirection - direction) < bestDirection :
-	 * 		|	canPass(notAGoodDirection,getRadius(),getPosition()) == 0
+	 * 		|	canPass(notAGoodDirection,getRadius(),getX(),getY()) == 0
 	 * 		| && for bestDirection:
-	 * 		|		canPass(bestDirection, getRadius(),getPosition()) >= 0.1
+	 * 		|		canPass(bestDirection, getRadius(),getX(),getY()) >= 0.1
 	 * 		|
-	 *    	| then BiggestDistance == canPass(bestDirection, getRadius(),getPosition())
+	 *    	| then BiggestDistance == canPass(bestDirection, getRadius(),getX(),getY())
 	 * 		|
 	 * 		| In conclusion: this.setPosition(this.calculatePosition(BiggestDistance, bestAngle))
 	 * @effect the AP is lowered with the amount of AP needed for the step
@@ -429,7 +432,39 @@ public class Worm extends MovingObjects{
 	public void step(double angle) throws IllegalArgumentException{
 		if (! this.canMove(angle))
 			throw new IllegalArgumentException("can not move");
-				
+		
+		double[] bestStep = this.findStep(this.getX(), this.getY(), this.getRadius(), new int[] {-1, -1});
+		double BiggestDistance = bestStep[0];
+		double bestAngle = bestStep[1];
+		
+		int APcost = getStepCost(bestAngle);
+		if (this.enoughAPLeft(APcost) && BiggestDistance != 0){
+			Position newPosition = this.calculatePosition(BiggestDistance, bestAngle);
+			this.setPosition(newPosition);	
+			this.decreaseCurrentAP(APcost);
+		}
+		
+		this.setOverlapsFood(this.getPosition());
+		
+		if (this.getOverlappingFood() != null)
+			this.Eat(this.getOverlappingFood());
+	}
+
+	/**
+	 * Searches the distance and the direction of the next step of this worm from the given coordinates, as if it had the given radius.
+	 * @param x
+	 * 		The x-coordinate from which the step is taken.
+	 * @param y
+	 * 		The y-coordinate from which the step is taken.
+	 * @param radius
+	 * 		The radius of this worm during the step.
+	 * @param blockingCells
+	 * 		The cells of the terrain that blocked the last blocked positions of earlier steps, checked first during the search.
+	 * @return The distance of the step and the direction in which it is taken, the first direction closest to the direction of this worm
+	 * 			in which it can travel, the distance is zero if there is no such direction.
+	 * 		| result == {BiggestDistance, bestAngle} as described in step(angle)
+	 */
+	private double[] findStep(double x, double y, double radius, int[] blockingCells){
 		double direction = this.getDirection();
 		
 		double stepsize = 0.0175;
@@ -437,10 +472,11 @@ public class Worm extends MovingObjects{
 		double BiggestDistance = 0;
 		double bestAngle = direction;
 		boolean found = false;
+		double[] distances = this.getWorld().wormCanPass(radius, radius, getCandidateDirections(direction, stepsize), x, y, true, blockingCells);
 		 
 		while ((direction-index*stepsize > direction - 0.7875) && (! found)){
 			
-			double distance1 = this.canPass(direction+index*stepsize, this.getRadius(), this.getPosition());
+			double distance1 = distances[2*index];
 					
 			if(distance1 > BiggestDistance){
 					BiggestDistance = distance1;
@@ -448,7 +484,7 @@ public class Worm extends MovingObjects{
 					found = true;
 				}
 			
-			double distance2 = this.canPass(direction-index*stepsize, this.getRadius(), this.getPosition());
+			double distance2 = distances[2*index + 1];
 			
 			
 			if((! found) && (distance2 > BiggestDistance)){
@@ -459,17 +495,8 @@ public class Worm extends MovingObjects{
 			
 			index += 1;
 		} 
-		Points APcost = costOfStep(bestAngle);
-		if (this.enoughAPLeft(APcost) && BiggestDistance != 0){
-			Position newPosition = this.calculatePosition(BiggestDistance, bestAngle);
-			this.setPosition(newPosition);	
-			this.decreaseCurrentAP(APcost);
-		}
-		
-		this.setOverlapsFood(this.getPosition());
-		
-		if (this.getOverlappingFood() != null)
-			this.Eat(this.getOverlappingFood());
+		double[] result = {BiggestDistance, bestAngle};
+		return result;
 	}
 	
 	
@@ -519,18 +546,6 @@ public class Worm extends MovingObjects{
 		return this.calculatePosition(distance, direction,this.getPosition());
 	}
 	
-	/** 
-	 * This method moves the worm by the number of steps given in the direction it is currently facing.
-	 * @param steps
-	 * 		the number of steps the worm has to take
-	 * @effect The worm takes 'steps' (the given value) amount of steps
-	 * 		| 	for each step in 1..steps:
-	 * 		| 		this.step()
-	 * @throws IllegalStepException
-	 * 		throws an IllegalStepException when the value for step isn't valid
-	 * 		| ! isValidStep(steps)
-	 */
-	
 	/** 
 	 * Increases the position of the worm (decreases when the given parameter is negative) with the given position.
 	 * @param position
@@ -560,22 +575,124 @@ public class Worm extends MovingObjects{
 	}
 
 	
-	private void move(int steps) throws IllegalPositionException,IllegalStepException{
+	/** 
+	 * This method moves the worm by the number of steps given in the direction it is currently facing.
+	 * @param steps
+	 * 		the number of steps the worm has to take
+	 * @effect The worm carries out the plan for the given number of steps
+	 * 		| 	this.move(this.planMove(steps))
+	 * @throws IllegalStepException
+	 * 		throws an IllegalStepException when the value for step isn't valid
+	 * 		| ! isValidStep(steps)
+	 * @throws IllegalArgumentException
+	 * 		if the worm can not move
+	 * 		| (! this.canMove(this.getTerrainAngle()))
+	 */
+	public void move(int steps) throws IllegalPositionException,IllegalStepException,IllegalArgumentException{
+		this.move(this.planMove(steps));
+	}
+
+	/**
+	 * Plans the given number of steps of this worm in the direction it is currently facing, without moving this worm.
+	 * 	Every step is planned as step(getTerrainAngle()) would take it from the position reached by the steps before,
+	 * 	with the radius and the action points this worm would have there, and food eaten on the way is not eaten again.
+	 * 	The cells of the terrain that blocked the search of a step are checked first in the search of the next step,
+	 * 	since the steps of a move lie close to each other.
+	 * @param steps
+	 * 		the number of steps to plan
+	 * @return A plan of this worm from its current state with the positions reached by the steps,
+	 * 			up to the first step that does not change the position of the worm, that step included,
+	 * 			or up to the last step before a step the worm can not take because of the terrain angle,
+	 * 			because the terrain angle can not be calculated there or because its best direction is not a valid direction.
+	 * 		| (result.getWorm() == this) && (result.getNbSteps() >= 1) && (result.getNbSteps() <= steps)
+	 * @throws IllegalStepException
+	 * 		throws an IllegalStepException when the value for step isn't valid
+	 * 		| ! isValidStep(steps)
+	 * @throws IllegalArgumentException
+	 * 		if the worm can not take the first step
+	 * 		| (! this.canMove(this.getTerrainAngle()))
+	 */
+	public MovePlan planMove(int steps) throws IllegalStepException,IllegalArgumentException{
 		if (!isValidStep(steps)){
 			throw new IllegalStepException(steps);
 		}
+		double direction = this.getDirection();
+		Position position = this.getPosition();
+		double radius = this.getRadius();
+		int AP = this.getCurrentAPNumeral();
+		int APcost = 0;
+		List<Position> positions = new ArrayList<Position>();
+		List<Food> eatenFood = new ArrayList<Food>();
+		int[] blockingCells = {-1, -1};
 		
-		int i = 1;
-		Position oldPosition = this.getPosition();
-		// let the worm take one step in the direction it is facing
-		step(this.getTerrainAngle());
-		
-		while (( i < steps) && !(oldPosition.equals(this.getPosition()))){
-				oldPosition = this.getPosition();
-				step(this.getTerrainAngle());
-			i = i + 1;
+		while (positions.size() < steps){
+			double angle;
+			try {
+				angle = this.getWorld().calculateSlope(position, direction, radius);
+			}
+			catch (IllegalPositionException exc){
+				if (positions.isEmpty())
+					throw exc;
+				break;
 			}
+			catch (IllegalYCoordinateException exc){
+				if (positions.isEmpty())
+					throw exc;
+				break;
+			}
+			if (! this.canMove(angle)){
+				if (positions.isEmpty())
+					throw new IllegalArgumentException("can not move");
+				break;
+			}
+			Position oldPosition = position;
+			double[] bestStep = this.findStep(position.getX(), position.getY(), radius, blockingCells);
+			int stepCost = getStepCost(bestStep[1]);
+			if (((stepCost <= 0) || (AP >= stepCost)) && bestStep[0] != 0){
+				if ((! positions.isEmpty()) && (! isValidDirection(bestStep[1])))
+					break;
+				position = this.calculatePosition(bestStep[0], bestStep[1], position);
+				if (stepCost >= 0){
+					AP = Math.max(0, AP - stepCost);
+					APcost = APcost + stepCost;
+				}
+			}
+			Food food = this.findOverlappingFood(position, radius, eatenFood);
+			if (food != null){
+				eatenFood.add(food);
+				radius = radius + radius*0.1;
+			}
+			positions.add(position);
+			if (oldPosition.equals(position))
+				break;
 		}
+		return new MovePlan(this, positions.toArray(new Position[positions.size()]), eatenFood.toArray(new Food[eatenFood.size()]), APcost);
+	}
+
+	/**
+	 * Carries out the given plan of this worm.
+	 * @param plan
+	 * 		the plan to carry out
+	 * @effect this worm gets the last position of the plan, its AP is lowered with the cost of the plan
+	 * 			and it eats the food of the plan, in the order of the plan
+	 * 		| this.setPosition(plan.getFinalPosition())
+	 * 		| && this.decreaseCurrentAP(plan.getAPCost())
+	 * 		| && for each food in plan.getEatenFood():
+	 * 		|	this.Eat(food)
+	 * @throws IllegalArgumentException
+	 * 		if the given plan is not effective, it is not a plan of this worm or this worm changed since it was made
+	 * 		| (plan == null) || (plan.getWorm() != this) || (! plan.isUpToDate())
+	 */
+	public void move(MovePlan plan) throws IllegalArgumentException{
+		if ((plan == null) || (plan.getWorm() != this) || (! plan.isUpToDate()))
+			throw new IllegalArgumentException("not a valid plan");
+		
+		this.setPosition(plan.getFinalPosition());
+		this.decreaseCurrentAP(plan.getAPCost());
+		for (Food food: plan.getEatenFood())
+			this.Eat(food);
+		this.setOverlappingFood(null);
+	}
 	
 	/**
 	 * checks whether this worm can fall.
@@ -587,12 +704,28 @@ public class Worm extends MovingObjects{
 	 * 		|	getWorld().isImpassable(calculatePosition(getRadius(),alpha, position) == false
 	 */
 	public boolean canFall(Position position){
+		if (!isValidPosition(position))
+			throw new IllegalArgumentException("not a valid position");
+		return this.canFall(position.getX(), position.getY());
+	}
+
+	/**
+	 * checks whether this worm can fall from the given coordinates.
+	 * @param x
+	 * 		The x-coordinate for which to check whether this worm can fall.
+	 * @param y
+	 * 		The y-coordinate for which to check whether this worm can fall.
+	 * @return the same result as for the position with the given coordinates.
+	 * 		|result == canFall(new Position(x,y))
+	 */
+	public boolean canFall(double x, double y){
+		double radius = this.getRadius();
+		World world = this.getWorld();
 		double alpha = 7.0*Math.PI/6;
 		double stepSizeAlpha = Math.PI/10;
 		while(alpha <= 11.0*Math.PI/6){
 			
-			 Position positionToCheck = this.calculatePosition(this.getRadius(), alpha,position);
-			if (this.getWorld().isImpassable(positionToCheck)){
+			if (world.isImpassable(x + radius*Math.cos(alpha), y + radius*Math.sin(alpha))){
 				return false;
 			}
 			
@@ -608,7 +741,7 @@ public class Worm extends MovingObjects{
 	 * 
 	 */
 	public boolean canFall(){
-		return this.canFall(this.getPosition());
+		return this.canFall(this.getX(), this.getY());
 	}
 	
 	/**
@@ -620,17 +753,18 @@ public class Worm extends MovingObjects{
 	 * 		|	((canFall(new Position(getX(), Y)) == true) && (Y>=stepSize))
 	 * 		|	&& canFall(newPosition(getX(), finalY)) == false
 	 * 		|		then (setPosition(new Position(getX(),finalY))
-	 * 		|			&& (decreaseCurrentHP(new Points((int) Math.ceil(3*(getY() - finalY)),SortPoints.HP))))
+	 * 		|			&& (decreaseCurrentHP((int) Math.ceil(3*(getY() - finalY)))))
 	 * 		|			&& setOverlapsFood(new Position(getX(),finalY))
 	 * 		|			&& if (getOverlappingFood() != null):
 	 * 		|				then Eat(getOverlappingFood())
 	 * 
 	 * 		| if for each Y in [getY(), getY()- stepSize, ..., finalY + stepSize]:
 	 * 		|	((canFall(new Position(getX(), Y)) == true) && (Y < stepSize))
-	 * 		|		then this.setCurrentHP(new Points(0,SortPoints.HP)) --> this worm's world will immediately terminate this worm
+	 * 		|		then this.setCurrentHP(0) --> this worm's world will immediately terminate this worm
 	 * @throws IllegalArgumentException
 	 * 		if the given position is invalid
 	 * 		|(!isValidPosition(position))
+	 * @note canFall is only evaluated for the last steps of the fall, the steps before are known to be free by countFreeFallSteps.
 	 *		
 	 */
 	
@@ -645,46 +779,104 @@ public class Worm extends MovingObjects{
 		double y = position.getY();
 		
 		Position oldPosition = position;
-		Position newPosition = position;
+		double newY = y;
+		int freeSteps = countFreeFallSteps(x, y, stepSize);
+		int step = 0;
 		
-		while (canFall(newPosition) && (y >= 0)){
+		while (((step < freeSteps) || canFall(x, newY)) && (y >= 0)){
 			y = y - stepSize;
 			if (y > 0)
-				newPosition = new Position(x,y);
-			
+				newY = y;
+			step = step + 1;
 		}
 		if (y <0){
-			this.setCurrentHP(new Points(0,SortPoints.HP));
+			this.setCurrentHP(0);
 		}
 		
 		
 		else{
 			y+= stepSize;
-			newPosition = new Position(x,y);
+			Position newPosition = new Position(x,y);
 			
 			this.setOverlapsFood(newPosition);
 			if (this.getOverlappingFood() != null)
 				this.Eat(this.getOverlappingFood());
 			
 			this.setPosition(new Position(x,y));
-		    this.decreaseCurrentHP(new Points((int) Math.ceil(3*(oldPosition.getY() - this.getPosition().getY())),SortPoints.HP));
+		    this.decreaseCurrentHP((int) Math.ceil(3*(oldPosition.getY() - this.getPosition().getY())));
 		    
 		}
 	}
 	/**
-	 * Calculates the maximum distance a worm can travel in the given direction from the given position, with an upperbound on the distance: maxDistance.
+	 * Counts the steps of the given size this worm can fall from the given coordinates for which it can certainly still fall afterwards.
+	 * 	Every point checked by canFall is looked up once in the column of the world below it,
+	 * 	and the steps that bring that point within two steps of the ground are not counted.
+	 * @param x
+	 * 		The x-coordinate from which this worm falls.
+	 * @param y
+	 * 		The y-coordinate from which this worm falls.
+	 * @param stepSize
+	 * 		The size of a step of the fall.
+	 * @return A number of steps for which this worm can fall after every one of them.
+	 * 		| for each k in [0, ..., result-1]:
+	 * 		|	canFall(x, y - k*stepSize)
+	 */
+	private int countFreeFallSteps(double x, double y, double stepSize){
+		double radius = this.getRadius();
+		World world = this.getWorld();
+		double steps = Double.POSITIVE_INFINITY;
+		double alpha = 7.0*Math.PI/6;
+		double stepSizeAlpha = Math.PI/10;
+		while(alpha <= 11.0*Math.PI/6){
+			double pointY = y + radius*Math.sin(alpha);
+			double ground = world.getGroundBelow(x + radius*Math.cos(alpha), pointY);
+			steps = Math.min(steps, Math.floor((pointY - ground) / stepSize) - 1);
+			alpha += stepSizeAlpha;
+		}
+		if (! (steps > 0)){
+			return 0;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, steps);
+	}
+
+	/**
+	 * Calculates the maximum distance a worm can travel in the given direction from the given coordinates, with an upperbound on the distance: maxDistance.
 	 * @param direction
 	 * 		The direction is which to calculate the distance
 	 * @param maxDistance
 	 * 		The upperbound for the distance
-	 * @param position
-	 * 		The position from which the worm wants to move in the given direction
-	 * @return The maximum distance smaller than/ equal to maxDistance that a worm can move in the given direction from the given position.
-	 * 		| result == 
-	 * 		| 	getWorld().wormCanPass(getRadius(),direction,maxDistance,position)
+	 * @param x
+	 * 		The x-coordinate from which the worm wants to move in the given direction
+	 * @param y
+	 * 		The y-coordinate from which the worm wants to move in the given direction
+	 * @return The maximum distance smaller than/ equal to maxDistance that a worm can move in the given direction from the given coordinates.
+	 * 		| result ==
+	 * 		| 	getWorld().wormCanPass(getRadius(),maxDistance,direction,x,y)
 	 */
-	private double canPass(double direction, double maxDistance, Position position){
-		return (getWorld().wormCanPass(getRadius(),maxDistance,direction,position));
+	private double canPass(double direction, double maxDistance, double x, double y){
+		return (getWorld().wormCanPass(getRadius(),maxDistance,direction,x,y));
+	}
+
+	/**
+	 * Returns the directions step searches for the given direction, the given direction turned over a number of times the given step size
+	 * 	to the left and to the right, until the difference reaches 0.7875.
+	 * @return The directions direction+index*stepsize and direction-index*stepsize, at index 2*index and 2*index+1,
+	 * 			for every index for which direction-index*stepsize > direction - 0.7875.
+	 * 		| for each index in [0, ..., result.length/2 - 1]:
+	 * 		|	(result[2*index] == direction+index*stepsize) && (result[2*index+1] == direction-index*stepsize)
+	 * 		|	&& (direction-index*stepsize > direction - 0.7875)
+	 */
+	private static double[] getCandidateDirections(double direction, double stepsize){
+		int nbIndexes = 0;
+		while (direction-nbIndexes*stepsize > direction - 0.7875){
+			nbIndexes += 1;
+		}
+		double[] directions = new double[2*nbIndexes];
+		for (int index = 0; index < nbIndexes; index++){
+			directions[2*index] = direction+index*stepsize;
+			directions[2*index + 1] = direction-index*stepsize;
+		}
+		return directions;
 	}
 	
 	/** 
@@ -718,17 +910,11 @@ public class Worm extends MovingObjects{
 			this.MaxPoints = 0;
 		}
 		
-		try{
-			if (this.getCurrentAP().getNumeral() > (this.getMaxPoints())){
-		
-				setCurrentAP(new Points(getMaxPoints(),SortPoints.AP));
-			}
-			if (this.getCurrentHP().getNumeral() > (this.getMaxPoints())){
-				setCurrentHP(new Points(getMaxPoints(),SortPoints.HP));
-			}
+		if (this.getCurrentAPNumeral() > (this.getMaxPoints())){
+			setCurrentAP(getMaxPoints());
 		}
-		catch (NullPointerException exc){
-			//System.out.println("No current AP yet");
+		if (this.getCurrentHPNumeral() > (this.getMaxPoints())){
+			setCurrentHP(getMaxPoints());
 		}
 			
 	}
@@ -744,6 +930,14 @@ public class Worm extends MovingObjects{
 	 */
 	@Basic
 	public Points getCurrentAP(){
+		return Points.valueOf(this.getCurrentAPNumeral(),SortPoints.AP);
+	}
+	
+	/** 
+	 * Returns the numeral of the current action points.
+	 */
+	@Basic
+	public int getCurrentAPNumeral(){
 		return this.CurrentAP;
 	}
 	
@@ -764,6 +958,18 @@ public class Worm extends MovingObjects{
 		return this.getCurrentAP().enoughPointsLeft(pointsNeeded);
 	}
 	
+	/** 
+	 * Checks whether the worm has enough action points to execute a command that costs the given numeral of action points.
+	 * @param numeralNeeded
+	 * 		the numeral of the action points the command costs
+	 * @return true if and only if the given numeral is not positive or does not exceed the numeral of the current AP
+	 * 		|result == 
+	 * 		|	((numeralNeeded <= 0) || (getCurrentAPNumeral() >= numeralNeeded))
+	 */
+	public boolean enoughAPLeft(int numeralNeeded){
+		return ((numeralNeeded <= 0) || (this.getCurrentAPNumeral() >= numeralNeeded));
+	}
+	
 	/** 
 	 * Decreases the current AP with the given value (points).
 	 * @param points 
@@ -778,10 +984,20 @@ public class Worm extends MovingObjects{
 	 * 
 	 */
 	public void decreaseCurrentAP(Points points){
-		if (points.getNumeral() >= 0){
-			Points currentAP = this.getCurrentAP();
-			Points result = currentAP.substract(points);
-			this.setCurrentAP(result);
+		this.decreaseCurrentAP(points.getNumeral());
+	}
+	
+	/** 
+	 * Decreases the current AP with the given numeral.
+	 * @param numeral
+	 * 		the numeral of the action points to subtract from the current AP
+	 * @effect if the given numeral is not negative, the current AP is decreased with it, but not below zero
+	 * 		|if (numeral >= 0)
+	 * 		|	then setCurrentAP(Math.max(0, getCurrentAPNumeral() - numeral))
+	 */
+	public void decreaseCurrentAP(int numeral){
+		if (numeral >= 0){
+			this.setCurrentAP(Math.max(0, this.getCurrentAPNumeral() - numeral));
 		}
 	}
 	
@@ -792,10 +1008,21 @@ public class Worm extends MovingObjects{
 	 * 		the angle over which there has to be turned
 	 * 
 	 * @return the amount of AP it costs to turn over the given angle, calculated with the formula:  60 * (given angle) / (2*Pi) 
-	 * 		|result == Math.round(Math.ceil(Math.abs(angle / (2*Math.PI))*60));
+	 * 		|result == Points.valueOf(getTurnCost(angle),SortPoints.AP);
 	 */
 	public static Points costOfTurn(double angle){
-		return new Points((int) Math.round(Math.ceil(Math.abs(angle / (2*Math.PI))*60)),SortPoints.AP);
+		return Points.valueOf(getTurnCost(angle),SortPoints.AP);
+	}
+	
+	/** 
+	 * Calculates and returns the numeral of the action points it costs to turn over a given angle.
+	 * @param angle
+	 * 		the angle over which there has to be turned
+	 * @return the numeral of the cost, calculated with the formula:  60 * (given angle) / (2*Pi) 
+	 * 		|result == Math.round(Math.ceil(Math.abs(angle / (2*Math.PI))*60));
+	 */
+	public static int getTurnCost(double angle){
+		return (int) Math.round(Math.ceil(Math.abs(angle / (2*Math.PI))*60));
 	}
 	
 	
@@ -806,20 +1033,34 @@ public class Worm extends MovingObjects{
 	 * 
 	 * @return a corrected version of the cost of a step
 	 * 			| result ==
-	 * 			|	new Points( Math.abs(Math.cos(alpha)) + 4*Math.abs(Math.sin(alpha)), SortPoints.AP) 
+	 * 			|	Points.valueOf(getStepCost(alpha), SortPoints.AP) 
 	 * 
 	 * @throws IllegalTerrainAngleException
 	 * 			if the given alpha is not a valid value for the angle of the terrain
 	 * 			| ! isValidTerrainAngle(alpha)
 	 */
 	public static Points costOfStep(double alpha) throws IllegalTerrainAngleException{
+		return Points.valueOf(getStepCost(alpha), SortPoints.AP);
+	}
+	
+	/** 
+	 * Calculates and returns the numeral of the action points 1 step costs for the given angle of the terrain.
+	 * @param alpha
+	 * 			The angle of the terrain.
+	 * @return a corrected version of the cost of a step
+	 * 			| result ==
+	 * 			|	(int) Math.ceil(Math.abs(Math.cos(alpha)) + 4*Math.abs(Math.sin(alpha))) 
+	 * @throws IllegalTerrainAngleException
+	 * 			if the given alpha is not a valid value for the angle of the terrain
+	 * 			| ! isValidTerrainAngle(alpha)
+	 */
+	public static int getStepCost(double alpha) throws IllegalTerrainAngleException{
 		if (! isValidTerrainAngle(alpha)){			
 			throw new IllegalTerrainAngleException(alpha);
 		}
 		
 		double cost = Math.ceil(Math.abs(Math.cos(alpha))+ 4*Math.abs(Math.sin(alpha)));
-		return new Points((int)cost, SortPoints.AP);
-		
+		return (int)cost;
 	}
 	 /**
 	  * Sets the current AP to it's maximum value.
@@ -827,7 +1068,7 @@ public class Worm extends MovingObjects{
 	  * 	| new.getCurrentAP() == getMaxAP()
 	  */
 	 protected void raiseAPNewTurn(){
-		 setCurrentAP(new Points(getMaxPoints(),SortPoints.AP));
+		 setCurrentAP(getMaxPoints());
 	 }
 	
 	
@@ -836,30 +1077,36 @@ public class Worm extends MovingObjects{
 	 * @param points
 	 * 		the current action points
 	 * 
-	 * @post If the given value AP is less than or equal to the maximum number of AP of this Worm and larger than or equal to zero, than the currentAP will be set to the given AP
-	 * 		|if ((points.isSmallerThan(maxAP) || points.isEqualTo(maxAP) && (points.getPoints() >0)))
-	 * 		|	then this.CurrentAP = points;
-	 * @post If the given value of AP is larger than the maximum number of AP of this Worm, set currentAP to maximum number of AP
-	 *		|if (points.isGreaterThan(maxAP))
-	 *		|	then this.CurrentAP = this.getMaxAP();
-	 * @post If the given value of AP is negative, set the current amount of AP to 0
-	 * 		|if (points.getPoints() <=0)
-	 * 		|	then this.CurrentAP = new Points(0,SortPoints.AP);	
+	 * @effect The numeral of the current AP is set to the numeral of the given points
+	 * 		| setCurrentAP(points.getNumeral())
 	 */	
 	 @Raw @Model
 	protected void setCurrentAP(Points points){ 
-		 Points maxAP = new Points(this.getMaxPoints(),SortPoints.AP); 
-		 
-		 
-		if ((points.isSmallerThan(maxAP) || points.isEqualTo(maxAP) && (points.getNumeral() >0))){
-			this.CurrentAP = points;
-			}
-		if (points.isGreaterThan(maxAP)){
-			this.CurrentAP = new Points(this.getMaxPoints(),SortPoints.AP);
+		this.setCurrentAP(points.getNumeral());
+	}	
+	
+	/** 
+	 * Sets the numeral of the current action points of this Worm.
+	 * @param numeral
+	 * 		the numeral of the current action points
+	 * 
+	 * @post If the given numeral is less than or equal to the maximum number of AP of this Worm and larger than zero, than the currentAP will be set to the given numeral
+	 * 		|if ((numeral <= getMaxPoints()) && (numeral > 0))
+	 * 		|	then new.getCurrentAPNumeral() == numeral
+	 * @post If the given numeral is larger than the maximum number of AP of this Worm, set currentAP to maximum number of AP
+	 *		|if (numeral > getMaxPoints())
+	 *		|	then new.getCurrentAPNumeral() == getMaxPoints()
+	 * @post If the given numeral is not positive, set the current amount of AP to 0
+	 * 		|if (numeral <= 0)
+	 * 		|	then new.getCurrentAPNumeral() == 0
+	 */	
+	 @Raw @Model
+	protected void setCurrentAP(int numeral){ 
+		if (numeral <= 0){
+			this.CurrentAP = 0;
 		}
-		if (points.getNumeral() <=0) {
-			this.CurrentAP = new Points(0,SortPoints.AP);
-			
+		else {
+			this.CurrentAP = Math.min(numeral, this.getMaxPoints());
 		}
 	}	
 	
@@ -867,10 +1114,10 @@ public class Worm extends MovingObjects{
 	 
 	 
 	/** 
-	 * The current amount of action points this Worm possesses.
+	 * The numeral of the current amount of action points this Worm possesses.
 	 * Is set to 0 by default, the worm has to change its action points in the beginning of the game
 	 */
-	private Points CurrentAP = new Points(0,SortPoints.AP);
+	private int CurrentAP = 0;
 	
 	
 	
@@ -888,8 +1135,20 @@ public class Worm extends MovingObjects{
 	 * 
 	 */
 	public void decreaseCurrentHP(Points amount) throws IllegalArgumentException{
-		if (amount.getNumeral() >= 0){
-			this.setCurrentHP(this.getCurrentHP().substract(amount));
+		this.decreaseCurrentHP(amount.getNumeral());
+	}
+	
+	/** 
+	 * Decreases the current HP with the given numeral.
+	 * @param numeral
+	 * 		the numeral of the hit points to subtract from the current HP
+	 * @effect if the given numeral is not negative, the current HP is decreased with it, but not below zero
+	 * 		|if (numeral >= 0)
+	 * 		|	then setCurrentHP(Math.max(0, getCurrentHPNumeral() - numeral))
+	 */
+	public void decreaseCurrentHP(int numeral){
+		if (numeral >= 0){
+			this.setCurrentHP(Math.max(0, this.getCurrentHPNumeral() - numeral));
 		}
 	}
 	
@@ -897,6 +1156,14 @@ public class Worm extends MovingObjects{
 	 * returns the hit Points of the worm
 	 */
 	public  Points getCurrentHP(){
+		return Points.valueOf(this.getCurrentHPNumeral(),SortPoints.HP);
+	}
+	
+	/**
+	 * returns the numeral of the hit points of the worm
+	 */
+	@Basic
+	public int getCurrentHPNumeral(){
 		return this.CurrentHP;
 	}
 	
@@ -904,19 +1171,29 @@ public class Worm extends MovingObjects{
 	 * increases the current HP of the worm
 	 * @param amount
 	 * 		the amount of points that has to be added to this worm's current HP
-	 * @effect This worm's new current HP is set to the sum of this worms old current AP incremented with the given amount
-	 * 			if that sum does not exceed the maximum allowed points and amount is non-negative
-	 * 		| this.setCurrentHP(this.getCurrentHP().add(amount));
-	 *			if that sum does exceed the maximum allowed points and amount is non-negative
-	 *		| this.setCurrentHP(new Points(getMaxPoints(),SortPoints.HP))
-	 * 
+	 * @effect This worm's current HP is increased with the numeral of the given amount
+	 * 		| this.increaseCurrentHP(amount.getNumeral())
 	 */
 	public void increaseCurrentHP(Points amount)throws IllegalArgumentException{
-		if ((amount.getNumeral() >= 0) &&(getCurrentHP().getNumeral() + amount.getNumeral() > this.getMaxPoints())){
-			this.setCurrentHP(new Points(getMaxPoints(),SortPoints.HP));
+		this.increaseCurrentHP(amount.getNumeral());
+	}
+	
+	/**
+	 * increases the current HP of the worm with the given numeral
+	 * @param numeral
+	 * 		the numeral of the hit points that has to be added to this worm's current HP
+	 * @effect This worm's new current HP is set to the sum of this worms old current HP incremented with the given numeral
+	 * 			if that sum does not exceed the maximum allowed points and the numeral is non-negative
+	 * 		| this.setCurrentHP(this.getCurrentHPNumeral() + numeral);
+	 *			if that sum does exceed the maximum allowed points and the numeral is non-negative
+	 *		| this.setCurrentHP(getMaxPoints())
+	 */
+	public void increaseCurrentHP(int numeral){
+		if ((numeral >= 0) && ((long) getCurrentHPNumeral() + numeral > this.getMaxPoints())){
+			this.setCurrentHP(getMaxPoints());
 		}
-		else if (amount.getNumeral() >=0 ){
-			this.setCurrentHP(this.getCurrentHP().add(amount));
+		else if (numeral >= 0){
+			this.setCurrentHP(getCurrentHPNumeral() + numeral);
 		}
 	}
 	
@@ -926,38 +1203,39 @@ public class Worm extends MovingObjects{
 	 * 		|new.getCurrentHP().getPoints == this.getCurrentHP().getPoints()+10 
 	 */
 	protected void raiseHPNewTurn(){
-		increaseCurrentHP(Points.HPNEWTURN);
+		increaseCurrentHP(Points.HPNEWTURN.getNumeral());
 		
 	}
 	
 	/**
-	 * set the currentHP to a given value
-	 * @param points
-	 * 		the new value for the currentHP
-	 * @post the new current HP of this worm equals the given points
-	 * 		| new.getCurrentHP().isEqualTo(points) == true
-	 * @post if the current value of HP is smaller than the given value of points then the new current HP is zero
-	 * 		|new.CurrentHP = new Points(0,SortPoints.HP)
+	 * set the numeral of the currentHP to a given value
+	 * @param numeral
+	 * 		the new numeral for the currentHP
+	 * @post the new current HP of this worm equals the given numeral
+	 * 		| new.getCurrentHPNumeral() == numeral
 	 * @effect if this worm is not the current worm in this worm's world and its new HP is zero then this worm is termintated and
 	 * 			the teamless worms of this worm's world are set.
-	 * 		| if ((this.getCurrentHP().getNumeral() == 0) &&  (this.getWorld().getCurrentWorm() != this))
+	 * 		| if ((this.getCurrentHPNumeral() == 0) &&  (this.getWorld().getCurrentWorm() != this))
 	 * 		| 	then this.Terminate() && this.getWorld().setTeamlessWorms()
 	 * @effect if this worm is the current worm in this worm's world and its new HP is zero then this worm's AP is set to zero.
-	 * 		| if ((this.getCurrentHP().getNumeral() == 0) &&  (this.getWorld().getCurrentWorm() == this))
-	 * 		| 	then this.setCurrentAP(new Points(0,SortPoints.AP))
-	 */
-	private void setCurrentHP(Points points){
-		if (this.getCurrentHP().isSmallerThan(points))
-			this.CurrentHP = new Points(0,SortPoints.HP);
-		this.CurrentHP = points;
-		if (this.getCurrentHP().getNumeral() == 0){
+	 * 		| if ((this.getCurrentHPNumeral() == 0) &&  (this.getWorld().getCurrentWorm() == this))
+	 * 		| 	then this.setCurrentAP(0)
+	 * @throws IllegalArgumentException
+	 * 		the given numeral is not a valid numeral for points
+	 * 		| ! Points.isValidNumeral(numeral)
+	 */
+	private void setCurrentHP(int numeral) throws IllegalArgumentException{
+		if (! Points.isValidNumeral(numeral))
+			throw new IllegalArgumentException("not valid points");
+		this.CurrentHP = numeral;
+		if (this.getCurrentHPNumeral() == 0){
 			if (this.getWorld().getCurrentWorm() != this){
 				World formerWorld = this.getWorld();
 				this.Terminate();
 				formerWorld.setTeamlessWorms();
 			}
 			else {
-				this.setCurrentAP(new Points(0,SortPoints.AP));
+				this.setCurrentAP(0);
 			}
 		}
 			
@@ -969,9 +1247,9 @@ public class Worm extends MovingObjects{
 	
 	
 	/**
-	 * the number of Hit Points a worm has
+	 * the numeral of the Hit Points a worm has
 	 */
-	private Points CurrentHP = new Points(0,SortPoints.HP);
+	private int CurrentHP = 0;
 	
 	
 	
@@ -1165,7 +1443,7 @@ public class Worm extends MovingObjects{
 	 * 			then the new position of this Worm equals the position after a jump from the current position in the direction this worm is facing
 	 * 		|if ((getCurrentAP().getNumeral() !=0 ))
 	 * 		|	if (time > 0)
-	 * 		| 		then setPosition(jumpStep(jumpTime()))
+	 * 		| 		then setPosition(jumpStep(adaptiveJumpTime(timeStep)))
 	 * @effect if the AP of the worm is bigger than zero and the calculated Jumptime for this worm is bigger than zero
 	 *			then overlapping food in searched 
 	 *		|if ((getCurrentAP().getNumeral() !=0 ))
@@ -1187,13 +1465,13 @@ public class Worm extends MovingObjects{
 	 * 			then the current AP will be set to zero
 	 * 		|if ((getCurrentAP().getNumeral() !=0 ))
 	 * 		|	if (time > 0)
-	 * 		|		this.setCurrentAP(new Points(0,SortPoints.AP)) 			
+	 * 		|		this.setCurrentAP(0) 			
 	 */
 	public void jump(double timeStep) throws IllegalJumpTimeException, IllegalPositionException{	
 		
-		if (getCurrentAP().getNumeral() !=0 ){
+		if (getCurrentAPNumeral() !=0 ){
 			
-			double time = jumpTime(timeStep);
+			double time = adaptiveJumpTime(timeStep);
 			
 			if (time > 0){
 			
@@ -1210,7 +1488,7 @@ public class Worm extends MovingObjects{
 				if (this.canFall())
 					this.fall(this.getPosition());
 					
-				this.setCurrentAP(new Points(0,SortPoints.AP));	
+				this.setCurrentAP(0);	
 			}
 			}
 	}
@@ -1590,7 +1868,7 @@ public class Worm extends MovingObjects{
 	 */
 	@Override
 	public double calculateForce() {
-		return (5*this.getCurrentAP().getNumeral() + this.getMass()*g);
+		return (5*this.getCurrentAPNumeral() + this.getMass()*g);
 		
 	}
 	
@@ -1689,19 +1967,32 @@ public class Worm extends MovingObjects{
 	 * 		
 	 */
 	private void setOverlapsFood(Position position){
-		List<Food> foods = this.getWorld().getAllFood();
-		boolean overlaps = false;
+		this.setOverlappingFood(this.findOverlappingFood(position, this.getRadius(), new ArrayList<Food>()));
+	}
+
+	/**
+	 * Returns the food with which this worm would overlap at the given position, if it had the given radius, ignoring the given food.
+	 * @param position
+	 * 		position of the worm
+	 * @param radius
+	 * 		radius of the worm
+	 * @param ignored
+	 * 		the food to ignore
+	 * @return The last food in getAllFood() that is not ignored and for which the distance to the given position
+	 * 			is smaller than the sum of the given radius and the radius of the food, null if there is none.
+	 * 		| if (result != null)
+	 * 		|	then (! ignored.contains(result)) && (result.getPosition().calculateDistance(position) <= result.getRadius()+radius)
+	 */
+	private Food findOverlappingFood(Position position, double radius, List<Food> ignored){
+		List<Food> foods = this.getWorld().getGameObjectsNear(Food.class, position.getX(), position.getY(), radius);
+		Food result = null;
 		for (Food food: foods){
 			
-			if (position.calculateDistance(food.getPosition()) <= food.getRadius()+this.getRadius()){
-				this.setOverlappingFood(food);
-				overlaps = true;
+			if ((position.calculateDistance(food.getPosition()) <= food.getRadius()+radius) && (! ignored.contains(food))){
+				result = food;
 			}
 		}
-		if (overlaps == false){
-			this.setOverlappingFood(null);
-		}
-		
+		return result;
 	}
 	
 	/**
@@ -1724,6 +2015,97 @@ public class Worm extends MovingObjects{
 
 	
 	
+// memento
+
+	/**
+	 * Returns a memento holding the current state of this worm.
+	 * @return A memento that also restores the points, name, team, weapons and overlapping food of this worm.
+	 */
+	@Override @Model
+	Memento createMemento(){
+		return new Memento(this);
+	}
+
+	/**
+	 * Restores the state held by the given memento of this worm.
+	 * 	The team of the worm restores its own list of worms.
+	 * @effect The state of this moving object is restored.
+	 * 		| super.restoreMemento(memento)
+	 * @post The points, name, terrain angle, team, weapons, active weapon and overlapping food of this worm
+	 * 		equal those at the creation of the given memento.
+	 */
+	@Override @Model
+	void restoreMemento(GameObjects.Memento memento){
+		super.restoreMemento(memento);
+		Memento state = (Memento) memento;
+		this.MaxPoints = state.maxPoints;
+		this.CurrentAP = state.currentAP;
+		this.CurrentHP = state.currentHP;
+		this.name = state.name;
+		this.terrainAngle = state.terrainAngle;
+		this.team = state.team;
+		this.weapons.clear();
+		this.weapons.addAll(Arrays.asList(state.weapons));
+		this.activeWeaponIndex = state.activeWeaponIndex;
+		this.overlappingFood = state.overlappingFood;
+	}
+
+	/**
+	 * A class of mementos holding the state of a worm.
+	 */
+	static class Memento extends MovingObjects.Memento {
+
+		/**
+		 * Initialize this new memento with the current state of the given worm.
+		 */
+		Memento(Worm worm){
+			super(worm);
+			this.maxPoints = worm.MaxPoints;
+			this.currentAP = worm.CurrentAP;
+			this.currentHP = worm.CurrentHP;
+			this.name = worm.name;
+			this.terrainAngle = worm.terrainAngle;
+			this.team = worm.team;
+			this.weapons = worm.weapons.toArray(new Weapon[worm.weapons.size()]);
+			this.activeWeaponIndex = worm.activeWeaponIndex;
+			this.overlappingFood = worm.overlappingFood;
+		}
+
+		/**
+		 * Initialize this new memento with the current state of the given worm as a game object, and the given state as a worm.
+		 */
+		Memento(Worm worm, double mass, double direction, int maxPoints, int currentAP, int currentHP, String name,
+				double terrainAngle, Team team, Weapon[] weapons, int activeWeaponIndex, Food overlappingFood){
+			super(worm, mass, direction);
+			this.maxPoints = maxPoints;
+			this.currentAP = currentAP;
+			this.currentHP = currentHP;
+			this.name = name;
+			this.terrainAngle = terrainAngle;
+			this.team = team;
+			this.weapons = weapons.clone();
+			this.activeWeaponIndex = activeWeaponIndex;
+			this.overlappingFood = overlappingFood;
+		}
+
+		/**
+		 * Returns the terrain angle of the worm of this memento.
+		 */
+		@Basic
+		double getTerrainAngle(){
+			return this.terrainAngle;
+		}
+
+		private final int maxPoints;
+		private final int currentAP;
+		private final int currentHP;
+		private final String name;
+		private final double terrainAngle;
+		private final Team team;
+		private final Weapon[] weapons;
+		private final int activeWeaponIndex;
+		private final Food overlappingFood;
+	}
 }
 	
 		
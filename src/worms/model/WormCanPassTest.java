@@ -0,0 +1,149 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.position.Position;
+
+public class WormCanPassTest {
+
+	private static final double[] RADII = {0.25, 0.6};
+	private static final double[] DIRECTIONS = {0, 0.4, Math.PI/2, 2.5, Math.PI, -1.0, 5.4};
+
+	@Before
+	public void setUp() throws Exception {
+		boolean[][] passableMap = new boolean[60][240];
+		for (int row = 0; row < 60; row++){
+			for (int column = 0; column < 240; column++){
+				passableMap[row][column] = (row < 45);
+			}
+		}
+		// a thin spike, a single cell and an overhang
+		for (int row = 25; row < 45; row++){
+			passableMap[row][60] = false;
+		}
+		passableMap[40][120] = false;
+		for (int column = 170; column < 200; column++){
+			passableMap[20][column] = false;
+			passableMap[21][column] = false;
+		}
+		// a thin diagonal
+		for (int row = 30; row < 45; row++){
+			passableMap[row][210 + 44 - row] = false;
+		}
+		world = new World(24, 6, passableMap, new Random(7357));
+	}
+	private World world;
+
+	private static double[] getCandidateDirections(double direction){
+		int nbIndexes = 0;
+		while (direction - nbIndexes*0.0175 > direction - 0.7875){
+			nbIndexes += 1;
+		}
+		double[] directions = new double[2*nbIndexes];
+		for (int index = 0; index < nbIndexes; index++){
+			directions[2*index] = direction + index*0.0175;
+			directions[2*index + 1] = direction - index*0.0175;
+		}
+		return directions;
+	}
+
+	@Test
+	public void testWormCanPass_SameAsPerDirection(){
+		for (double radius: RADII){
+			for (double direction: DIRECTIONS){
+				double[] directions = getCandidateDirections(direction);
+				for (double x = 1; x < 23; x += 0.37){
+					for (double y = 1.6; y < 5.2; y += 0.29){
+						double[] all = world.wormCanPass(radius, radius, directions, x, y, false);
+						double[] untilPassable = world.wormCanPass(radius, radius, directions, x, y, true);
+						boolean passed = false;
+						for (int k = 0; k < directions.length; k++){
+							double expected = world.wormCanPass(radius, radius, directions[k], x, y);
+							assertEquals(expected, all[k], 0);
+							assertEquals(passed ? 0 : expected, untilPassable[k], 0);
+							passed = passed || (expected > 0);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWormCanPass_SameWithSharedBlockingCells(){
+		int[] blockingCells = {-1, -1};
+		for (double radius: RADII){
+			for (double direction: DIRECTIONS){
+				double[] directions = getCandidateDirections(direction);
+				for (double x = 1; x < 23; x += 0.37){
+					for (double y = 1.6; y < 5.2; y += 0.29){
+						assertArrayEquals(world.wormCanPass(radius, radius, directions, x, y, true),
+								world.wormCanPass(radius, radius, directions, x, y, true, blockingCells), 0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testStep_SameAsPerDirection(){
+		int nbSteps = 0;
+		for (double radius: RADII){
+			for (double direction: DIRECTIONS){
+				for (double x = 1; x < 23; x += 0.37){
+					for (double y = 1.6; y < 5.2; y += 0.29){
+						if (! world.isPassableForCircle(radius, radius, new Position(x, y))){
+							continue;
+						}
+						Worm worm = new Worm("Worm", radius, x, y, direction, world);
+						// the search of the step, one direction at a time
+						double biggestDistance = 0;
+						double bestAngle = direction;
+						boolean found = false;
+						for (int index = 0; (direction - index*0.0175 > direction - 0.7875) && (! found); index++){
+							double distance1 = world.wormCanPass(radius, radius, direction + index*0.0175, x, y);
+							if (distance1 > biggestDistance){
+								biggestDistance = distance1;
+								bestAngle = direction + index*0.0175;
+								found = true;
+							}
+							double distance2 = world.wormCanPass(radius, radius, direction - index*0.0175, x, y);
+							if ((! found) && (distance2 > biggestDistance)){
+								biggestDistance = distance1;
+								bestAngle = direction - index*0.0175;
+								found = true;
+							}
+						}
+						worm.step(direction);
+						if (biggestDistance != 0){
+							nbSteps++;
+							assertEquals(x + biggestDistance*Math.cos(bestAngle), worm.getX(), 0);
+							assertEquals(y + biggestDistance*Math.sin(bestAngle), worm.getY(), 0);
+						}
+						else {
+							assertEquals(x, worm.getX(), 0);
+							assertEquals(y, worm.getY(), 0);
+						}
+						world.removeGameObject(worm);
+					}
+				}
+			}
+		}
+		assertTrue(nbSteps > 0);
+	}
+
+	@Test
+	public void testWormCanPass_ThinObstacles(){
+		// the spike and the single cell block a worm right in front of them
+		assertEquals(0, world.wormCanPass(0.25, 0.25, new double[] {0}, 5.8, 2.5, false)[0], 0);
+		assertEquals(0, world.wormCanPass(0.25, 0.25, new double[] {0}, 11.8, 2.05, false)[0], 0);
+		double[] distances = world.wormCanPass(0.25, 0.25, new double[] {0, Math.PI}, 5.8, 2.5, true);
+		assertEquals(0, distances[0], 0);
+		assertTrue(distances[1] > 0);
+	}
+}
@@ -47,7 +47,48 @@ public class Points implements Comparable<Points>{
 	}
 	
 	
-	public final static Points HPNEWTURN = new Points(10,SortPoints.HP);
+	/**
+	 * Returns points with the given numeral and the given sort.
+	 * 	Points with a numeral below the cache size are shared, other points are created anew.
+	 * @param numeral
+	 * 		The amount of points.
+	 * @param sort
+	 * 		The sort of points.
+	 * @return Points with the given numeral and the given sort.
+	 * 		| result.equals(new Points(numeral,sort))
+	 * @return The same points for every call with a numeral below the cache size and the same sort.
+	 * 		| if ((numeral >= 0) && (numeral < CACHE_SIZE))
+	 * 		|	then result == valueOf(numeral,sort)
+	 * @throws IllegalArgumentException
+	 * 		The sort is not valid or the numeral is not valid.
+	 * 		| (! isValidSort(sort)) || (! isValidNumeral(numeral))
+	 */
+	public static Points valueOf(int numeral, SortPoints sort) throws IllegalArgumentException{
+		if ((sort != null) && (numeral >= 0) && (numeral < CACHE_SIZE)){
+			return cache[sort.ordinal()][numeral];
+		}
+		return new Points(numeral,sort);
+	}
+
+	/**
+	 * The number of shared points for every sort, numerals 0 up to (and not including) the cache size are shared.
+	 */
+	public final static int CACHE_SIZE = 4096;
+
+	/**
+	 * The shared points, per sort, indexed by their numeral.
+	 */
+	private final static Points[][] cache = new Points[SortPoints.values().length][CACHE_SIZE];
+
+	static {
+		for (SortPoints sort: SortPoints.values()){
+			for (int numeral = 0; numeral < CACHE_SIZE; numeral++){
+				cache[sort.ordinal()][numeral] = new Points(numeral,sort);
+			}
+		}
+	}
+
+	public final static Points HPNEWTURN = valueOf(10,SortPoints.HP);
 	
 	
 	
@@ -121,7 +162,7 @@ public class Points implements Comparable<Points>{
 	 * @return The resulting points has the same sort.
 	 * 		| result.getSort() == this.getSort()
 	 * @return The numeral of the resulting points equals the sum of the numerals of both points.
-	 * 		| result = new Points(sum,this.getSort())
+	 * 		| result = valueOf(sum,this.getSort())
 	 * @throws IllegalArgumentException
 	 * 		The sort of points of other does not equal the sort of points of this or other is not a valid points
 	 * 		|if (((this.getSort() != points.getSort()) && isValidPoint(other)
@@ -132,7 +173,7 @@ public class Points implements Comparable<Points>{
 			throw new IllegalArgumentException("the sort of points has to be the same");
 		
 		int sum = other.getNumeral() + this.getNumeral();
-		return new Points(sum,this.getSort());
+		return valueOf(sum,this.getSort());
 	}
 	
 	/**
@@ -141,7 +182,7 @@ public class Points implements Comparable<Points>{
 	 * 		The points to subtract.
 	 * @return If the sort of other equals the sort of this, the resulting numeral will equal
 	 * 			the numeral of this decremented by the numeral of other. 
-	 * 		|result = new Points(difference,this.getSort());
+	 * 		|result = valueOf(difference,this.getSort());
 	 * @throws IllegalArgumentException
 	 		The sort of points of other does not equal the sort of points of this or other is not valid points. 
 	 * 		|if (((this.getSort() != points.getSort()) && isValidPoint(points)
@@ -154,9 +195,9 @@ public class Points implements Comparable<Points>{
 		int difference = this.getNumeral() - points.getNumeral();
 		
 		if (difference < 0)
-			return new Points (0,this.sort);
+			return valueOf(0,this.sort);
 		
-		return new Points(difference,this.getSort());
+		return valueOf(difference,this.getSort());
 	}
 	/**
 	 * Checks if there are enough points left.
@@ -88,5 +88,26 @@ public class PointsTest {
 		assertFalse(AP15.isEqualTo(AP12));
 	}
 	
+	@Test
+	public void testValueOf_Shared(){
+		assertSame(Points.valueOf(12,SortPoints.AP), Points.valueOf(12,SortPoints.AP));
+		assertSame(Points.valueOf(27,SortPoints.AP), AP12.add(AP15));
+		assertSame(Points.valueOf(0,SortPoints.AP), AP12.substract(AP15));
+		assertEquals(AP12, Points.valueOf(12,SortPoints.AP));
+		assertFalse(Points.valueOf(12,SortPoints.AP).equals(Points.valueOf(12,SortPoints.HP)));
+	}
+	
+	@Test
+	public void testValueOf_OutsideCache(){
+		Points large = Points.valueOf(Points.CACHE_SIZE,SortPoints.HP);
+		assertEquals(Points.CACHE_SIZE, large.getNumeral());
+		assertEquals(SortPoints.HP, large.getSort());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testValueOf_IllegalCase(){
+		Points.valueOf(-1,SortPoints.AP);
+	}
+	
 	
 }
@@ -1,6 +1,5 @@
 package worms.model.position;
 
-import java.math.BigDecimal;
 import worms.exceptions.*;
 import be.kuleuven.cs.som.annotate.*;
 
@@ -62,7 +61,7 @@ public class Position implements Comparable<Position> {
 	 * 		| result = ((x >= getMinX()) && (x <= getMaxX()))
 	 */
 	@Raw
-	public static boolean isValidX(Double x){
+	public static boolean isValidX(double x){
 		return ((x >= getMinX()) && (x <= getMaxX())); 
 	}
 
@@ -75,7 +74,7 @@ public class Position implements Comparable<Position> {
 	 * Returns the maximum allowed value for an x-coordinate.
 	 */
 	@Basic @Raw @Immutable
-	private static Double getMaxX() {
+	private static double getMaxX() {
 		return maxX;
 	}
 	
@@ -88,7 +87,7 @@ public class Position implements Comparable<Position> {
 	 * Returns the minimum allowed value for an x-coordinate.
 	 */
 	@Basic @Raw @Immutable
-	private static Double getMinX() {
+	private static double getMinX() {
 		return minX;
 	}
 	
@@ -119,7 +118,7 @@ public class Position implements Comparable<Position> {
 	  */
 	
 	@Raw
-	public static boolean isValidY(Double y){
+	public static boolean isValidY(double y){
 		return ((y>=getMinY()) && (y<=getMaxY()));
 		
 	}
@@ -134,7 +133,7 @@ public class Position implements Comparable<Position> {
 	 * Returns the maximum allowed value for an y-coordinate.
 	 */
 	@Basic @Raw @Immutable 
-	private static Double getMaxY() {
+	private static double getMaxY() {
 		return maxY;
 	}
 	
@@ -147,7 +146,7 @@ public class Position implements Comparable<Position> {
 	 * Returns the minimum allowed value for an y-coordinate.
 	 */
 	@Basic @Raw @Immutable
-	private static Double getMinY() {
+	private static double getMinY() {
 		return minY;
 	}
 	
@@ -287,20 +286,38 @@ public class Position implements Comparable<Position> {
 	
 	
 	/**
-	 * Return the hash code for this position
+	 * Return the hash code for this position.
+	 * 	The bits of both coordinates are combined and mixed, so that nearby positions end up in different buckets.
+	 * @return The same hash code for positions that are equal.
+	 * 		| for each other in Position:
+	 * 		|	if (this.equals(other))
+	 * 		|		then result == other.hashCode()
 	 */
 	@Override
 	public int hashCode(){
-		BigDecimal bigX = BigDecimal.valueOf(getX());
-		BigDecimal bigY = BigDecimal.valueOf(getY());
-		BigDecimal multiplicatorX = BigDecimal.valueOf(464556.812);
-		BigDecimal multiplicatorY = BigDecimal.valueOf(77894.45);
-		BigDecimal maxInt = BigDecimal.valueOf(Integer.MAX_VALUE);
-		
-		BigDecimal afterOperation = (bigY.multiply(multiplicatorY).add(bigX.multiply(multiplicatorX)));
-		BigDecimal afterModulo = afterOperation.remainder(maxInt);
-		int hashCode = afterModulo.intValue();
-		return hashCode;
+		long bits = coordinateBits(getX()) ^ Long.rotateLeft(coordinateBits(getY()), 32);
+		bits = (bits ^ (bits >>> 33)) * 0xff51afd7ed558ccdL;
+		bits = (bits ^ (bits >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		bits = bits ^ (bits >>> 33);
+		return (int) (bits ^ (bits >>> 32));
+	}
+
+	/**
+	 * Returns the bits of the given coordinate, with both zeros mapped to the same bits.
+	 * @param coordinate
+	 * 		The coordinate to convert.
+	 * @return The bits of positive zero if the given coordinate equals zero, the bits of the given coordinate otherwise.
+	 * 		| if (coordinate == 0)
+	 * 		|	then result == Double.doubleToLongBits(0.0)
+	 * 		| else result == Double.doubleToLongBits(coordinate)
+	 * @note -0.0 and 0.0 are equal coordinates, but have different bits.
+	 */
+	@Model
+	private static long coordinateBits(double coordinate){
+		if (coordinate == 0){
+			return Double.doubleToLongBits(0.0);
+		}
+		return Double.doubleToLongBits(coordinate);
 	}
 	
 	
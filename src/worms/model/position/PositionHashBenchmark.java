@@ -0,0 +1,140 @@
+package worms.model.position;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class to time the hash code of positions, compared with the hash code positions had before, built from BigDecimals.
+ * 	Both hash codes are used to fill and probe a HashMap with the positions of a grid.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class PositionHashBenchmark {
+
+	/**
+	 * Returns the hash code positions had before, built from BigDecimals, for the given position.
+	 */
+	@Model
+	static int getBigDecimalHashCode(Position position){
+		BigDecimal bigX = BigDecimal.valueOf(position.getX());
+		BigDecimal bigY = BigDecimal.valueOf(position.getY());
+		BigDecimal multiplicatorX = BigDecimal.valueOf(464556.812);
+		BigDecimal multiplicatorY = BigDecimal.valueOf(77894.45);
+		BigDecimal maxInt = BigDecimal.valueOf(Integer.MAX_VALUE);
+
+		BigDecimal afterOperation = (bigY.multiply(multiplicatorY).add(bigX.multiply(multiplicatorX)));
+		BigDecimal afterModulo = afterOperation.remainder(maxInt);
+		return afterModulo.intValue();
+	}
+
+	/**
+	 * A class of keys that compare like their position, but hash like positions did before.
+	 */
+	private static class BigDecimalKey {
+
+		private BigDecimalKey(Position position){
+			this.position = position;
+		}
+
+		private final Position position;
+
+		@Override
+		public boolean equals(Object other){
+			return (other instanceof BigDecimalKey) && position.equals(((BigDecimalKey) other).position);
+		}
+
+		@Override
+		public int hashCode(){
+			return getBigDecimalHashCode(position);
+		}
+	}
+
+	/**
+	 * Returns the positions of a square grid with the given number of positions per side and the given spacing.
+	 */
+	@Model
+	private static Position[] getGrid(int side, double spacing){
+		Position[] grid = new Position[side * side];
+		for (int row = 0; row < side; row++){
+			for (int column = 0; column < side; column++){
+				grid[row * side + column] = new Position(column * spacing, row * spacing);
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Fills a map with the given keys and probes it for every key, and returns the elapsed time in nanoseconds.
+	 */
+	@Model
+	private static long fillAndProbe(Object[] keys){
+		long start = System.nanoTime();
+		Map<Object, Integer> map = new HashMap<Object, Integer>();
+		for (int i = 0; i < keys.length; i++){
+			map.put(keys[i], i);
+		}
+		int nbFound = 0;
+		for (Object key: keys){
+			if (map.get(key) != null){
+				nbFound++;
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		if (nbFound != keys.length){
+			System.err.println("only " + nbFound + " of " + keys.length + " keys found");
+			System.exit(1);
+		}
+		return elapsed;
+	}
+
+	public static void main(String[] args){
+		int side = 1000;
+		double spacing = 0.25;
+		int nbRounds = 3;
+		for (int i = 0; i < args.length; i++){
+			String arg = args[i];
+			if ("-side".equals(arg)){
+				side = Integer.parseInt(args[++i]);
+			} else if ("-spacing".equals(arg)){
+				spacing = Double.parseDouble(args[++i]);
+			} else if ("-rounds".equals(arg)){
+				nbRounds = Integer.parseInt(args[++i]);
+			}
+		}
+		Position[] grid = getGrid(side, spacing);
+		BigDecimalKey[] oldKeys = new BigDecimalKey[grid.length];
+		for (int i = 0; i < grid.length; i++){
+			oldKeys[i] = new BigDecimalKey(grid[i]);
+		}
+		System.out.println(grid.length + " positions, spacing " + spacing);
+		// the first round warms up the virtual machine and is not reported
+		for (int round = 0; round <= nbRounds; round++){
+			long start = System.nanoTime();
+			// the sums keep the virtual machine from skipping the hash codes
+			int oldSum = 0;
+			for (Position position: grid){
+				oldSum += getBigDecimalHashCode(position);
+			}
+			long oldHashNanos = System.nanoTime() - start;
+			start = System.nanoTime();
+			int newSum = 0;
+			for (Position position: grid){
+				newSum += position.hashCode();
+			}
+			long newHashNanos = System.nanoTime() - start;
+			long oldMapNanos = fillAndProbe(oldKeys);
+			long newMapNanos = fillAndProbe(grid);
+			if (round > 0){
+				System.out.println("round " + round + ": hash "
+						+ String.format("%.1f", (double) oldHashNanos / grid.length) + " ns before, "
+						+ String.format("%.1f", (double) newHashNanos / grid.length) + " ns after; map "
+						+ String.format("%.3f", oldMapNanos / 1e9) + " s before, "
+						+ String.format("%.3f", newMapNanos / 1e9) + " s after"
+						+ ", checksum " + (oldSum ^ newSum));
+			}
+		}
+	}
+}
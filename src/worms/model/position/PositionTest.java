@@ -0,0 +1,52 @@
+package worms.model.position;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PositionTest {
+
+	@Before
+	public void setUp() throws Exception {
+		position = new Position(1.5,-2.25);
+	}
+	private Position position;
+
+	@Test
+	public void testHashCode_EqualPositions(){
+		Position other = new Position(1.5,-2.25);
+		assertEquals(position, other);
+		assertEquals(position.hashCode(), other.hashCode());
+	}
+
+	@Test
+	public void testHashCode_SignedZero(){
+		Position zero = new Position(0.0,0.0);
+		Position negativeZero = new Position(-0.0,-0.0);
+		assertEquals(zero, negativeZero);
+		assertEquals(zero.hashCode(), negativeZero.hashCode());
+	}
+
+	@Test
+	public void testHashCode_SwappedCoordinates(){
+		assertFalse(position.hashCode() == new Position(-2.25,1.5).hashCode());
+	}
+
+	@Test
+	public void testHashSet(){
+		Set<Position> positions = new HashSet<Position>();
+		for (int i = 0; i < 100; i++){
+			for (int j = 0; j < 100; j++){
+				positions.add(new Position(i*0.5, j*0.25));
+			}
+		}
+		assertEquals(10000, positions.size());
+		assertTrue(positions.contains(new Position(2.5, 1.25)));
+		assertTrue(positions.contains(new Position(-0.0, 0.0)));
+		assertFalse(positions.contains(new Position(50.0, 0.0)));
+	}
+}
@@ -0,0 +1,391 @@
+package worms.model.spatial;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of spatial hashes indexing circular elements by the square cells of a uniform grid their bounding box covers.
+ * 	Only cells that are covered by at least one element are stored, so the grid has no bounds.
+ * 	Elements covering more than MAX_CELLS_PER_ELEMENT cells are kept apart and returned by every query.
+ * 	Queries return the elements in the order in which they were added to this spatial hash.
+ * @invar The cell size of this spatial hash is positive and finite.
+ * 		| (getCellSize() > 0) && (getCellSize() < Double.POSITIVE_INFINITY)
+ * @param <T>
+ * 		The type of the elements of this spatial hash, elements are compared by identity.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class SpatialHash<T> {
+
+	/**
+	 * Initialize this new spatial hash with cells of the given size and without elements.
+	 * @param cellSize
+	 * 		The width and height of a single cell (in meters).
+	 * @post The cell size of this new spatial hash is the given cell size.
+	 * 		| new.getCellSize() == cellSize
+	 * @post This new spatial hash has no elements.
+	 * 		| new.getNbElements() == 0
+	 * @throws IllegalArgumentException
+	 * 		The given cell size is not positive or not finite.
+	 * 		| (! (cellSize > 0)) || (cellSize == Double.POSITIVE_INFINITY)
+	 */
+	public SpatialHash(double cellSize) throws IllegalArgumentException{
+		if ((! (cellSize > 0)) || (cellSize == Double.POSITIVE_INFINITY)){
+			throw new IllegalArgumentException("invalid cell size");
+		}
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * The largest number of cells in which a single element is registered.
+	 */
+	public static final int MAX_CELLS_PER_ELEMENT = 64;
+
+	/**
+	 * The distance by which every query is widened to absorb rounding errors.
+	 */
+	public static final double MARGIN = 1e-6;
+
+	/**
+	 * Returns the width and height of a single cell of this spatial hash (in meters).
+	 */
+	@Basic @Immutable
+	public double getCellSize(){
+		return this.cellSize;
+	}
+
+	/**
+	 * The width and height of a single cell of this spatial hash.
+	 */
+	private final double cellSize;
+
+	/**
+	 * Returns the number of elements in this spatial hash.
+	 */
+	@Basic
+	public int getNbElements(){
+		return entries.size();
+	}
+
+	/**
+	 * Checks whether the given element is an element of this spatial hash.
+	 * @param element
+	 * 		The element to check.
+	 */
+	@Basic
+	public boolean hasAsElement(T element){
+		return entries.containsKey(element);
+	}
+
+	/**
+	 * Adds the given element with the given center and radius to this spatial hash.
+	 * @param element
+	 * 		The element to add.
+	 * @param x
+	 * 		The x-coordinate of the center of the element.
+	 * @param y
+	 * 		The y-coordinate of the center of the element.
+	 * @param radius
+	 * 		The radius of the element.
+	 * @post The given element is an element of this spatial hash, added after all other elements.
+	 * 		| new.hasAsElement(element)
+	 * @throws IllegalArgumentException
+	 * 		The given element is not effective or already an element of this spatial hash,
+	 * 		or the given circle is not valid.
+	 * 		| (element == null) || hasAsElement(element) || (! isValidCircle(x,y,radius))
+	 */
+	public void add(T element, double x, double y, double radius) throws IllegalArgumentException{
+		if ((element == null) || hasAsElement(element)){
+			throw new IllegalArgumentException("invalid element");
+		}
+		if (! isValidCircle(x, y, radius)){
+			throw new IllegalArgumentException("invalid circle");
+		}
+		Entry<T> entry = new Entry<T>(element, nextSequence);
+		nextSequence = nextSequence + 1;
+		entries.put(element, entry);
+		register(entry, x, y, radius);
+	}
+
+	/**
+	 * Moves the given element of this spatial hash to the given center and radius.
+	 * @param element
+	 * 		The element to move.
+	 * @param x
+	 * 		The new x-coordinate of the center of the element.
+	 * @param y
+	 * 		The new y-coordinate of the center of the element.
+	 * @param radius
+	 * 		The new radius of the element.
+	 * @post The order of the given element among the elements of this spatial hash does not change.
+	 * @throws IllegalArgumentException
+	 * 		The given element is not an element of this spatial hash, or the given circle is not valid.
+	 * 		| (! hasAsElement(element)) || (! isValidCircle(x,y,radius))
+	 */
+	public void update(T element, double x, double y, double radius) throws IllegalArgumentException{
+		Entry<T> entry = entries.get(element);
+		if (entry == null){
+			throw new IllegalArgumentException("not an element of this spatial hash");
+		}
+		if (! isValidCircle(x, y, radius)){
+			throw new IllegalArgumentException("invalid circle");
+		}
+		if ((! entry.isLarge) && (entry.minColumn == getColumn(x - radius)) && (entry.maxColumn == getColumn(x + radius))
+				&& (entry.minRow == getRow(y - radius)) && (entry.maxRow == getRow(y + radius))){
+			return;
+		}
+		unregister(entry);
+		register(entry, x, y, radius);
+	}
+
+	/**
+	 * Removes the given element from this spatial hash.
+	 * @param element
+	 * 		The element to remove.
+	 * @post The given element is no longer an element of this spatial hash.
+	 * 		| ! new.hasAsElement(element)
+	 * @throws IllegalArgumentException
+	 * 		The given element is not an element of this spatial hash.
+	 * 		| ! hasAsElement(element)
+	 */
+	public void remove(T element) throws IllegalArgumentException{
+		Entry<T> entry = entries.remove(element);
+		if (entry == null){
+			throw new IllegalArgumentException("not an element of this spatial hash");
+		}
+		unregister(entry);
+	}
+
+	/**
+	 * Returns the elements of this spatial hash that might lie within the given range of the given point.
+	 * @param x
+	 * 		The x-coordinate of the point.
+	 * @param y
+	 * 		The y-coordinate of the point.
+	 * @param range
+	 * 		The distance from the point within which elements are looked for.
+	 * @return A new list without duplicates, in the order in which the elements were added to this spatial hash,
+	 * 			that contains at least every element of which the circle lies within the given range of the given point.
+	 * 		| for each element with center (ex,ey) and radius r:
+	 * 		|	if (Math.sqrt((ex-x)*(ex-x) + (ey-y)*(ey-y)) <= r + range)
+	 * 		|		then result.contains(element)
+	 * @throws IllegalArgumentException
+	 * 		The given point and range do not form a valid circle.
+	 * 		| ! isValidCircle(x,y,range)
+	 */
+	public List<T> getElementsNear(double x, double y, double range) throws IllegalArgumentException{
+		if (! isValidCircle(x, y, range)){
+			throw new IllegalArgumentException("invalid circle");
+		}
+		double reach = range + MARGIN;
+		int minColumn = getColumn(x - reach);
+		int maxColumn = getColumn(x + reach);
+		int minRow = getRow(y - reach);
+		int maxRow = getRow(y + reach);
+		List<Entry<T>> found;
+		if ((long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1) > entries.size()){
+			found = new ArrayList<Entry<T>>(entries.values());
+		}
+		else {
+			found = new ArrayList<Entry<T>>(largeEntries);
+			for (int row = minRow; row <= maxRow; row++){
+				for (int column = minColumn; column <= maxColumn; column++){
+					List<Entry<T>> cell = cells.get(getKey(column, row));
+					if (cell != null){
+						found.addAll(cell);
+					}
+				}
+			}
+		}
+		if (found.size() > 1){
+			Collections.sort(found, ORDER);
+		}
+		List<T> result = new ArrayList<T>(found.size());
+		Entry<T> previous = null;
+		for (Entry<T> entry: found){
+			if (entry != previous){
+				result.add(entry.element);
+			}
+			previous = entry;
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether the given center and radius form a valid circle for this spatial hash.
+	 * @param x
+	 * 		The x-coordinate of the center.
+	 * @param y
+	 * 		The y-coordinate of the center.
+	 * @param radius
+	 * 		The radius of the circle.
+	 * @return True if and only if the given coordinates are numbers and not infinite and the given radius is not negative and not infinite.
+	 * 		| result == ((! Double.isNaN(x)) && (! Double.isInfinite(x)) && (! Double.isNaN(y)) && (! Double.isInfinite(y))
+	 * 		|	&& (radius >= 0) && (radius < Double.POSITIVE_INFINITY))
+	 */
+	public static boolean isValidCircle(double x, double y, double radius){
+		return ((! Double.isNaN(x)) && (! Double.isInfinite(x)) && (! Double.isNaN(y)) && (! Double.isInfinite(y))
+				&& (radius >= 0) && (radius < Double.POSITIVE_INFINITY));
+	}
+
+	/**
+	 * Registers the given entry in every cell the bounding box of the given circle covers.
+	 * @param entry
+	 * 		The entry to register.
+	 * @param x
+	 * 		The x-coordinate of the center.
+	 * @param y
+	 * 		The y-coordinate of the center.
+	 * @param radius
+	 * 		The radius of the circle.
+	 */
+	@Model
+	private void register(Entry<T> entry, double x, double y, double radius){
+		entry.minColumn = getColumn(x - radius);
+		entry.maxColumn = getColumn(x + radius);
+		entry.minRow = getRow(y - radius);
+		entry.maxRow = getRow(y + radius);
+		entry.isLarge = ((long) (entry.maxColumn - entry.minColumn + 1) * (entry.maxRow - entry.minRow + 1) > MAX_CELLS_PER_ELEMENT);
+		if (entry.isLarge){
+			largeEntries.add(entry);
+			return;
+		}
+		for (int row = entry.minRow; row <= entry.maxRow; row++){
+			for (int column = entry.minColumn; column <= entry.maxColumn; column++){
+				Long key = getKey(column, row);
+				List<Entry<T>> cell = cells.get(key);
+				if (cell == null){
+					cell = new ArrayList<Entry<T>>(2);
+					cells.put(key, cell);
+				}
+				cell.add(entry);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given entry from every cell it is registered in.
+	 * @param entry
+	 * 		The entry to unregister.
+	 */
+	@Model
+	private void unregister(Entry<T> entry){
+		if (entry.isLarge){
+			largeEntries.remove(entry);
+			return;
+		}
+		for (int row = entry.minRow; row <= entry.maxRow; row++){
+			for (int column = entry.minColumn; column <= entry.maxColumn; column++){
+				Long key = getKey(column, row);
+				List<Entry<T>> cell = cells.get(key);
+				cell.remove(entry);
+				if (cell.isEmpty()){
+					cells.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the column of the cells containing the given x-coordinate.
+	 * @param x
+	 * 		The x-coordinate.
+	 */
+	@Model
+	private int getColumn(double x){
+		return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, Math.floor(x / cellSize)));
+	}
+
+	/**
+	 * Returns the row of the cells containing the given y-coordinate.
+	 * @param y
+	 * 		The y-coordinate.
+	 */
+	@Model
+	private int getRow(double y){
+		return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, Math.floor(y / cellSize)));
+	}
+
+	/**
+	 * Returns the key of the cell with the given column and row.
+	 * @param column
+	 * 		The column of the cell.
+	 * @param row
+	 * 		The row of the cell.
+	 */
+	@Model
+	private static Long getKey(int column, int row){
+		return Long.valueOf((((long) column) << 32) | (row & 0xffffffffL));
+	}
+
+	/**
+	 * The entries of all elements of this spatial hash.
+	 */
+	private final Map<T, Entry<T>> entries = new IdentityHashMap<T, Entry<T>>();
+
+	/**
+	 * The entries registered in every covered cell, keyed by column and row.
+	 */
+	private final Map<Long, List<Entry<T>>> cells = new HashMap<Long, List<Entry<T>>>();
+
+	/**
+	 * The entries covering too many cells to be registered in them.
+	 */
+	private final List<Entry<T>> largeEntries = new ArrayList<Entry<T>>();
+
+	/**
+	 * The sequence number the next added element gets.
+	 */
+	private long nextSequence = 0;
+
+	/**
+	 * Orders entries by the moment their elements were added.
+	 */
+	private static final Comparator<Entry<?>> ORDER = new Comparator<Entry<?>>(){
+		@Override
+		public int compare(Entry<?> first, Entry<?> second){
+			return (first.sequence < second.sequence) ? -1 : ((first.sequence == second.sequence) ? 0 : 1);
+		}
+	};
+
+	/**
+	 * A class of entries holding an element of a spatial hash with the cells it is registered in.
+	 */
+	private static class Entry<T> {
+
+		/**
+		 * Initialize this new entry for the given element with the given sequence number.
+		 */
+		Entry(T element, long sequence){
+			this.element = element;
+			this.sequence = sequence;
+		}
+
+		/**
+		 * The element of this entry.
+		 */
+		final T element;
+
+		/**
+		 * The number giving the order in which the element of this entry was added.
+		 */
+		final long sequence;
+
+		/**
+		 * The bounds of the cells this entry is registered in.
+		 */
+		int minColumn, maxColumn, minRow, maxRow;
+
+		/**
+		 * Whether this entry covers too many cells to be registered in them.
+		 */
+		boolean isLarge;
+	}
+}
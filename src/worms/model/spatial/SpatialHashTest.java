@@ -0,0 +1,73 @@
+package worms.model.spatial;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpatialHashTest {
+
+	@Before
+	public void setUp() throws Exception {
+		hash = new SpatialHash<String>(1.0);
+		hash.add("first", 0.5, 0.5, 0.25);
+		hash.add("second", 5.5, 5.5, 0.25);
+		hash.add("third", 0.9, 0.4, 0.3);
+		hash.add("large", 20, 20, 10);
+	}
+	private SpatialHash<String> hash;
+
+	@Test
+	public void testGetElementsNear(){
+		assertEquals(Arrays.asList("first", "third", "large"), hash.getElementsNear(0.7, 0.5, 0.1));
+		assertEquals(Arrays.asList("second", "large"), hash.getElementsNear(5.5, 5.0, 0.2));
+	}
+
+	@Test
+	public void testGetElementsNear_AcrossCells(){
+		List<String> near = hash.getElementsNear(1.2, 0.5, 0.1);
+		assertTrue(near.contains("third"));
+		assertEquals(near.indexOf("third"), near.lastIndexOf("third"));
+	}
+
+	@Test
+	public void testGetElementsNear_WideRange(){
+		assertEquals(Arrays.asList("first", "second", "third", "large"), hash.getElementsNear(0, 0, 100));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testGetElementsNear_IllegalCase(){
+		hash.getElementsNear(0, Double.NaN, 1);
+	}
+
+	@Test
+	public void testUpdate(){
+		hash.update("first", 5.5, 4.5, 0.25);
+		assertEquals(Arrays.asList("first", "second", "large"), hash.getElementsNear(5.5, 5.0, 0.2));
+		assertFalse(hash.getElementsNear(0.5, 0.5, 0.1).contains("first"));
+	}
+
+	@Test
+	public void testRemove(){
+		hash.remove("third");
+		assertFalse(hash.hasAsElement("third"));
+		assertEquals(3, hash.getNbElements());
+		assertEquals(Arrays.asList("first", "large"), hash.getElementsNear(0.7, 0.5, 0.1));
+		hash.remove("large");
+		assertEquals(Collections.singletonList("first"), hash.getElementsNear(0.7, 0.5, 0.1));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testAdd_Duplicate(){
+		hash.add("first", 3, 3, 0.25);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testUpdate_NotAnElement(){
+		hash.update("fourth", 3, 3, 0.25);
+	}
+}
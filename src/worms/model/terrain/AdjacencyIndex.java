@@ -0,0 +1,263 @@
+package worms.model.terrain;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of adjacency indexes classifying the cells of a distance field for entities of a given radius.
+ * 	Radii are grouped in buckets as wide as the smallest cell dimension, every bucket holds one state per cell
+ * 	that is computed the first time a position in that cell is queried for a radius in that bucket.
+ * 	A cell is NEVER if no position in it can be adjacent for a radius in the bucket, because the terrain is out of reach
+ * 	or because the entity would overlap the terrain, CLEAR if every position in it leaves an entity of any radius in the bucket
+ * 	free from terrain, and CANDIDATE otherwise.
+ * @invar The reach factor of this adjacency index is at least 1.
+ * 		| getReachFactor() >= 1
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class AdjacencyIndex {
+
+	/**
+	 * Initialize this new adjacency index for the given distance field.
+	 * @param distanceField
+	 * 		The distance field to classify the cells of.
+	 * @param reachFactor
+	 * 		The factor by which the radius of an entity is multiplied to obtain the largest distance at which terrain counts as adjacent.
+	 * @param margin
+	 * 		The distance by which all classifications err on the safe side.
+	 * @post The distance field of this new adjacency index is the given distance field.
+	 * 		| new.getDistanceField() == distanceField
+	 * @post The reach factor of this new adjacency index is the given reach factor.
+	 * 		| new.getReachFactor() == reachFactor
+	 * @throws IllegalArgumentException
+	 * 		The given distance field is not effective, the given reach factor is smaller than 1 or the given margin is negative.
+	 * 		| (distanceField == null) || (! (reachFactor >= 1)) || (! (margin >= 0))
+	 */
+	public AdjacencyIndex(DistanceField distanceField, double reachFactor, double margin) throws IllegalArgumentException{
+		if ((distanceField == null) || (! (reachFactor >= 1)) || (! (margin >= 0))){
+			throw new IllegalArgumentException("invalid adjacency index");
+		}
+		this.distanceField = distanceField;
+		this.reachFactor = reachFactor;
+		this.margin = margin;
+		double cellWidth = distanceField.getCellWidth();
+		double cellHeight = distanceField.getCellHeight();
+		this.bucketWidth = Math.min(cellWidth, cellHeight);
+		this.cellDiagonal = Math.sqrt(cellWidth * cellWidth + cellHeight * cellHeight);
+	}
+
+	/**
+	 * State of a cell that has not been classified yet.
+	 */
+	public static final byte UNKNOWN = 0;
+
+	/**
+	 * State of a cell in which no position is adjacent.
+	 */
+	public static final byte NEVER = 1;
+
+	/**
+	 * State of a cell in which an entity is never blocked by terrain, but might be adjacent.
+	 */
+	public static final byte CLEAR = 2;
+
+	/**
+	 * State of a cell in which positions have to be checked one by one.
+	 */
+	public static final byte CANDIDATE = 3;
+
+	/**
+	 * The maximum number of radius buckets kept at the same time.
+	 */
+	public static final int MAX_BUCKETS = 4;
+
+	/**
+	 * Returns the distance field this adjacency index classifies the cells of.
+	 */
+	@Basic @Immutable
+	public DistanceField getDistanceField(){
+		return this.distanceField;
+	}
+
+	/**
+	 * The distance field this adjacency index classifies the cells of.
+	 */
+	private final DistanceField distanceField;
+
+	/**
+	 * Returns the factor by which the radius of an entity is multiplied to obtain the largest distance at which terrain counts as adjacent.
+	 */
+	@Basic @Immutable
+	public double getReachFactor(){
+		return this.reachFactor;
+	}
+
+	/**
+	 * The factor by which the radius of an entity is multiplied to obtain the largest adjacent distance.
+	 */
+	private final double reachFactor;
+
+	/**
+	 * The distance by which all classifications err on the safe side.
+	 */
+	private final double margin;
+
+	/**
+	 * The width of a bucket of radii.
+	 */
+	private final double bucketWidth;
+
+	/**
+	 * The length of the diagonal of a single cell.
+	 */
+	private final double cellDiagonal;
+
+	/**
+	 * Returns the state of the given cell for an entity with the given radius.
+	 * @param column
+	 * 		The column of the cell.
+	 * @param row
+	 * 		The row of the cell.
+	 * @param radius
+	 * 		The radius of the entity.
+	 * @return NEVER, CLEAR or CANDIDATE, the classification of the given cell for the bucket of the given radius.
+	 * @throws IndexOutOfBoundsException
+	 * 		The given indexes do not belong to a cell of the terrain.
+	 * 		| ! getDistanceField().getTerrain().isValidCell(column,row)
+	 * @throws IllegalArgumentException
+	 * 		The given radius is not positive.
+	 * 		| ! (radius > 0)
+	 */
+	public byte getState(int column, int row, double radius) throws IndexOutOfBoundsException, IllegalArgumentException{
+		if (! (radius > 0)){
+			throw new IllegalArgumentException("invalid radius");
+		}
+		TerrainGrid terrain = distanceField.getTerrain();
+		if (! terrain.isValidCell(column,row)){
+			throw new IndexOutOfBoundsException("cell (" + column + "," + row + ") not in terrain");
+		}
+		int bucket = (int) Math.min(Integer.MAX_VALUE - 1, Math.floor(radius / bucketWidth));
+		byte[] states = getStates(bucket, terrain.getNbRows() * terrain.getNbColumns());
+		int index = row * terrain.getNbColumns() + column;
+		byte state = states[index];
+		if (state == UNKNOWN){
+			state = classify(column, row, bucket * bucketWidth, (bucket + 1) * bucketWidth);
+			states[index] = state;
+		}
+		return state;
+	}
+
+	/**
+	 * Returns the states of all cells of the given row for an entity with the given radius.
+	 * @param row
+	 * 		The row of the cells.
+	 * @param radius
+	 * 		The radius of the entity.
+	 * @param states
+	 * 		The array to store the states in, one for every column.
+	 * @effect The state of every cell of the given row is stored in the given array.
+	 * 		| for each column in [0, ..., getDistanceField().getTerrain().getNbColumns()-1]:
+	 * 		|	states[column] == getState(column, row, radius)
+	 * @throws IndexOutOfBoundsException
+	 * 		The given row is not a row of the terrain, or the given array is shorter than a row.
+	 * 		| (row < 0) || (row >= getDistanceField().getTerrain().getNbRows())
+	 * 		| || (states.length < getDistanceField().getTerrain().getNbColumns())
+	 * @throws IllegalArgumentException
+	 * 		The given radius is not positive.
+	 * 		| ! (radius > 0)
+	 */
+	public void getRowStates(int row, double radius, byte[] states) throws IndexOutOfBoundsException, IllegalArgumentException{
+		if (! (radius > 0)){
+			throw new IllegalArgumentException("invalid radius");
+		}
+		TerrainGrid terrain = distanceField.getTerrain();
+		int nbColumns = terrain.getNbColumns();
+		if ((row < 0) || (row >= terrain.getNbRows()) || (states.length < nbColumns)){
+			throw new IndexOutOfBoundsException("row " + row + " not in terrain");
+		}
+		int bucket = (int) Math.min(Integer.MAX_VALUE - 1, Math.floor(radius / bucketWidth));
+		byte[] bucketStates = getStates(bucket, terrain.getNbRows() * nbColumns);
+		int offset = row * nbColumns;
+		for (int column = 0; column < nbColumns; column++){
+			byte state = bucketStates[offset + column];
+			if (state == UNKNOWN){
+				state = classify(column, row, bucket * bucketWidth, (bucket + 1) * bucketWidth);
+				bucketStates[offset + column] = state;
+			}
+			states[column] = state;
+		}
+	}
+
+	/**
+	 * Forgets every classification, for example because the terrain changed.
+	 * @post No cell has been classified.
+	 */
+	public synchronized void clear(){
+		buckets.clear();
+	}
+
+	/**
+	 * Classifies the given cell for every radius between the given bounds.
+	 * @param column
+	 * 		The column of the cell.
+	 * @param row
+	 * 		The row of the cell.
+	 * @param smallestRadius
+	 * 		The smallest radius of the bucket.
+	 * @param largestRadius
+	 * 		The largest radius of the bucket.
+	 * @return NEVER if the nearest terrain is out of reach of every position in the cell,
+	 * 			or if the cell is impassable, or if terrain is closer than the smallest radius to every position in the cell.
+	 * 			CLEAR if terrain is farther than the largest radius from every position in the cell, CANDIDATE otherwise.
+	 */
+	@Model
+	private byte classify(int column, int row, double smallestRadius, double largestRadius){
+		double distance = distanceField.getDistance(column, row);
+		if (distance <= 0){
+			return NEVER;
+		}
+		if (distance - cellDiagonal > reachFactor * largestRadius + margin){
+			return NEVER;
+		}
+		if ((distance < distanceField.getLimit()) && (distance + cellDiagonal < smallestRadius - margin)){
+			return NEVER;
+		}
+		if (distance - cellDiagonal > largestRadius + margin){
+			return CLEAR;
+		}
+		return CANDIDATE;
+	}
+
+	/**
+	 * Returns the states of the given bucket, creating them if needed.
+	 * @param bucket
+	 * 		The bucket of radii.
+	 * @param nbCells
+	 * 		The number of cells of the terrain.
+	 * @return The states of every cell for the given bucket.
+	 */
+	@Model
+	private synchronized byte[] getStates(int bucket, int nbCells){
+		Integer key = Integer.valueOf(bucket);
+		byte[] states = buckets.get(key);
+		if (states == null){
+			states = new byte[nbCells];
+			buckets.put(key, states);
+		}
+		return states;
+	}
+
+	/**
+	 * The states of the cells per bucket of radii, the least recently used bucket is forgotten first.
+	 */
+	private final Map<Integer, byte[]> buckets = new LinkedHashMap<Integer, byte[]>(2 * MAX_BUCKETS, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest){
+			return (size() > MAX_BUCKETS);
+		}
+	};
+}
@@ -0,0 +1,401 @@
+package worms.model.terrain;
+
+import java.nio.FloatBuffer;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of signed distance fields over a terrain grid.
+ * 	Every passable cell stores the distance (in meters) between its center and the center of the nearest impassable cell,
+ * 	every impassable cell stores minus the distance between its center and the center of the nearest passable cell.
+ * 	Distances are truncated at the limit of the field, larger distances are stored as the limit itself.
+ * @invar The limit of this distance field is positive.
+ * 		| getLimit() > 0
+ * @invar The distance of every cell lies between minus the limit and the limit of this distance field.
+ * 		| for each row, column: Math.abs(getDistance(column,row)) <= getLimit()
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class DistanceField {
+
+	/**
+	 * Initialize this new distance field for the given terrain grid with cells of the given dimensions.
+	 * @param terrain
+	 * 		The terrain grid to measure distances in.
+	 * @param cellWidth
+	 * 		The width of a single cell (in meters).
+	 * @param cellHeight
+	 * 		The height of a single cell (in meters).
+	 * @post The new terrain of this distance field is the given terrain.
+	 * 		| new.getTerrain() == terrain
+	 * @post The new limit of this distance field covers the truncation margin in the smallest cell dimension, rounded down to a float.
+	 * 		| new.getLimit() == roundDown(TRUNCATION * Math.min(cellWidth, cellHeight))
+	 * @post Every cell of the given terrain stores its (truncated) signed distance.
+	 * @throws IllegalArgumentException
+	 * 		The given terrain is not effective or one of the given cell dimensions is not positive.
+	 * 		| (terrain == null) || (! (cellWidth > 0)) || (! (cellHeight > 0))
+	 */
+	public DistanceField(TerrainGrid terrain, double cellWidth, double cellHeight) throws IllegalArgumentException{
+		if ((terrain == null) || (! (cellWidth > 0)) || (! (cellHeight > 0))){
+			throw new IllegalArgumentException("invalid distance field");
+		}
+		this.terrain = terrain;
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		this.limit = roundDown(TRUNCATION * Math.min(cellWidth, cellHeight));
+		this.distances = new float[terrain.getNbRows() * terrain.getNbColumns()];
+		int band = 4 * TRUNCATION;
+		for (int row = 0; row < terrain.getNbRows(); row += band){
+			compute(0, row, terrain.getNbColumns() - 1, Math.min(row + band, terrain.getNbRows()) - 1);
+		}
+	}
+
+	/**
+	 * Initialize this new distance field as a copy of the given distance field, measuring distances in the given copy of its terrain.
+	 * @param other
+	 * 		The distance field to copy.
+	 * @param terrain
+	 * 		The terrain grid to measure distances in, with the same passable cells as the terrain of the given distance field.
+	 * @post The new terrain of this distance field is the given terrain.
+	 * 		| new.getTerrain() == terrain
+	 * @post This new distance field has the same cell dimensions, limit and distances as the given distance field.
+	 * 		| for each row, column: new.getDistance(column,row) == other.getDistance(column,row)
+	 * @throws IllegalArgumentException
+	 * 		The given terrain is not effective or its dimensions differ from those of the terrain of the given distance field.
+	 * 		| (terrain == null) || (terrain.getNbRows() != other.getTerrain().getNbRows())
+	 * 		|	|| (terrain.getNbColumns() != other.getTerrain().getNbColumns())
+	 */
+	public DistanceField(DistanceField other, TerrainGrid terrain) throws IllegalArgumentException{
+		if ((terrain == null) || (terrain.getNbRows() != other.getTerrain().getNbRows())
+				|| (terrain.getNbColumns() != other.getTerrain().getNbColumns())){
+			throw new IllegalArgumentException("invalid distance field");
+		}
+		this.terrain = terrain;
+		this.cellWidth = other.cellWidth;
+		this.cellHeight = other.cellHeight;
+		this.limit = other.limit;
+		this.distances = other.distances.clone();
+	}
+
+	/**
+	 * Initialize this new distance field for the given terrain grid with cells of the given dimensions,
+	 * 	with the distances read from the given buffer instead of computed.
+	 * @param terrain
+	 * 		The terrain grid to measure distances in.
+	 * @param cellWidth
+	 * 		The width of a single cell (in meters).
+	 * @param cellHeight
+	 * 		The height of a single cell (in meters).
+	 * @param distances
+	 * 		The buffer to read the distances from, row after row, as written by writeTo(FloatBuffer)
+	 * 		for the same terrain and cell dimensions.
+	 * @post The new terrain of this distance field is the given terrain.
+	 * 		| new.getTerrain() == terrain
+	 * @post The distances of this new distance field are read from the given buffer.
+	 * @throws IllegalArgumentException
+	 * 		The given terrain is not effective or one of the given cell dimensions is not positive.
+	 * 		| (terrain == null) || (! (cellWidth > 0)) || (! (cellHeight > 0))
+	 * @throws java.nio.BufferUnderflowException
+	 * 		The given buffer holds fewer distances than the terrain has cells.
+	 */
+	public DistanceField(TerrainGrid terrain, double cellWidth, double cellHeight, FloatBuffer distances) throws IllegalArgumentException{
+		if ((terrain == null) || (! (cellWidth > 0)) || (! (cellHeight > 0))){
+			throw new IllegalArgumentException("invalid distance field");
+		}
+		this.terrain = terrain;
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		this.limit = roundDown(TRUNCATION * Math.min(cellWidth, cellHeight));
+		this.distances = new float[terrain.getNbRows() * terrain.getNbColumns()];
+		distances.get(this.distances);
+	}
+
+	/**
+	 * Writes the distances of this distance field to the given buffer, row after row.
+	 * @param buffer
+	 * 		The buffer to write to.
+	 * @post The next getTerrain().getNbRows()*getTerrain().getNbColumns() floats of the given buffer hold the distances of this distance field.
+	 * @throws java.nio.BufferOverflowException
+	 * 		The given buffer has no room for all distances.
+	 */
+	public void writeTo(FloatBuffer buffer){
+		buffer.put(distances);
+	}
+
+	/**
+	 * The number of cells after which distances are truncated.
+	 */
+	public static final int TRUNCATION = 64;
+
+	/**
+	 * Returns the terrain grid this distance field measures distances in.
+	 */
+	@Basic @Immutable
+	public TerrainGrid getTerrain(){
+		return this.terrain;
+	}
+
+	/**
+	 * The terrain grid this distance field measures distances in.
+	 */
+	private final TerrainGrid terrain;
+
+	/**
+	 * Returns the width of a single cell of this distance field (in meters).
+	 */
+	@Basic @Immutable
+	public double getCellWidth(){
+		return this.cellWidth;
+	}
+
+	/**
+	 * The width of a single cell of this distance field.
+	 */
+	private final double cellWidth;
+
+	/**
+	 * Returns the height of a single cell of this distance field (in meters).
+	 */
+	@Basic @Immutable
+	public double getCellHeight(){
+		return this.cellHeight;
+	}
+
+	/**
+	 * The height of a single cell of this distance field.
+	 */
+	private final double cellHeight;
+
+	/**
+	 * Returns the largest distance (in meters) this distance field distinguishes.
+	 */
+	@Basic @Immutable
+	public double getLimit(){
+		return this.limit;
+	}
+
+	/**
+	 * The largest distance this distance field distinguishes.
+	 */
+	private final double limit;
+
+	/**
+	 * Returns the signed distance stored for the cell at the given indexes.
+	 * @param column
+	 * 		The column of the cell.
+	 * @param row
+	 * 		The row of the cell.
+	 * @return A value not larger than the distance between the center of the given cell and the center of the nearest impassable cell
+	 * 			(truncated at the limit) if the given cell is passable,
+	 * 			a value not smaller than minus the distance to the center of the nearest passable cell otherwise.
+	 * @throws IndexOutOfBoundsException
+	 * 		The given indexes do not belong to a cell of the terrain.
+	 * 		| ! getTerrain().isValidCell(column,row)
+	 */
+	public double getDistance(int column, int row) throws IndexOutOfBoundsException{
+		if (! terrain.isValidCell(column,row)){
+			throw new IndexOutOfBoundsException("cell (" + column + "," + row + ") not in terrain");
+		}
+		return distances[row * terrain.getNbColumns() + column];
+	}
+
+	/**
+	 * The signed distances of all cells, row after row.
+	 */
+	private final float[] distances;
+
+	/**
+	 * Updates the distances after the passability of the cells in the given window of the terrain changed.
+	 * 	Only cells less than TRUNCATION cells away from the window can have a different distance,
+	 * 	so the rest of the terrain is left untouched.
+	 * @param fromColumn
+	 * 		The first column of the changed window.
+	 * @param fromRow
+	 * 		The first row of the changed window.
+	 * @param toColumn
+	 * 		The last column of the changed window.
+	 * @param toRow
+	 * 		The last row of the changed window.
+	 * @post Every cell of the terrain stores its (truncated) signed distance in the changed terrain.
+	 * 		| for each row, column:
+	 * 		|	new.getDistance(column,row) == (new DistanceField(getTerrain(), getCellWidth(), getCellHeight())).getDistance(column,row)
+	 */
+	public void update(int fromColumn, int fromRow, int toColumn, int toRow){
+		compute(Math.max(0, fromColumn - TRUNCATION), Math.max(0, fromRow - TRUNCATION),
+				Math.min(terrain.getNbColumns() - 1, toColumn + TRUNCATION), Math.min(terrain.getNbRows() - 1, toRow + TRUNCATION));
+	}
+
+	/**
+	 * Computes the distances of all cells in the given window of the terrain.
+	 * 	Only cells less than TRUNCATION cells away from the window can influence its distances,
+	 * 	so only that margin around the window is inspected.
+	 * @param fromColumn
+	 * 		The first column of the window.
+	 * @param fromRow
+	 * 		The first row of the window.
+	 * @param toColumn
+	 * 		The last column of the window.
+	 * @param toRow
+	 * 		The last row of the window.
+	 * @post Every cell of the window stores its (truncated) signed distance.
+	 */
+	@Model
+	private void compute(int fromColumn, int fromRow, int toColumn, int toRow){
+		if ((fromColumn > toColumn) || (fromRow > toRow)){
+			return;
+		}
+		int firstColumn = Math.max(0, fromColumn - TRUNCATION);
+		int lastColumn = Math.min(terrain.getNbColumns() - 1, toColumn + TRUNCATION);
+		int firstRow = Math.max(0, fromRow - TRUNCATION);
+		int lastRow = Math.min(terrain.getNbRows() - 1, toRow + TRUNCATION);
+		int columns = lastColumn - firstColumn + 1;
+		int rows = lastRow - firstRow + 1;
+		int[] toImpassable = new int[rows * columns];
+		int[] toPassable = new int[rows * columns];
+		computeColumnDistances(firstColumn, firstRow, columns, rows, toImpassable, toPassable);
+
+		double[] squares = new double[columns];
+		int[] parabolas = new int[columns];
+		double[] bounds = new double[columns + 1];
+		for (int row = fromRow; row <= toRow; row++){
+			int offset = (row - firstRow) * columns;
+			int first = fromColumn - firstColumn;
+			int last = toColumn - firstColumn;
+			int target = row * terrain.getNbColumns() + fromColumn;
+			for (int pass = 0; pass < 2; pass++){
+				boolean passable = (pass == 0);
+				int[] vertical = passable ? toImpassable : toPassable;
+				for (int k = 0; k < columns; k++){
+					int v = vertical[offset + k];
+					squares[k] = ((v == NONE) || (v * cellHeight >= limit)) ? INFINITE : (v * cellHeight) * (v * cellHeight);
+				}
+				int nb = lowerEnvelope(squares, columns, parabolas, bounds);
+				int index = 0;
+				for (int q = first; q <= last; q++){
+					if (terrain.get(firstColumn + q, row) != passable){
+						continue;
+					}
+					double distance = limit;
+					if (nb > 0){
+						while (bounds[index + 1] < q){
+							index = index + 1;
+						}
+						double dx = (q - parabolas[index]) * cellWidth;
+						distance = Math.min(limit, Math.sqrt(dx * dx + squares[parabolas[index]]));
+					}
+					float stored = roundDown(distance);
+					distances[target + q - first] = passable ? stored : -stored;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the largest float that is not larger than the given distance.
+	 * @param distance
+	 * 		The distance to round.
+	 * @return The given distance rounded down to a float.
+	 * 		| (result <= distance) && (Math.nextUp(result) > distance)
+	 */
+	@Model
+	private static float roundDown(double distance){
+		float result = (float) distance;
+		if (result > distance){
+			result = Math.nextAfter(result, Double.NEGATIVE_INFINITY);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes, for every cell of the given window, the number of rows to the nearest impassable
+	 * 	and to the nearest passable cell in the same column of the window.
+	 * @param firstColumn
+	 * 		The first column of the window.
+	 * @param firstRow
+	 * 		The first row of the window.
+	 * @param columns
+	 * 		The number of columns of the window.
+	 * @param rows
+	 * 		The number of rows of the window.
+	 * @param toImpassable
+	 * 		The array to store the vertical distances to impassable cells in, NONE if there is no such cell.
+	 * @param toPassable
+	 * 		The array to store the vertical distances to passable cells in, NONE if there is no such cell.
+	 */
+	@Model
+	private void computeColumnDistances(int firstColumn, int firstRow, int columns, int rows, int[] toImpassable, int[] toPassable){
+		for (int r = 0; r < rows; r++){
+			int index = r * columns;
+			for (int k = 0; k < columns; k++, index++){
+				boolean passable = terrain.get(firstColumn + k, firstRow + r);
+				int aboveImpassable = (r == 0) ? NONE : toImpassable[index - columns];
+				int abovePassable = (r == 0) ? NONE : toPassable[index - columns];
+				toImpassable[index] = (! passable) ? 0 : ((aboveImpassable == NONE) ? NONE : aboveImpassable + 1);
+				toPassable[index] = passable ? 0 : ((abovePassable == NONE) ? NONE : abovePassable + 1);
+			}
+		}
+		for (int r = rows - 2; r >= 0; r--){
+			int index = r * columns;
+			for (int k = 0; k < columns; k++, index++){
+				int belowImpassable = toImpassable[index + columns];
+				if ((belowImpassable != NONE) && ((toImpassable[index] == NONE) || (belowImpassable + 1 < toImpassable[index]))){
+					toImpassable[index] = belowImpassable + 1;
+				}
+				int belowPassable = toPassable[index + columns];
+				if ((belowPassable != NONE) && ((toPassable[index] == NONE) || (belowPassable + 1 < toPassable[index]))){
+					toPassable[index] = belowPassable + 1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the lower envelope of the parabolas (cellWidth*(q-k))^2 + squares[k] for all k with a finite square.
+	 * @param squares
+	 * 		The squared vertical distances of the columns, INFINITE if the column has no source.
+	 * @param columns
+	 * 		The number of columns.
+	 * @param parabolas
+	 * 		The array to store the columns of the parabolas of the envelope in, from left to right.
+	 * @param bounds
+	 * 		The array to store the boundaries between the parabolas of the envelope in,
+	 * 		parabola i is the lowest between bounds[i] and bounds[i+1].
+	 * @return The number of parabolas in the envelope.
+	 */
+	@Model
+	private int lowerEnvelope(double[] squares, int columns, int[] parabolas, double[] bounds){
+		double scale = 2 * cellWidth * cellWidth;
+		int nb = 0;
+		for (int q = 0; q < columns; q++){
+			if (squares[q] == INFINITE){
+				continue;
+			}
+			double offset = squares[q] + cellWidth * cellWidth * q * q;
+			double bound = Double.NEGATIVE_INFINITY;
+			while (nb > 0){
+				int v = parabolas[nb - 1];
+				bound = (offset - (squares[v] + cellWidth * cellWidth * v * v)) / (scale * (q - v));
+				if (bound > bounds[nb - 1]){
+					break;
+				}
+				nb = nb - 1;
+				bound = Double.NEGATIVE_INFINITY;
+			}
+			parabolas[nb] = q;
+			bounds[nb] = bound;
+			bounds[nb + 1] = Double.POSITIVE_INFINITY;
+			nb = nb + 1;
+		}
+		return nb;
+	}
+
+	/**
+	 * Value marking a column without source cell.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * Value marking an infinite squared distance.
+	 */
+	private static final double INFINITE = Double.MAX_VALUE;
+}
@@ -0,0 +1,241 @@
+package worms.model.terrain;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of surface indexes storing, for every column of a terrain grid, the rows at which the passability of that column changes.
+ * 	Those are the surfaces of the column: the top of every piece of impassable terrain and the bottom of every overhang.
+ * 	The surface above or below any cell is found by a binary search in the surfaces of its column, instead of by walking cell by cell.
+ * 	The index has to be updated for the columns in which cells changed.
+ * @invar Every column of the terrain grid has its surfaces, in ascending order.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class SurfaceIndex {
+
+	/**
+	 * Initialize this new surface index for the given terrain grid.
+	 * @param terrain
+	 * 		The terrain grid to index.
+	 * @post The new terrain of this surface index is the given terrain grid.
+	 * 		| new.getTerrain() == terrain
+	 * @post Every row at which the passability of a column changes is a surface of that column.
+	 * 		| for each column in [0, ..., terrain.getNbColumns()-1]: for each row in [1, ..., terrain.getNbRows()-1]:
+	 * 		|	new.isSurface(column,row) == (terrain.isPassable(column,row) != terrain.isPassable(column,row-1))
+	 * @throws IllegalArgumentException
+	 * 		The given terrain grid is not effective.
+	 * 		| terrain == null
+	 */
+	public SurfaceIndex(TerrainGrid terrain) throws IllegalArgumentException{
+		if (terrain == null){
+			throw new IllegalArgumentException("invalid surface index");
+		}
+		this.terrain = terrain;
+		this.surfaces = new int[terrain.getNbColumns()][];
+		build();
+	}
+
+	/**
+	 * Initialize this new surface index as a copy of the given surface index for the given terrain grid,
+	 * 	a copy of the terrain grid of the given surface index.
+	 * @param other
+	 * 		The surface index to copy.
+	 * @param terrain
+	 * 		The terrain grid of this new surface index.
+	 * @post The new terrain of this surface index is the given terrain grid.
+	 * 		| new.getTerrain() == terrain
+	 * @post This new surface index has the same surfaces as the given surface index.
+	 * 		| for each column, row: new.isSurface(column,row) == other.isSurface(column,row)
+	 * @throws IllegalArgumentException
+	 * 		The given terrain is not effective or its dimensions differ from those of the terrain of the given surface index.
+	 * 		| (terrain == null) || (terrain.getNbRows() != other.getTerrain().getNbRows())
+	 * 		|	|| (terrain.getNbColumns() != other.getTerrain().getNbColumns())
+	 */
+	public SurfaceIndex(SurfaceIndex other, TerrainGrid terrain) throws IllegalArgumentException{
+		if ((terrain == null) || (terrain.getNbRows() != other.getTerrain().getNbRows())
+				|| (terrain.getNbColumns() != other.getTerrain().getNbColumns())){
+			throw new IllegalArgumentException("invalid surface index");
+		}
+		this.terrain = terrain;
+		this.surfaces = other.surfaces.clone();
+	}
+
+	/**
+	 * Returns the terrain grid of this surface index.
+	 */
+	@Basic @Immutable
+	public TerrainGrid getTerrain(){
+		return this.terrain;
+	}
+
+	/**
+	 * The terrain grid of this surface index.
+	 */
+	private final TerrainGrid terrain;
+
+	/**
+	 * The surfaces of every column, in ascending order.
+	 * 	The arrays of the columns are replaced rather than changed, so copies of this surface index can share them.
+	 */
+	private final int[][] surfaces;
+
+	/**
+	 * Computes the surfaces of all columns, comparing every row with the row above it a word at a time.
+	 */
+	@Model
+	private void build(){
+		int nbRows = terrain.getNbRows();
+		int nbColumns = terrain.getNbColumns();
+		int wordsPerRow = terrain.getWordsPerRow();
+		int[] counts = new int[nbColumns];
+		for (int pass = 0; pass < 2; pass++){
+			if (pass == 1){
+				for (int column = 0; column < nbColumns; column++){
+					surfaces[column] = new int[counts[column]];
+					counts[column] = 0;
+				}
+			}
+			for (int row = 1; row < nbRows; row++){
+				for (int w = 0; w < wordsPerRow; w++){
+					long changed = terrain.getRowWord(row, w) ^ terrain.getRowWord(row - 1, w);
+					if (w == wordsPerRow - 1){
+						changed &= -1L >>> (63 - ((nbColumns - 1) & 63));
+					}
+					while (changed != 0){
+						int column = (w << 6) + Long.numberOfTrailingZeros(changed);
+						if (pass == 1){
+							surfaces[column][counts[column]] = row;
+						}
+						counts[column]++;
+						changed &= changed - 1;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the passability of the given column changes at the given row.
+	 * @param column
+	 * 		The column to check.
+	 * @param row
+	 * 		The row to check.
+	 * @return True if and only if the given row is not the top row and its cell in the given column
+	 * 			differs in passability from the cell above it.
+	 * 		| result == (row > 0) && (getTerrain().isPassable(column,row) != getTerrain().isPassable(column,row-1))
+	 * @throws IndexOutOfBoundsException
+	 * 		The given indexes do not belong to a cell of the terrain.
+	 * 		| ! getTerrain().isValidCell(column,row)
+	 */
+	public boolean isSurface(int column, int row) throws IndexOutOfBoundsException{
+		if (! terrain.isValidCell(column, row)){
+			throw new IndexOutOfBoundsException("cell (" + column + "," + row + ") not in terrain");
+		}
+		return Arrays.binarySearch(surfaces[column], row) >= 0;
+	}
+
+	/**
+	 * Returns the first row below the given row, in the given column, whose cell differs in passability from the cell at the given row.
+	 * @param column
+	 * 		The column to search.
+	 * @param row
+	 * 		The row to search below.
+	 * @return The smallest row below the given row whose cell differs in passability from the given cell, or -1 if there is none.
+	 * 		| if (result != -1)
+	 * 		|	then (result > row) && (getTerrain().isPassable(column,result) != getTerrain().isPassable(column,row))
+	 * 		|		&& for each r in [row, ..., result-1]: getTerrain().isPassable(column,r) == getTerrain().isPassable(column,row)
+	 * 		| else for each r in [row, ..., getTerrain().getNbRows()-1]: getTerrain().isPassable(column,r) == getTerrain().isPassable(column,row)
+	 * @throws IndexOutOfBoundsException
+	 * 		The given indexes do not belong to a cell of the terrain.
+	 * 		| ! getTerrain().isValidCell(column,row)
+	 */
+	public int findChangeBelow(int column, int row) throws IndexOutOfBoundsException{
+		if (! terrain.isValidCell(column, row)){
+			throw new IndexOutOfBoundsException("cell (" + column + "," + row + ") not in terrain");
+		}
+		int[] rows = surfaces[column];
+		int index = firstAbove(rows, row);
+		if (index == rows.length){
+			return -1;
+		}
+		return rows[index];
+	}
+
+	/**
+	 * Returns the first row above the given row, in the given column, whose cell differs in passability from the cell at the given row.
+	 * @param column
+	 * 		The column to search.
+	 * @param row
+	 * 		The row to search above.
+	 * @return The largest row above the given row whose cell differs in passability from the given cell, or -1 if there is none.
+	 * 		| if (result != -1)
+	 * 		|	then (result < row) && (getTerrain().isPassable(column,result) != getTerrain().isPassable(column,row))
+	 * 		|		&& for each r in [result+1, ..., row]: getTerrain().isPassable(column,r) == getTerrain().isPassable(column,row)
+	 * 		| else for each r in [0, ..., row]: getTerrain().isPassable(column,r) == getTerrain().isPassable(column,row)
+	 * @throws IndexOutOfBoundsException
+	 * 		The given indexes do not belong to a cell of the terrain.
+	 * 		| ! getTerrain().isValidCell(column,row)
+	 */
+	public int findChangeAbove(int column, int row) throws IndexOutOfBoundsException{
+		if (! terrain.isValidCell(column, row)){
+			throw new IndexOutOfBoundsException("cell (" + column + "," + row + ") not in terrain");
+		}
+		int[] rows = surfaces[column];
+		int index = firstAbove(rows, row);
+		if (index == 0){
+			return -1;
+		}
+		return rows[index - 1] - 1;
+	}
+
+	/**
+	 * Returns the index of the first of the given ascending rows that is larger than the given row,
+	 * 	or the number of given rows if there is none.
+	 */
+	private static int firstAbove(int[] rows, int row){
+		int low = 0;
+		int high = rows.length;
+		while (low < high){
+			int middle = (low + high) >>> 1;
+			if (rows[middle] <= row){
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Updates the surfaces after the passability of cells in the given columns of the terrain changed.
+	 * @param fromColumn
+	 * 		The first changed column.
+	 * @param toColumn
+	 * 		The last changed column.
+	 * @post The surfaces of the given columns are those of the changed terrain.
+	 * 		| for each column in [fromColumn, ..., toColumn]: for each row in [1, ..., getTerrain().getNbRows()-1]:
+	 * 		|	new.isSurface(column,row) == (getTerrain().isPassable(column,row) != getTerrain().isPassable(column,row-1))
+	 */
+	public void update(int fromColumn, int toColumn){
+		int nbRows = terrain.getNbRows();
+		int[] found = new int[16];
+		for (int column = Math.max(0, fromColumn); column <= Math.min(terrain.getNbColumns() - 1, toColumn); column++){
+			int nbFound = 0;
+			boolean above = terrain.isPassable(column, 0);
+			for (int row = 1; row < nbRows; row++){
+				boolean current = terrain.isPassable(column, row);
+				if (current != above){
+					if (nbFound == found.length){
+						found = Arrays.copyOf(found, 2 * found.length);
+					}
+					found[nbFound++] = row;
+					above = current;
+				}
+			}
+			surfaces[column] = Arrays.copyOf(found, nbFound);
+		}
+	}
+}
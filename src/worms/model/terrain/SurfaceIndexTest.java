@@ -0,0 +1,60 @@
+package worms.model.terrain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SurfaceIndexTest {
+
+	@Before
+	public void setUp() throws Exception {
+		boolean[][] passableMap = new boolean[6][70];
+		for (boolean[] row : passableMap){
+			Arrays.fill(row, true);
+		}
+		passableMap[2][65] = false;
+		passableMap[3][65] = false;
+		passableMap[5][65] = false;
+		grid = new TerrainGrid(passableMap);
+		index = new SurfaceIndex(grid);
+	}
+	private TerrainGrid grid;
+	private SurfaceIndex index;
+
+	@Test
+	public void testIsSurface(){
+		assertTrue(index.isSurface(65, 2));
+		assertFalse(index.isSurface(65, 3));
+		assertTrue(index.isSurface(65, 4));
+		assertTrue(index.isSurface(65, 5));
+		assertFalse(index.isSurface(0, 5));
+	}
+
+	@Test
+	public void testFindChange(){
+		assertEquals(2, index.findChangeBelow(65, 0));
+		assertEquals(4, index.findChangeBelow(65, 2));
+		assertEquals(-1, index.findChangeBelow(65, 5));
+		assertEquals(1, index.findChangeAbove(65, 3));
+		assertEquals(3, index.findChangeAbove(65, 4));
+		assertEquals(-1, index.findChangeAbove(65, 1));
+		assertEquals(-1, index.findChangeBelow(0, 0));
+	}
+
+	@Test
+	public void testUpdate(){
+		grid.setPassable(65, 3, true);
+		SurfaceIndex copy = new SurfaceIndex(index, new TerrainGrid(grid));
+		index.update(65, 65);
+		assertEquals(3, index.findChangeBelow(65, 2));
+		assertEquals(4, copy.findChangeBelow(65, 2));
+	}
+
+	@Test (expected = IndexOutOfBoundsException.class)
+	public void testFindChange_OutOfBounds(){
+		index.findChangeAbove(70, 0);
+	}
+}
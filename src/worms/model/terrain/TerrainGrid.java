@@ -0,0 +1,421 @@
+package worms.model.terrain;
+
+import java.nio.LongBuffer;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of terrain grids storing the passability of every cell of a passable map in a packed bit set.
+ * 	Every row of the grid starts at a new word, so a whole row segment of 64 cells can be inspected with one word.
+ * @invar The number of rows and the number of columns of this terrain grid are valid dimensions.
+ * 		| isValidDimension(getNbRows()) && isValidDimension(getNbColumns())
+ * @invar Every row of this terrain grid occupies the same number of words.
+ * 		| getWordsPerRow() == (getNbColumns() + 63) / 64
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class TerrainGrid {
+
+	/**
+	 * Initialize this new terrain grid with the given dimensions, all cells of this new terrain grid are impassable.
+	 * @param nbRows
+	 * 		The number of rows of this new terrain grid.
+	 * @param nbColumns
+	 * 		The number of columns of this new terrain grid.
+	 * @post The number of rows of this new terrain grid equals the given number of rows.
+	 * 		| new.getNbRows() == nbRows
+	 * @post The number of columns of this new terrain grid equals the given number of columns.
+	 * 		| new.getNbColumns() == nbColumns
+	 * @post Every cell of this new terrain grid is impassable.
+	 * 		| for each row in [0, ..., nbRows-1]: for each column in [0, ..., nbColumns-1]:
+	 * 		|	! new.isPassable(column,row)
+	 * @throws IllegalArgumentException
+	 * 		One of the given dimensions is not a valid dimension.
+	 * 		| (! isValidDimension(nbRows)) || (! isValidDimension(nbColumns))
+	 */
+	public TerrainGrid(int nbRows, int nbColumns) throws IllegalArgumentException{
+		if ((! isValidDimension(nbRows)) || (! isValidDimension(nbColumns))){
+			throw new IllegalArgumentException("invalid terrain dimensions");
+		}
+		this.nbRows = nbRows;
+		this.nbColumns = nbColumns;
+		this.wordsPerRow = (nbColumns + 63) >>> 6;
+		this.words = new long[nbRows * wordsPerRow];
+	}
+
+	/**
+	 * Initialize this new terrain grid as a packed copy of the given passable map.
+	 * @param passableMap
+	 * 		The passable map to pack, passableMap[row][column] is true if and only if that cell is passable.
+	 * @effect This new terrain grid is initialized with as many rows as the given passable map
+	 * 			and as many columns as the first row of the given passable map.
+	 * 		| this(passableMap.length, passableMap[0].length)
+	 * @post Every cell of this new terrain grid is passable if and only if the corresponding element of the given map is true,
+	 * 			elements missing from a shorter row are impassable.
+	 * 		| for each row in [0, ..., getNbRows()-1]: for each column in [0, ..., getNbColumns()-1]:
+	 * 		|	new.isPassable(column,row) == ((column < passableMap[row].length) && passableMap[row][column])
+	 * @throws IllegalArgumentException
+	 * 		The given passable map is not effective or has no rows.
+	 * 		| (passableMap == null) || (passableMap.length == 0)
+	 */
+	public TerrainGrid(boolean[][] passableMap) throws IllegalArgumentException{
+		this(rowsOf(passableMap), passableMap[0].length);
+		for (int row = 0; row < nbRows; row++){
+			boolean[] values = passableMap[row];
+			int end = Math.min(values.length, nbColumns);
+			int offset = row * wordsPerRow;
+			for (int column = 0; column < end; column++){
+				if (values[column]){
+					words[offset + (column >>> 6)] |= 1L << column;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Initialize this new terrain grid as a copy of the given terrain grid.
+	 * @param other
+	 * 		The terrain grid to copy.
+	 * @post This new terrain grid has the same dimensions and the same passable cells as the given terrain grid.
+	 * 		| new.getNbRows() == other.getNbRows() && new.getNbColumns() == other.getNbColumns()
+	 * 		| && for each row, column: new.isPassable(column,row) == other.isPassable(column,row)
+	 */
+	public TerrainGrid(TerrainGrid other){
+		this.nbRows = other.nbRows;
+		this.nbColumns = other.nbColumns;
+		this.wordsPerRow = other.wordsPerRow;
+		this.words = other.words.clone();
+	}
+
+	/**
+	 * Initialize this new terrain grid with the given dimensions and the packed cells read from the given buffer.
+	 * @param nbRows
+	 * 		The number of rows of this new terrain grid.
+	 * @param nbColumns
+	 * 		The number of columns of this new terrain grid.
+	 * @param words
+	 * 		The buffer to read the packed cells from, row after row, as written by writeTo(LongBuffer).
+	 * @post The number of rows and columns of this new terrain grid equal the given numbers.
+	 * 		| new.getNbRows() == nbRows && new.getNbColumns() == nbColumns
+	 * @post The cells of this new terrain grid are read from the given buffer, bits beyond the last column are ignored.
+	 * @throws IllegalArgumentException
+	 * 		One of the given dimensions is not a valid dimension.
+	 * 		| (! isValidDimension(nbRows)) || (! isValidDimension(nbColumns))
+	 * @throws java.nio.BufferUnderflowException
+	 * 		The given buffer holds fewer words than this new terrain grid.
+	 */
+	public TerrainGrid(int nbRows, int nbColumns, LongBuffer words) throws IllegalArgumentException{
+		this(nbRows, nbColumns);
+		words.get(this.words);
+		if ((nbColumns & 63) != 0){
+			long mask = (1L << (nbColumns & 63)) - 1;
+			for (int row = 0; row < nbRows; row++){
+				this.words[row * wordsPerRow + wordsPerRow - 1] &= mask;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of rows of the given passable map.
+	 * @throws IllegalArgumentException
+	 * 		The given passable map is not effective or has no rows.
+	 * 		| (passableMap == null) || (passableMap.length == 0)
+	 */
+	@Model
+	private static int rowsOf(boolean[][] passableMap) throws IllegalArgumentException{
+		if ((passableMap == null) || (passableMap.length == 0)){
+			throw new IllegalArgumentException("invalid passable map");
+		}
+		return passableMap.length;
+	}
+
+	/**
+	 * Checks whether the given number is a valid number of rows or columns for a terrain grid.
+	 * @param dimension
+	 * 		The number to check.
+	 * @return true if and only if the given number is not negative.
+	 * 		| result == (dimension >= 0)
+	 */
+	public static boolean isValidDimension(int dimension){
+		return (dimension >= 0);
+	}
+
+	/**
+	 * Returns the number of rows of this terrain grid.
+	 */
+	@Basic @Immutable
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * The number of rows of this terrain grid.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Returns the number of columns of this terrain grid.
+	 */
+	@Basic @Immutable
+	public int getNbColumns(){
+		return this.nbColumns;
+	}
+
+	/**
+	 * The number of columns of this terrain grid.
+	 */
+	private final int nbColumns;
+
+	/**
+	 * Returns the number of words occupied by every row of this terrain grid.
+	 */
+	@Basic @Immutable
+	public int getWordsPerRow(){
+		return this.wordsPerRow;
+	}
+
+	/**
+	 * The number of words occupied by every row of this terrain grid.
+	 */
+	private final int wordsPerRow;
+
+	/**
+	 * The packed cells of this terrain grid, row after row.
+	 * 	Bit (column % 64) of word (row*getWordsPerRow() + column/64) is set if and only if that cell is passable.
+	 */
+	private final long[] words;
+
+	/**
+	 * Checks whether the given indexes belong to a cell of this terrain grid.
+	 * @param column
+	 * 		The column to check.
+	 * @param row
+	 * 		The row to check.
+	 * @return true if and only if both indexes are not negative and smaller than the corresponding dimension.
+	 * 		| result ==
+	 * 		|	((column >= 0) && (column < getNbColumns()) && (row >= 0) && (row < getNbRows()))
+	 */
+	public boolean isValidCell(int column, int row){
+		return ((column >= 0) && (column < nbColumns) && (row >= 0) && (row < nbRows));
+	}
+
+	/**
+	 * Checks whether the cell at the given indexes is passable.
+	 * @param column
+	 * 		The column of the cell.
+	 * @param row
+	 * 		The row of the cell.
+	 * @return true if and only if the bit of the given cell is set.
+	 * @throws IndexOutOfBoundsException
+	 * 		The given indexes do not belong to a cell of this terrain grid.
+	 * 		| ! isValidCell(column,row)
+	 */
+	public boolean isPassable(int column, int row) throws IndexOutOfBoundsException{
+		if (! isValidCell(column,row)){
+			throw new IndexOutOfBoundsException("cell (" + column + "," + row + ") not in terrain");
+		}
+		return ((words[row * wordsPerRow + (column >>> 6)] >>> column) & 1L) != 0;
+	}
+
+	/**
+	 * Checks whether the cell at the given indexes is passable, without checking the indexes.
+	 * @param column
+	 * 		The column of the cell.
+	 * @param row
+	 * 		The row of the cell.
+	 * @return true if and only if the bit of the given cell is set.
+	 * 		| result == isPassable(column,row)
+	 */
+	@Model
+	boolean get(int column, int row){
+		return ((words[row * wordsPerRow + (column >>> 6)] >>> column) & 1L) != 0;
+	}
+
+	/**
+	 * Sets the passability of the cell at the given indexes.
+	 * @param column
+	 * 		The column of the cell.
+	 * @param row
+	 * 		The row of the cell.
+	 * @param passable
+	 * 		The new passability of the cell.
+	 * @post The given cell is passable if and only if the given passability is true.
+	 * 		| new.isPassable(column,row) == passable
+	 * @throws IndexOutOfBoundsException
+	 * 		The given indexes do not belong to a cell of this terrain grid.
+	 * 		| ! isValidCell(column,row)
+	 */
+	public void setPassable(int column, int row, boolean passable) throws IndexOutOfBoundsException{
+		if (! isValidCell(column,row)){
+			throw new IndexOutOfBoundsException("cell (" + column + "," + row + ") not in terrain");
+		}
+		int index = row * wordsPerRow + (column >>> 6);
+		if (passable){
+			words[index] |= 1L << column;
+		}
+		else {
+			words[index] &= ~(1L << column);
+		}
+	}
+
+	/**
+	 * Returns the word of the given row holding the cells of the given column up to 63 columns further.
+	 * @param row
+	 * 		The row of the word.
+	 * @param wordIndex
+	 * 		The index of the word in the row, the word holds the columns [64*wordIndex, ..., 64*wordIndex + 63].
+	 * @return The packed word, bit b is set if and only if column 64*wordIndex + b is a passable column of this terrain grid.
+	 * @throws IndexOutOfBoundsException
+	 * 		The row or the index of the word is out of bounds.
+	 * 		| (row < 0) || (row >= getNbRows()) || (wordIndex < 0) || (wordIndex >= getWordsPerRow())
+	 */
+	public long getRowWord(int row, int wordIndex) throws IndexOutOfBoundsException{
+		if ((row < 0) || (row >= nbRows) || (wordIndex < 0) || (wordIndex >= wordsPerRow)){
+			throw new IndexOutOfBoundsException("word (" + wordIndex + "," + row + ") not in terrain");
+		}
+		return words[row * wordsPerRow + wordIndex];
+	}
+
+	/**
+	 * Checks whether every cell of the given row between the given columns is passable, a full word at a time.
+	 * @param row
+	 * 		The row to check.
+	 * @param fromColumn
+	 * 		The first column to check.
+	 * @param toColumn
+	 * 		The last column to check.
+	 * @return true if and only if every cell in the given range is passable, an empty range is passable.
+	 * 		| result ==
+	 * 		|	for each column in [fromColumn, ..., toColumn]:
+	 * 		|		isPassable(column,row)
+	 * @throws IndexOutOfBoundsException
+	 * 		The given range is not empty and does not lie inside the given row of this terrain grid.
+	 * 		| (fromColumn <= toColumn) && ((! isValidCell(fromColumn,row)) || (! isValidCell(toColumn,row)))
+	 */
+	public boolean isRowRangePassable(int row, int fromColumn, int toColumn) throws IndexOutOfBoundsException{
+		return (findImpassableInRow(row, fromColumn, toColumn) < 0);
+	}
+
+	/**
+	 * Checks whether every cell of the given row between the given columns is impassable, a full word at a time.
+	 * @param row
+	 * 		The row to check.
+	 * @param fromColumn
+	 * 		The first column to check.
+	 * @param toColumn
+	 * 		The last column to check.
+	 * @return true if and only if every cell in the given range is impassable, an empty range is impassable.
+	 * 		| result ==
+	 * 		|	for each column in [fromColumn, ..., toColumn]:
+	 * 		|		! isPassable(column,row)
+	 * @throws IndexOutOfBoundsException
+	 * 		The given range is not empty and does not lie inside the given row of this terrain grid.
+	 * 		| (fromColumn <= toColumn) && ((! isValidCell(fromColumn,row)) || (! isValidCell(toColumn,row)))
+	 */
+	public boolean isRowRangeImpassable(int row, int fromColumn, int toColumn) throws IndexOutOfBoundsException{
+		return (findInRow(row, fromColumn, toColumn, true) < 0);
+	}
+
+	/**
+	 * Returns the first impassable column of the given row between the given columns.
+	 * @param row
+	 * 		The row to search.
+	 * @param fromColumn
+	 * 		The first column to search.
+	 * @param toColumn
+	 * 		The last column to search.
+	 * @return The smallest column in the given range for which the cell in the given row is impassable,
+	 * 			or -1 if there is no such column.
+	 * 		| if for some column in [fromColumn, ..., toColumn]: ! isPassable(column,row)
+	 * 		|	then (! isPassable(result,row)) && for each c in [fromColumn, ..., result-1]: isPassable(c,row)
+	 * 		| else result == -1
+	 * @throws IndexOutOfBoundsException
+	 * 		The given range is not empty and does not lie inside the given row of this terrain grid.
+	 * 		| (fromColumn <= toColumn) && ((! isValidCell(fromColumn,row)) || (! isValidCell(toColumn,row)))
+	 */
+	public int findImpassableInRow(int row, int fromColumn, int toColumn) throws IndexOutOfBoundsException{
+		return findInRow(row, fromColumn, toColumn, false);
+	}
+
+	/**
+	 * Returns the first column of the given row between the given columns whose cell has the given passability.
+	 * @param row
+	 * 		The row to search.
+	 * @param fromColumn
+	 * 		The first column to search.
+	 * @param toColumn
+	 * 		The last column to search.
+	 * @param passable
+	 * 		The passability to search for.
+	 * @return The smallest column in the given range whose cell in the given row has the given passability,
+	 * 			or -1 if there is no such column.
+	 * @throws IndexOutOfBoundsException
+	 * 		The given range is not empty and does not lie inside the given row of this terrain grid.
+	 * 		| (fromColumn <= toColumn) && ((! isValidCell(fromColumn,row)) || (! isValidCell(toColumn,row)))
+	 */
+	@Model
+	private int findInRow(int row, int fromColumn, int toColumn, boolean passable) throws IndexOutOfBoundsException{
+		if (fromColumn > toColumn){
+			return -1;
+		}
+		if ((! isValidCell(fromColumn,row)) || (! isValidCell(toColumn,row))){
+			throw new IndexOutOfBoundsException("range not in terrain");
+		}
+		int offset = row * wordsPerRow;
+		int firstWord = fromColumn >>> 6;
+		int lastWord = toColumn >>> 6;
+		for (int w = firstWord; w <= lastWord; w++){
+			long word = passable ? words[offset + w] : ~words[offset + w];
+			if (w == firstWord){
+				word &= -1L << fromColumn;
+			}
+			if (w == lastWord){
+				word &= -1L >>> (63 - (toColumn & 63));
+			}
+			if (word != 0){
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the number of words that hold the packed cells of this terrain grid.
+	 * @return The number of words per row times the number of rows.
+	 * 		| result == getWordsPerRow() * getNbRows()
+	 */
+	public int getNbWords(){
+		return words.length;
+	}
+
+	/**
+	 * Writes the packed cells of this terrain grid to the given buffer, row after row.
+	 * @param buffer
+	 * 		The buffer to write to.
+	 * @post The next getNbWords() words of the given buffer hold the cells of this terrain grid.
+	 * @throws java.nio.BufferOverflowException
+	 * 		The given buffer has no room for getNbWords() words.
+	 */
+	public void writeTo(LongBuffer buffer){
+		buffer.put(words);
+	}
+
+	/**
+	 * Returns the passability of every cell of this terrain grid as a new passable map.
+	 * @return A new matrix with getNbRows() rows of getNbColumns() elements,
+	 * 			element [row][column] is true if and only if that cell is passable.
+	 * 		| for each row in [0, ..., getNbRows()-1]: for each column in [0, ..., getNbColumns()-1]:
+	 * 		|	result[row][column] == isPassable(column,row)
+	 */
+	public boolean[][] toPassableMap(){
+		boolean[][] result = new boolean[nbRows][nbColumns];
+		for (int row = 0; row < nbRows; row++){
+			int offset = row * wordsPerRow;
+			boolean[] values = result[row];
+			for (int column = 0; column < nbColumns; column++){
+				values[column] = ((words[offset + (column >>> 6)] >>> column) & 1L) != 0;
+			}
+		}
+		return result;
+	}
+}
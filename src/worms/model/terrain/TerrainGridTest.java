@@ -0,0 +1,76 @@
+package worms.model.terrain;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TerrainGridTest {
+
+	@Before
+	public void setUp() throws Exception {
+		passableMap = new boolean[3][70];
+		for (boolean[] row : passableMap){
+			Arrays.fill(row, true);
+		}
+		passableMap[1][0] = false;
+		passableMap[1][65] = false;
+		passableMap[2][69] = false;
+		grid = new TerrainGrid(passableMap);
+	}
+	private boolean[][] passableMap;
+	private TerrainGrid grid;
+
+	@Test
+	public void testConstructor(){
+		assertEquals(3, grid.getNbRows());
+		assertEquals(70, grid.getNbColumns());
+		assertEquals(2, grid.getWordsPerRow());
+		assertTrue(Arrays.deepEquals(passableMap, grid.toPassableMap()));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructor_IllegalCase(){
+		new TerrainGrid(new boolean[0][0]);
+	}
+
+	@Test
+	public void testIsPassable(){
+		assertFalse(grid.isPassable(0, 1));
+		assertTrue(grid.isPassable(64, 1));
+		assertFalse(grid.isPassable(65, 1));
+	}
+
+	@Test (expected = IndexOutOfBoundsException.class)
+	public void testIsPassable_OutOfBounds(){
+		grid.isPassable(70, 0);
+	}
+
+	@Test
+	public void testSetPassable(){
+		grid.setPassable(65, 1, true);
+		grid.setPassable(3, 0, false);
+		assertTrue(grid.isPassable(65, 1));
+		assertFalse(grid.isPassable(3, 0));
+	}
+
+	@Test
+	public void testFindImpassableInRow(){
+		assertEquals(-1, grid.findImpassableInRow(0, 0, 69));
+		assertEquals(0, grid.findImpassableInRow(1, 0, 69));
+		assertEquals(65, grid.findImpassableInRow(1, 1, 69));
+		assertEquals(-1, grid.findImpassableInRow(1, 1, 64));
+		assertEquals(69, grid.findImpassableInRow(2, 63, 69));
+	}
+
+	@Test
+	public void testIsRowRangePassable(){
+		assertTrue(grid.isRowRangePassable(1, 1, 64));
+		assertFalse(grid.isRowRangePassable(1, 60, 66));
+		assertTrue(grid.isRowRangePassable(1, 5, 4));
+		assertTrue(grid.isRowRangeImpassable(1, 65, 65));
+		assertFalse(grid.isRowRangeImpassable(2, 68, 69));
+	}
+}
@@ -2,6 +2,10 @@ package worms.model.test;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -51,7 +55,7 @@ public class WorldTest {
 		assertEquals(12,w.getWidth(), EPS);
 		assertEquals(1,w.getHeightConversion(), EPS);
 		assertEquals(1,w.getWidthConversion(), EPS);
-		assert(passableMap == w.getPassableMap());
+		assertTrue(Arrays.deepEquals(passableMap, w.getPassableMap()));
 	}
 
 	@Test
@@ -119,6 +123,35 @@ public class WorldTest {
 		assertEquals(false, w.isPassableForCircle(0,2,position));
 	}
 	
+	@Test
+	public void testIsPassableForCircle_FalseCase_SmallObstacleBetweenSamples() {
+		boolean[][] passableMap = new boolean[100][100];
+		for (boolean[] row : passableMap){
+			Arrays.fill(row, true);
+		}
+		passableMap[48][59] = false;
+		World w = new World(10,10,passableMap,random);
+		assertEquals(false, w.isPassableForCircle(0,1,new Position(5,5)));
+		assertEquals(false, w.isPassableForCircle(1,1,5,5));
+		assertEquals(true, w.isPassableForCircle(0,0.8,new Position(5,5)));
+	}
+	
+	@Test
+	public void testCarveCrater() {
+		Position position = new Position(4.0/3-EPS,1.75);
+		assertEquals(false, world.isPassable(position));
+		assertEquals(false, world.isPassableForCircle(0,0.2,position));
+		world.carveCrater(new Position(1.5,1.75), 0.6);
+		assertEquals(true, world.isPassable(position));
+		assertEquals(true, world.isPassableForCircle(0,0.2,position));
+		assertEquals(false, world.getPassableMap()[4][0]);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testCarveCrater_IllegalCase() {
+		world.carveCrater(null, 0.6);
+	}
+	
 	@Test
 	public void testIsPassableForCircle_TrueCase2() {
 		Position position = new Position(4.0/3-EPS,2.25+EPS);
@@ -183,6 +216,21 @@ public class WorldTest {
 		assertEquals(true, world.isAdjacent(0.5,position));
 	}
 	
+	@Test
+	public void testIsAdjacent_RepeatedQueries() {
+		assertEquals(true, world.isAdjacent(0.25, 4.0/3, 2.26));
+		assertEquals(true, world.isAdjacent(0.25, 4.0/3, 2.26));
+		assertEquals(false, world.isAdjacent(0.25, 4.0/3, 2.9));
+		assertEquals(false, world.isAdjacent(0.25, 3.9, 0.5));
+	}
+	
+	@Test
+	public void testIsAdjacent_FalseCase_TerrainCarvedAway() {
+		assertEquals(true, world.isAdjacent(0.25, new Position(4.0/3,2.26)));
+		world.carveCrater(new Position(4.0/3,1.75), 0.7);
+		assertEquals(false, world.isAdjacent(0.25, new Position(4.0/3,2.26)));
+	}
+	
 	@Test
 	public void testIsAdjacent_FalseCase_RadiusTooSmall() {
 		Position position = new Position(4.0/3-EPS,2.5-EPS);
@@ -469,6 +517,202 @@ public class WorldTest {
 		assertEquals(false,world.isValidPosition(0.75,position,true));		
 	}
 	
+	@Test
+	public void testGetAllWorms_LiveView(){
+		World w = new World(12,6,passableMap,new Random(7357));
+		List<Worm> worms = w.getAllWorms();
+		Worm first = new Worm("First",0.5,1,5,0,w);
+		Worm second = new Worm("Second",0.5,5,5,0,w);
+		assertEquals(Arrays.asList(first, second), worms);
+		first.Terminate();
+		assertEquals(Arrays.asList(second), worms);
+		assertTrue(w.getAllFood().isEmpty());
+		assertNull(w.getActiveProjectile());
+	}
+	
+	@Test
+	public void testRestoreSnapshot_GameObjects(){
+		World w = new World(12,6,passableMap,new Random(7357));
+		Facade facade = new Facade();
+		Worm first = new Worm("First",0.5,1,5,0,w);
+		Worm second = new Worm("Second",0.5,5,5,0,w);
+		WorldSnapshot snapshot = w.createSnapshot();
+		facade.turn(first, 1.0);
+		facade.rename(first, "Renamed");
+		second.Terminate();
+		new Worm("Third",0.5,9,5,0,w);
+		w.restoreSnapshot(snapshot);
+		assertEquals(Arrays.asList(first, second), w.getAllWorms());
+		assertEquals("First", facade.getName(first));
+		assertEquals(0, facade.getOrientation(first), EPS);
+		assertFalse(second.isTerminated());
+		assertSame(w, second.getWorld());
+		assertEquals(5, facade.getX(second), EPS);
+		assertTrue(w.getGameObjectsNear(Worm.class, 5, 5, 0.1).contains(second));
+	}
+
+	@Test
+	public void testRestoreSnapshot_Terrain(){
+		WorldSnapshot snapshot = world.createSnapshot();
+		world.carveCrater(new Position(1.5,1.75), 0.6);
+		assertFalse(Arrays.deepEquals(passableMap, world.getPassableMap()));
+		world.restoreSnapshot(snapshot);
+		assertTrue(Arrays.deepEquals(passableMap, world.getPassableMap()));
+		world.carveCrater(new Position(1.5,1.75), 0.6);
+		world.restoreSnapshot(snapshot);
+		assertTrue(Arrays.deepEquals(passableMap, world.getPassableMap()));
+		assertEquals(false, world.isPassable(new Position(4.0/3-EPS,1.75)));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testRestoreSnapshot_OtherWorld(){
+		new World(12,6,passableMap,random).restoreSnapshot(world.createSnapshot());
+	}
+
+	@Test
+	public void testSavedGame_RoundTrip() throws IOException{
+		World w = new World(12,6,passableMap,new Random(7357));
+		Facade facade = new Facade();
+		Team team = new Team("Alpha", w);
+		Worm first = new Worm("First",0.5,1,5,0,w);
+		Worm second = new Worm("Second",0.5,5,5,0,w);
+		team.addWorm(second);
+		new Food(new Position(9,5), w);
+		facade.startGame(w);
+		facade.turn(facade.getCurrentWorm(w), 1.0);
+		facade.selectNextWeapon(facade.getCurrentWorm(w));
+		w.carveCrater(new Position(1.5,1.75), 0.6);
+		File file = File.createTempFile("worms", ".sav");
+		try {
+			SavedGame.save(w, file);
+			World loaded = SavedGame.load(file, new Random(7357));
+			assertTrue(Arrays.deepEquals(w.getPassableMap(), loaded.getPassableMap()));
+			assertEquals(w.getAllWorms().size(), loaded.getAllWorms().size());
+			for (int i = 0; i < w.getAllWorms().size(); i++){
+				Worm expected = w.getAllWorms().get(i);
+				Worm actual = loaded.getAllWorms().get(i);
+				assertEquals(facade.getName(expected), facade.getName(actual));
+				assertEquals(facade.getX(expected), facade.getX(actual), 0);
+				assertEquals(facade.getY(expected), facade.getY(actual), 0);
+				assertEquals(facade.getOrientation(expected), facade.getOrientation(actual), 0);
+				assertEquals(facade.getActionPoints(expected), facade.getActionPoints(actual));
+				assertEquals(facade.getHitPoints(expected), facade.getHitPoints(actual));
+				assertEquals(facade.getTeamName(expected), facade.getTeamName(actual));
+				assertEquals(expected.getActiveWeaponIndex(), actual.getActiveWeaponIndex());
+			}
+			assertEquals(1, facade.getFood(loaded).size());
+			assertEquals(w.getAllWorms().indexOf(w.getCurrentWorm()), loaded.getAllWorms().indexOf(loaded.getCurrentWorm()));
+			assertSame(loaded, loaded.getAllWorms().get(1).getTeam().getWorld());
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	@Test (expected = IOException.class)
+	public void testSavedGame_NotASavedGame() throws IOException{
+		File file = File.createTempFile("worms", ".sav");
+		try {
+			new FileOutputStream(file).close();
+			SavedGame.load(file, random);
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testAddWorm_SameSeed(){
+		World first = new World(12,6,passableMap,new Random(7357));
+		World second = new World(12,6,passableMap,new Random(7357));
+		for (int i = 0; i < 5; i++){
+			first.addWorm();
+			second.addWorm();
+			first.addWormFood();
+			second.addWormFood();
+		}
+		for (int i = 0; i < 5; i++){
+			Worm worm = first.getAllWorms().get(i);
+			assertEquals(worm.getX(), second.getAllWorms().get(i).getX(), 0);
+			assertEquals(worm.getY(), second.getAllWorms().get(i).getY(), 0);
+			assertTrue(first.isAdjacent(worm.getRadius(), worm.getX(), worm.getY()));
+		}
+	}
+
+	@Test
+	public void testPopulate(){
+		World w = new World(12,6,passableMap,new Random(7357));
+		int nbAdded = w.populate(4, 3);
+		assertEquals(nbAdded, w.getAllGameObjects().size());
+		assertTrue(w.getAllWorms().size() <= 4);
+		List<GameObjects> objects = w.getAllGameObjects();
+		for (int i = 0; i < objects.size(); i++){
+			for (int j = i + 1; j < objects.size(); j++){
+				assertTrue(objects.get(i).getPosition().calculateDistance(objects.get(j).getPosition())
+						>= objects.get(i).getRadius() + objects.get(j).getRadius());
+			}
+		}
+	}
+
+	@Test (expected = IllegalCommandException.class)
+	public void testPopulate_Started(){
+		World w = new World(12,6,passableMap,new Random(7357));
+		w.populate(2, 0);
+		new Facade().startGame(w);
+		w.populate(1, 0);
+	}
+
+	@Test
+	public void testGetGroundBelow(){
+		World w = new World(12,6,passableMap,new Random(7357));
+		assertEquals(4, w.getGroundBelow(3.5, 5.5), EPS);
+		assertEquals(2, w.getGroundBelow(0.5, 5.5), EPS);
+		assertEquals(5.5, w.getGroundBelow(11.5, 5.5), EPS);
+		assertEquals(Double.NEGATIVE_INFINITY, w.getGroundBelow(0.5, 0.5), 0);
+		assertEquals(Double.NEGATIVE_INFINITY, w.getGroundBelow(13, 5.5), 0);
+		w.carveCrater(new Position(3.5, 3.5), 0.5);
+		assertEquals(Double.NEGATIVE_INFINITY, w.getGroundBelow(3.5, 5.5), 0);
+	}
+
+	@Test
+	public void testRestoreSnapshot_SurfaceIndex(){
+		boolean[][] map = new boolean[100][200];
+		for (int row = 0; row < 60; row++){
+			Arrays.fill(map[row], true);
+		}
+		World w = new World(20,10,map,new Random(7357));
+		World expected = new World(20,10,map,new Random(7357));
+		assertEquals(4, w.getGroundBelow(5, 8), EPS);
+		WorldSnapshot snapshot = w.createSnapshot();
+		w.carveCrater(new Position(5,4), 1.5);
+		w.restoreSnapshot(snapshot);
+		w.carveCrater(new Position(15,4), 1.5);
+		expected.carveCrater(new Position(15,4), 1.5);
+		for (double x = 0.05; x < 20; x += 0.5){
+			assertEquals(expected.getGroundBelow(x, 8), w.getGroundBelow(x, 8), 0);
+		}
+		for (double x = 1; x < 9; x += 0.5){
+			assertEquals(expected.calculateSlope(x, 4.5, 0, 0.5), w.calculateSlope(x, 4.5, 0, 0.5), 0);
+		}
+		Facade facade = new Facade();
+		Worm left = new Worm("Left",0.5,5,7,0,w);
+		Worm right = new Worm("Right",0.5,15,7,0,w);
+		facade.fall(left);
+		facade.fall(right);
+		Worm expectedLeft = new Worm("Left",0.5,5,7,0,expected);
+		Worm expectedRight = new Worm("Right",0.5,15,7,0,expected);
+		facade.fall(expectedLeft);
+		facade.fall(expectedRight);
+		assertEquals(facade.getY(expectedLeft), facade.getY(left), 0);
+		assertEquals(facade.getY(expectedRight), facade.getY(right), 0);
+		assertTrue(facade.getY(right) < facade.getY(left));
+	}
+
+	@Test (expected = UnsupportedOperationException.class)
+	public void testGetAllWorms_ReadOnly(){
+		world.getAllWorms().clear();
+	}
+	
 	@Test
 	public void testAddWorm_legalCase(){
 		world.addWorm();
@@ -3,6 +3,7 @@ package worms.model.test;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import org.junit.After;
@@ -12,6 +13,9 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import worms.model.Bazooka;
+import worms.model.FlightPlan;
+import worms.model.MovePlan;
+import worms.model.Projectile;
 import worms.model.Team;
 import worms.model.Weapon;
 import worms.model.World;
@@ -37,6 +41,7 @@ public class WormTest {
 	private boolean[][] passableMap = new boolean[][] {
 			{ false, false, false, false }, { true, true, true, true },
 			{ true, true, true, true }, { false, false, false, false } };
+	private boolean[][] groundMap;
 
 	@BeforeClass
 	public static void setUpBeforeClass() throws Exception {
@@ -53,6 +58,10 @@ public class WormTest {
 		myWorm_worm_1_x2y2_PI = new Worm("Worm",1,2,2,Math.PI,world);
 		myWorm_worm_1_x2y2_PIop2 = new Worm("Worm",1,2,2,Math.PI/2,world);
 		myWorm_worm_1_x2y2_minPIop2 = new Worm("Worm",1,2,2,-Math.PI/2,world);
+		groundMap = new boolean[10][40];
+		for (int row = 0; row < 7; row++){
+			Arrays.fill(groundMap[row], true);
+		}
 		
 		
 		
@@ -194,6 +203,70 @@ public class WormTest {
 	}
 	
 	
+	@Test
+	public void testPlanMove_SameAsStep(){
+		Worm worm = new Worm("Worm",1,5,4,0,new World(40.0, 10.0, groundMap, new Random(7357)));
+		Worm other = new Worm("Other",1,5,4,0,new World(40.0, 10.0, groundMap, new Random(7357)));
+		MovePlan plan = worm.planMove(2);
+		assertEquals(5,worm.getX(),EPS);
+		assertEquals(4,worm.getY(),EPS);
+		worm.move(plan);
+		for (int i = 0; i < plan.getNbSteps(); i++){
+			other.step(other.getTerrainAngle());
+		}
+		assertEquals(other.getX(),worm.getX(),EPS);
+		assertEquals(other.getY(),worm.getY(),EPS);
+		assertEquals(other.getCurrentAPNumeral(),worm.getCurrentAPNumeral());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMove_OutdatedPlan(){
+		Worm worm = new Worm("Worm",1,5,4,0,new World(40.0, 10.0, groundMap, new Random(7357)));
+		MovePlan plan = worm.planMove(1);
+		worm.turn(Math.PI/2);
+		worm.move(plan);
+	}
+
+	@Test
+	public void testMove_DirectionCloseTo2Pi(){
+		boolean[][] fineMap = new boolean[100][400];
+		for (int row = 0; row < 70; row++){
+			Arrays.fill(fineMap[row], true);
+		}
+		Worm worm = new Worm("Worm",0.25,5,3.26,2*Math.PI-0.02,new World(40.0, 10.0, fineMap, new Random(7357)));
+		Worm other = new Worm("Other",0.25,5,3.26,2*Math.PI-0.02,new World(40.0, 10.0, fineMap, new Random(7357)));
+		other.step(other.getTerrainAngle());
+		other.step(other.getTerrainAngle());
+		try {
+			other.step(other.getTerrainAngle());
+			fail("the third step leaves the valid directions");
+		}
+		catch (IllegalArgumentException exc){
+		}
+		worm.move(4);
+		assertEquals(other.getX(),worm.getX(),EPS);
+		assertEquals(other.getY(),worm.getY(),EPS);
+		assertEquals(other.getCurrentAPNumeral(),worm.getCurrentAPNumeral());
+	}
+
+	@Test
+	public void testPlanFlight_Shoot(){
+		World groundWorld = new World(40.0, 10.0, groundMap, new Random(7357));
+		Worm worm = new Worm("Worm",1,5,5,0,groundWorld);
+		worm.shoot(50);
+		Projectile projectile = groundWorld.getActiveProjectile();
+		Position start = projectile.getPosition();
+		FlightPlan plan = projectile.planFlight(0.0001);
+		assertEquals(start, projectile.getPosition());
+		assertEquals(start, plan.getSample(0));
+		assertEquals(plan.getImpactTime(), plan.getSampleTime(plan.getNbSamples()-1), EPS);
+		assertEquals(projectile.jumpStep(plan.getImpactTime(), projectile.getDirection()), plan.getImpactPosition());
+		projectile.jump(plan);
+		assertEquals(plan.getImpactPosition(), projectile.getPosition());
+		assertTrue(projectile.isTerminated());
+		assertFalse(plan.isUpToDate());
+	}
+
 	@Test
 	public void testMove_TerrainAngle_Piop2(){
 		myWorm_worm_1_x2y2_PI.step(0.0001);
@@ -243,6 +316,12 @@ public class WormTest {
 		assertEquals(2,myWorm_worm_1_x2y2_PI.getY(),Math.pow(1,-10));
 		
 	}
+	@Test
+	public void testAdaptiveJumpTime(){
+		assertEquals(myWorm_worm_1_x2y2_PI.jumpTime(0.0001),myWorm_worm_1_x2y2_PI.adaptiveJumpTime(0.0001),0);
+		assertEquals(myWorm_worm_1_x2y2_PIop2.jumpTime(0.0001),myWorm_worm_1_x2y2_PIop2.adaptiveJumpTime(0.0001),0);
+		assertEquals(myWorm_worm_1_x2y2_minPIop2.jumpTime(0.0001),myWorm_worm_1_x2y2_minPIop2.adaptiveJumpTime(0.0001),0);
+	}
 	@Test 
 	public void testJumpMinPiOp2(){
 		myWorm_worm_1_x2y2_minPIop2.jump(0.0001);
@@ -0,0 +1,236 @@
+package worms.replay;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of entries of a journal, each recording a single action on a world.
+ * 	Actions that concern a worm identify it by the number of the worm, worms being numbered from 0 in the order they appeared in the world.
+ * @invar The kind of every journal entry is a valid kind.
+ * 		| isValidKind(getKind())
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+@Value
+public class JournalEntry {
+
+	/**
+	 * Kind of the entry that adds a new worm to the world.
+	 */
+	public static final byte ADD_WORM = 1;
+
+	/**
+	 * Kind of the entry that adds new food to the world.
+	 */
+	public static final byte ADD_FOOD = 2;
+
+	/**
+	 * Kind of the entry that adds an empty team with the name of the entry to the world.
+	 */
+	public static final byte ADD_TEAM = 3;
+
+	/**
+	 * Kind of the entry that starts the game.
+	 */
+	public static final byte START_GAME = 4;
+
+	/**
+	 * Kind of the entry that turns the worm of the entry over the angle of the entry.
+	 */
+	public static final byte TURN = 16;
+
+	/**
+	 * Kind of the entry that lets the worm of the entry move and fall.
+	 */
+	public static final byte MOVE = 17;
+
+	/**
+	 * Kind of the entry that lets the worm of the entry jump.
+	 */
+	public static final byte JUMP = 18;
+
+	/**
+	 * Kind of the entry that lets the worm of the entry shoot with the yield of the entry.
+	 */
+	public static final byte SHOOT = 19;
+
+	/**
+	 * Kind of the entry that selects the next weapon of the worm of the entry.
+	 */
+	public static final byte SELECT_NEXT_WEAPON = 20;
+
+	/**
+	 * Kind of the entry that renames the worm of the entry to the name of the entry.
+	 */
+	public static final byte RENAME = 21;
+
+	/**
+	 * Kind of the entry that starts the next turn.
+	 */
+	public static final byte SELECT_NEXT_WORM = 22;
+
+	/**
+	 * Initialize this new journal entry with the given kind, worm, angle, yield and name.
+	 * @param kind
+	 * 		The kind of the new entry.
+	 * @param worm
+	 * 		The number of the worm of the new entry, -1 if the entry does not concern a worm.
+	 * @param angle
+	 * 		The angle of the new entry, 0 if the entry has no angle.
+	 * @param yield
+	 * 		The propulsion yield of the new entry, 0 if the entry has no yield.
+	 * @param name
+	 * 		The name of the new entry, null if the entry has no name.
+	 * @throws IllegalArgumentException
+	 * 		The given kind is not valid.
+	 * 		| ! isValidKind(kind)
+	 */
+	public JournalEntry(byte kind, int worm, double angle, int yield, String name) throws IllegalArgumentException{
+		if (! isValidKind(kind)){
+			throw new IllegalArgumentException("invalid journal entry kind " + kind);
+		}
+		this.kind = kind;
+		this.worm = worm;
+		this.angle = angle;
+		this.yield = yield;
+		this.name = name;
+	}
+
+	/**
+	 * Checks whether the given kind is a valid kind of journal entries.
+	 * @param kind
+	 * 		The kind to check.
+	 * @return True if and only if the given kind is one of the kinds of journal entries.
+	 * 		| result == ((kind >= ADD_WORM) && (kind <= START_GAME)) || ((kind >= TURN) && (kind <= SELECT_NEXT_WORM))
+	 */
+	public static boolean isValidKind(byte kind){
+		return ((kind >= ADD_WORM) && (kind <= START_GAME)) || ((kind >= TURN) && (kind <= SELECT_NEXT_WORM));
+	}
+
+	/**
+	 * Checks whether entries of the given kind concern a worm.
+	 * @param kind
+	 * 		The kind to check.
+	 * @return True if and only if the given kind is the kind of an action of a worm.
+	 * 		| result == ((kind >= TURN) && (kind <= RENAME))
+	 */
+	public static boolean concernsWorm(byte kind){
+		return ((kind >= TURN) && (kind <= RENAME));
+	}
+
+	/**
+	 * Returns the kind of this journal entry.
+	 */
+	@Basic @Immutable
+	public byte getKind(){
+		return this.kind;
+	}
+
+	/**
+	 * The kind of this journal entry.
+	 */
+	private final byte kind;
+
+	/**
+	 * Returns the number of the worm of this journal entry, -1 if this entry does not concern a worm.
+	 */
+	@Basic @Immutable
+	public int getWorm(){
+		return this.worm;
+	}
+
+	/**
+	 * The number of the worm of this journal entry.
+	 */
+	private final int worm;
+
+	/**
+	 * Returns the angle of this journal entry.
+	 */
+	@Basic @Immutable
+	public double getAngle(){
+		return this.angle;
+	}
+
+	/**
+	 * The angle of this journal entry.
+	 */
+	private final double angle;
+
+	/**
+	 * Returns the propulsion yield of this journal entry.
+	 */
+	@Basic @Immutable
+	public int getYield(){
+		return this.yield;
+	}
+
+	/**
+	 * The propulsion yield of this journal entry.
+	 */
+	private final int yield;
+
+	/**
+	 * Returns the name of this journal entry.
+	 */
+	@Basic @Immutable
+	public String getName(){
+		return this.name;
+	}
+
+	/**
+	 * The name of this journal entry.
+	 */
+	private final String name;
+
+	/**
+	 * Checks whether this journal entry equals the given object.
+	 * @return True if and only if the given object is a journal entry with the same kind, worm, angle, yield and name.
+	 * 		| result == ((other instanceof JournalEntry)
+	 * 		|	&& (getKind() == other.getKind()) && (getWorm() == other.getWorm())
+	 * 		|	&& (Double.compare(getAngle(), other.getAngle()) == 0) && (getYield() == other.getYield())
+	 * 		|	&& ((getName() == null) ? (other.getName() == null) : getName().equals(other.getName())))
+	 */
+	@Override
+	public boolean equals(Object other){
+		if (! (other instanceof JournalEntry)){
+			return false;
+		}
+		JournalEntry entry = (JournalEntry) other;
+		return (getKind() == entry.getKind()) && (getWorm() == entry.getWorm())
+				&& (Double.doubleToLongBits(getAngle()) == Double.doubleToLongBits(entry.getAngle())) && (getYield() == entry.getYield())
+				&& ((getName() == null) ? (entry.getName() == null) : getName().equals(entry.getName()));
+	}
+
+	/**
+	 * Returns the hash code of this journal entry.
+	 */
+	@Override
+	public int hashCode(){
+		long bits = Double.doubleToLongBits(getAngle());
+		int result = 31 * getKind() + getWorm();
+		result = 31 * result + (int) (bits ^ (bits >>> 32));
+		result = 31 * result + getYield();
+		return 31 * result + ((getName() == null) ? 0 : getName().hashCode());
+	}
+
+	/**
+	 * Returns a textual representation of this journal entry.
+	 */
+	@Override
+	public String toString(){
+		String result = "entry " + getKind();
+		if (concernsWorm(getKind())){
+			result = result + " of worm " + getWorm();
+		}
+		if (getKind() == TURN){
+			result = result + " angle " + getAngle();
+		}
+		if (getKind() == SHOOT){
+			result = result + " yield " + getYield();
+		}
+		if (getName() != null){
+			result = result + " name " + getName();
+		}
+		return result;
+	}
+}
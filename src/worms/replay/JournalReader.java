@@ -0,0 +1,121 @@
+package worms.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of readers reading the entries of a journal written by a journal writer, one at a time.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class JournalReader {
+
+	/**
+	 * Initialize this new journal reader reading from the given stream, and read the header of the journal.
+	 * @param in
+	 * 		The stream to read the journal from.
+	 * @throws IllegalArgumentException
+	 * 		The given stream is not effective.
+	 * 		| in == null
+	 * @throws IOException
+	 * 		The header could not be read, or the stream does not hold a journal of a known version.
+	 */
+	public JournalReader(InputStream in) throws IllegalArgumentException, IOException{
+		if (in == null){
+			throw new IllegalArgumentException("invalid journal");
+		}
+		this.in = new DataInputStream(new BufferedInputStream(in));
+		if (this.in.readInt() != JournalWriter.MAGIC){
+			throw new IOException("not a journal");
+		}
+		byte version = this.in.readByte();
+		if (version != JournalWriter.VERSION){
+			throw new IOException("unknown journal version " + version);
+		}
+		this.seed = this.in.readLong();
+		this.levelName = this.in.readUTF();
+	}
+
+	/**
+	 * The stream the journal is read from.
+	 */
+	private final DataInputStream in;
+
+	/**
+	 * Returns the seed of the random number generator of the world of the journal.
+	 */
+	@Basic @Immutable
+	public long getSeed(){
+		return this.seed;
+	}
+
+	/**
+	 * The seed of the random number generator of the world of the journal.
+	 */
+	private final long seed;
+
+	/**
+	 * Returns the name of the level of the world of the journal.
+	 */
+	@Basic @Immutable
+	public String getLevelName(){
+		return this.levelName;
+	}
+
+	/**
+	 * The name of the level of the world of the journal.
+	 */
+	private final String levelName;
+
+	/**
+	 * Reads the next entry of the journal.
+	 * @return The next entry of the journal, null if the journal has no more entries.
+	 * @throws IOException
+	 * 		The entry could not be read, or the journal ends in the middle of an entry, or the entry is of an unknown kind.
+	 */
+	public JournalEntry read() throws IOException{
+		int kind = in.read();
+		if (kind < 0){
+			return null;
+		}
+		if (! JournalEntry.isValidKind((byte) kind)){
+			throw new IOException("unknown journal entry kind " + kind);
+		}
+		try {
+			int worm = -1;
+			double angle = 0;
+			int yield = 0;
+			String name = null;
+			if (JournalEntry.concernsWorm((byte) kind)){
+				worm = in.readUnsignedShort();
+			}
+			if (kind == JournalEntry.TURN){
+				angle = in.readDouble();
+			}
+			else if (kind == JournalEntry.SHOOT){
+				yield = in.readUnsignedByte();
+			}
+			else if ((kind == JournalEntry.RENAME) || (kind == JournalEntry.ADD_TEAM)){
+				name = in.readUTF();
+			}
+			return new JournalEntry((byte) kind, worm, angle, yield, name);
+		}
+		catch (EOFException exc){
+			throw new IOException("journal ends in the middle of an entry", exc);
+		}
+	}
+
+	/**
+	 * Closes the journal.
+	 * @throws IOException
+	 * 		The journal could not be closed.
+	 */
+	public void close() throws IOException{
+		in.close();
+	}
+}
@@ -0,0 +1,131 @@
+package worms.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A class of writers appending the entries of a journal to a stream in a compact binary format.
+ * 	A journal starts with a header holding the magic number, the format version, the seed of the random number generator
+ * 	of the world and the name of the level. Every entry follows as its kind in a single byte,
+ * 	the number of its worm in two bytes if it concerns a worm, and its angle, yield or name if it has one.
+ * 	Entries are appended without seeking, a journal can be read while it is being written.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class JournalWriter {
+
+	/**
+	 * The number every journal starts with.
+	 */
+	public static final int MAGIC = 0x574A524E;
+
+	/**
+	 * The version of the format written by journal writers.
+	 */
+	public static final byte VERSION = 1;
+
+	/**
+	 * Initialize this new journal writer writing to the given stream, and write the header of the journal.
+	 * @param out
+	 * 		The stream to write the journal to.
+	 * @param seed
+	 * 		The seed of the random number generator of the world of the journal.
+	 * @param levelName
+	 * 		The name of the level of the world of the journal.
+	 * @param autoFlush
+	 * 		Whether every entry is flushed to the stream as soon as it is written.
+	 * @throws IllegalArgumentException
+	 * 		The given stream or level name is not effective.
+	 * 		| (out == null) || (levelName == null)
+	 * @throws IOException
+	 * 		The header could not be written.
+	 */
+	public JournalWriter(OutputStream out, long seed, String levelName, boolean autoFlush) throws IllegalArgumentException, IOException{
+		if ((out == null) || (levelName == null)){
+			throw new IllegalArgumentException("invalid journal");
+		}
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.autoFlush = autoFlush;
+		this.out.writeInt(MAGIC);
+		this.out.writeByte(VERSION);
+		this.out.writeLong(seed);
+		this.out.writeUTF(levelName);
+		this.flushIfNeeded();
+	}
+
+	/**
+	 * The stream the journal is written to.
+	 */
+	private final DataOutputStream out;
+
+	/**
+	 * Whether every entry is flushed as soon as it is written.
+	 */
+	private final boolean autoFlush;
+
+	/**
+	 * Appends the given entry to the journal.
+	 * @param entry
+	 * 		The entry to append.
+	 * @throws IllegalArgumentException
+	 * 		The given entry is not effective, or it concerns a worm with a number that does not fit in two bytes,
+	 * 		or it has a yield that does not fit in a byte.
+	 * @throws IOException
+	 * 		The entry could not be written.
+	 */
+	public void write(JournalEntry entry) throws IllegalArgumentException, IOException{
+		if (entry == null){
+			throw new IllegalArgumentException("no entry");
+		}
+		byte kind = entry.getKind();
+		if (JournalEntry.concernsWorm(kind) && ((entry.getWorm() < 0) || (entry.getWorm() > 0xffff))){
+			throw new IllegalArgumentException("invalid worm number " + entry.getWorm());
+		}
+		if ((kind == JournalEntry.SHOOT) && ((entry.getYield() < 0) || (entry.getYield() > 0xff))){
+			throw new IllegalArgumentException("invalid yield " + entry.getYield());
+		}
+		out.writeByte(kind);
+		if (JournalEntry.concernsWorm(kind)){
+			out.writeShort(entry.getWorm());
+		}
+		if (kind == JournalEntry.TURN){
+			out.writeDouble(entry.getAngle());
+		}
+		else if (kind == JournalEntry.SHOOT){
+			out.writeByte(entry.getYield());
+		}
+		else if ((kind == JournalEntry.RENAME) || (kind == JournalEntry.ADD_TEAM)){
+			out.writeUTF(entry.getName());
+		}
+		this.flushIfNeeded();
+	}
+
+	/**
+	 * Flushes all written entries to the underlying stream.
+	 * @throws IOException
+	 * 		The entries could not be flushed.
+	 */
+	public void flush() throws IOException{
+		out.flush();
+	}
+
+	/**
+	 * Flushes and closes the journal.
+	 * @throws IOException
+	 * 		The journal could not be closed.
+	 */
+	public void close() throws IOException{
+		out.close();
+	}
+
+	/**
+	 * Flushes the written entries if every entry has to be flushed as soon as it is written.
+	 */
+	private void flushIfNeeded() throws IOException{
+		if (autoFlush){
+			out.flush();
+		}
+	}
+}
@@ -0,0 +1,281 @@
+package worms.replay;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.gui.GUIConstants;
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Projectile;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class of engines replaying a journal against a fresh world, without a user interface.
+ * 	The world is created from the level and the seed of the journal, every entry is executed through the facade
+ * 	with the same calls the commands of the user interface make, leaving out the animation.
+ * 	As in the user interface, the entries recorded after the game was over are not executed.
+ * 	Entries can be replayed one at a time with step(), or all at once with run().
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class ReplayEngine {
+
+	/**
+	 * Initialize this new replay engine replaying the given journal on the given level through the given facade.
+	 * @param facade
+	 * 		The facade through which the journal is replayed.
+	 * @param level
+	 * 		The level of the journal.
+	 * @param journal
+	 * 		The journal to replay.
+	 * @post The world of this new replay engine is a new world of the given level,
+	 * 		with a random number generator seeded with the seed of the given journal.
+	 * @throws IllegalArgumentException
+	 * 		The given facade, level or journal is not effective.
+	 * 		| (facade == null) || (level == null) || (journal == null)
+	 */
+	public ReplayEngine(IFacade facade, Level level, JournalReader journal) throws IllegalArgumentException{
+		if ((facade == null) || (level == null) || (journal == null)){
+			throw new IllegalArgumentException("invalid replay");
+		}
+		this.facade = facade;
+		this.journal = journal;
+		level.load();
+		this.world = facade.createWorld(level.getWorldWidth(), level.getWorldHeight(), level.getPassableMap(),
+				new Random(journal.getSeed()));
+	}
+
+	/**
+	 * Returns the facade through which the journal is replayed.
+	 */
+	@Basic @Immutable
+	public IFacade getFacade(){
+		return this.facade;
+	}
+
+	/**
+	 * The facade through which the journal is replayed.
+	 */
+	private final IFacade facade;
+
+	/**
+	 * Returns the world the journal is replayed on.
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * The world the journal is replayed on.
+	 */
+	private final World world;
+
+	/**
+	 * The journal being replayed.
+	 */
+	private final JournalReader journal;
+
+	/**
+	 * The numbers of the worms of the world.
+	 */
+	private final WormNumbers wormNumbers = new WormNumbers();
+
+	/**
+	 * Returns the number of entries executed so far.
+	 */
+	@Basic
+	public int getNbExecuted(){
+		return this.nbExecuted;
+	}
+
+	/**
+	 * The number of entries executed so far.
+	 */
+	private int nbExecuted = 0;
+
+	/**
+	 * Checks whether the game of the journal has been started and is over.
+	 */
+	@Basic
+	public boolean isGameOver(){
+		return this.gameOver;
+	}
+
+	/**
+	 * Whether the game of the journal has been started and is over.
+	 */
+	private boolean gameOver = false;
+
+	/**
+	 * Executes the next entry of the journal.
+	 * @return The executed entry, null if the journal has no more entries or the game is over.
+	 * @throws IOException
+	 * 		The journal could not be read.
+	 */
+	public JournalEntry step() throws IOException{
+		if (isGameOver()){
+			return null;
+		}
+		JournalEntry entry = journal.read();
+		if (entry == null){
+			return null;
+		}
+		execute(entry);
+		nbExecuted++;
+		if ((entry.getKind() != JournalEntry.ADD_WORM) && (entry.getKind() != JournalEntry.ADD_FOOD)
+				&& (entry.getKind() != JournalEntry.ADD_TEAM) && getFacade().isGameFinished(getWorld())){
+			gameOver = true;
+		}
+		return entry;
+	}
+
+	/**
+	 * Executes all remaining entries of the journal.
+	 * @return The number of entries executed.
+	 * @throws IOException
+	 * 		The journal could not be read.
+	 */
+	public int run() throws IOException{
+		int executed = 0;
+		while (step() != null){
+			executed++;
+		}
+		return executed;
+	}
+
+	/**
+	 * Executes the given entry on the world, the way the user interface does.
+	 * 	Model exceptions cancel the action, as they cancel the command in the user interface.
+	 * @param entry
+	 * 		The entry to execute.
+	 */
+	@Model
+	private void execute(JournalEntry entry){
+		Worm worm = null;
+		if (JournalEntry.concernsWorm(entry.getKind())){
+			worm = wormNumbers.getWorm(getFacade(), getWorld(), entry.getWorm());
+		}
+		try {
+			switch (entry.getKind()){
+			case JournalEntry.ADD_WORM:
+				getFacade().addNewWorm(getWorld());
+				break;
+			case JournalEntry.ADD_FOOD:
+				getFacade().addNewFood(getWorld());
+				break;
+			case JournalEntry.ADD_TEAM:
+				getFacade().addEmptyTeam(getWorld(), entry.getName());
+				break;
+			case JournalEntry.START_GAME:
+				getFacade().startGame(getWorld());
+				break;
+			case JournalEntry.TURN:
+				if (getFacade().canTurn(worm, entry.getAngle())){
+					getFacade().turn(worm, entry.getAngle());
+				}
+				break;
+			case JournalEntry.MOVE:
+				if (getFacade().canMove(worm)){
+					try {
+						getFacade().move(worm);
+					}
+					catch (ModelException exc){
+						// the user interface still lets the worm fall
+					}
+					if (getFacade().canFall(worm)){
+						getFacade().fall(worm);
+					}
+				}
+				break;
+			case JournalEntry.JUMP:
+				getFacade().getJumpTime(worm, GUIConstants.JUMP_TIME_STEP);
+				getFacade().jump(worm, GUIConstants.JUMP_TIME_STEP);
+				break;
+			case JournalEntry.SHOOT:
+				getFacade().shoot(worm, entry.getYield());
+				Projectile projectile = getFacade().getActiveProjectile(getWorld());
+				if (projectile != null){
+					getFacade().jump(projectile, getFacade().planFlight(projectile, GUIConstants.JUMP_TIME_STEP));
+				}
+				break;
+			case JournalEntry.SELECT_NEXT_WEAPON:
+				getFacade().selectNextWeapon(worm);
+				break;
+			case JournalEntry.RENAME:
+				getFacade().rename(worm, entry.getName());
+				break;
+			case JournalEntry.SELECT_NEXT_WORM:
+				getFacade().startNextTurn(getWorld());
+				break;
+			}
+		}
+		catch (ModelException exc){
+			// the action is cancelled
+		}
+	}
+
+	/**
+	 * Replays the given journals and prints the outcome of every game and the time it took.
+	 * 	With the option -step, every entry is printed and executed after the return key is pressed.
+	 */
+	public static void main(String[] args) throws IOException{
+		boolean stepped = false;
+		BufferedReader console = new BufferedReader(new InputStreamReader(System.in));
+		long start = System.nanoTime();
+		int nbEntries = 0;
+		for (String arg: args){
+			if ("-step".equals(arg)){
+				stepped = true;
+				continue;
+			}
+			JournalReader journal = new JournalReader(new FileInputStream(arg));
+			try {
+				Level level = findLevel(journal.getLevelName());
+				if (level == null){
+					System.err.println(arg + ": no level named " + journal.getLevelName());
+					continue;
+				}
+				IFacade facade = new Facade();
+				ReplayEngine engine = new ReplayEngine(facade, level, journal);
+				if (stepped){
+					JournalEntry entry;
+					while ((console.readLine() != null) && ((entry = engine.step()) != null)){
+						System.out.println(entry);
+					}
+				}
+				engine.run();
+				nbEntries += engine.getNbExecuted();
+				System.out.println(arg + ": " + (engine.isGameOver() ? "won by " + facade.getWinner(engine.getWorld()) : "not over"));
+			}
+			finally {
+				journal.close();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(nbEntries + " entries in " + String.format("%.3f", seconds) + " s");
+	}
+
+	/**
+	 * Returns the available level with the given name.
+	 * @param name
+	 * 		The name of the level.
+	 * @return The level with the given name, null if there is none.
+	 */
+	@Model
+	private static Level findLevel(String name){
+		for (Level level: Level.getAvailableLevels()){
+			if (level.getName().equals(name)){
+				return level;
+			}
+		}
+		return null;
+	}
+}
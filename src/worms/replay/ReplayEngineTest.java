@@ -0,0 +1,116 @@
+package worms.replay;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.GUIConstants;
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.World;
+import worms.model.Worm;
+
+public class ReplayEngineTest {
+
+	@Before
+	public void setUp() throws Exception {
+		level = Level.getAvailableLevels()[0];
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JournalWriter writer = new JournalWriter(out, 11, level.getName(), false);
+		for (JournalEntry entry: entries){
+			writer.write(entry);
+		}
+		writer.close();
+		journal = out.toByteArray();
+	}
+	private Level level;
+	private byte[] journal;
+	private final JournalEntry[] entries = new JournalEntry[]{
+			new JournalEntry(JournalEntry.ADD_WORM, -1, 0, 0, null),
+			new JournalEntry(JournalEntry.ADD_WORM, -1, 0, 0, null),
+			new JournalEntry(JournalEntry.ADD_FOOD, -1, 0, 0, null),
+			new JournalEntry(JournalEntry.START_GAME, -1, 0, 0, null),
+			new JournalEntry(JournalEntry.RENAME, 0, 0, 0, "Replayed"),
+			new JournalEntry(JournalEntry.TURN, 0, 0.75, 0, null),
+			new JournalEntry(JournalEntry.JUMP, 0, 0, 0, null),
+			new JournalEntry(JournalEntry.SELECT_NEXT_WORM, -1, 0, 0, null),
+			new JournalEntry(JournalEntry.SHOOT, 1, 0, 60, null),
+			new JournalEntry(JournalEntry.SELECT_NEXT_WORM, -1, 0, 0, null)};
+
+	@Test
+	public void testRead_RoundTrip() throws IOException{
+		JournalReader reader = new JournalReader(new ByteArrayInputStream(journal));
+		assertEquals(11, reader.getSeed());
+		assertEquals(level.getName(), reader.getLevelName());
+		for (JournalEntry entry: entries){
+			assertEquals(entry, reader.read());
+		}
+		assertNull(reader.read());
+	}
+
+	@Test (expected = IOException.class)
+	public void testRead_Truncated() throws IOException{
+		byte[] truncated = new byte[journal.length - 3];
+		System.arraycopy(journal, 0, truncated, 0, truncated.length);
+		JournalReader reader = new JournalReader(new ByteArrayInputStream(truncated));
+		while (reader.read() != null){
+		}
+	}
+
+	@Test
+	public void testRun_SameAsFacadeCalls() throws IOException{
+		IFacade facade = new Facade();
+		ReplayEngine engine = new ReplayEngine(facade, level, new JournalReader(new ByteArrayInputStream(journal)));
+		assertEquals(entries.length, engine.run());
+
+		World world = facade.createWorld(level.getWorldWidth(), level.getWorldHeight(), level.getPassableMap(), new Random(11));
+		facade.addNewWorm(world);
+		facade.addNewWorm(world);
+		facade.addNewFood(world);
+		facade.startGame(world);
+		List<Worm> worms = new ArrayList<Worm>(facade.getWorms(world));
+		Worm first = worms.get(0);
+		Worm second = worms.get(1);
+		facade.rename(first, "Replayed");
+		if (facade.canTurn(first, 0.75)){
+			facade.turn(first, 0.75);
+		}
+		facade.jump(first, GUIConstants.JUMP_TIME_STEP);
+		facade.startNextTurn(world);
+		facade.shoot(second, 60);
+		if (facade.getActiveProjectile(world) != null){
+			facade.jump(facade.getActiveProjectile(world), GUIConstants.JUMP_TIME_STEP);
+		}
+		facade.startNextTurn(world);
+
+		assertEquals(describe(facade, world), describe(facade, engine.getWorld()));
+	}
+
+	@Test
+	public void testStep_OneEntryAtATime() throws IOException{
+		ReplayEngine engine = new ReplayEngine(new Facade(), level, new JournalReader(new ByteArrayInputStream(journal)));
+		for (int i = 0; i < entries.length; i++){
+			assertEquals(entries[i], engine.step());
+			assertEquals(i + 1, engine.getNbExecuted());
+		}
+		assertNull(engine.step());
+	}
+
+	private static String describe(IFacade facade, World world){
+		String result = "";
+		for (Worm worm: facade.getWorms(world)){
+			result = result + facade.getName(worm) + " " + facade.getX(worm) + " " + facade.getY(worm) + " "
+					+ facade.getOrientation(worm) + " " + facade.getHitPoints(worm) + " " + facade.getActionPoints(worm) + "\n";
+		}
+		return result;
+	}
+}
@@ -0,0 +1,87 @@
+package worms.replay;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import worms.model.IFacade;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class numbering the worms of a world in the order in which they appeared in it.
+ * 	Worms keep their number after they died, so the numbers of a recorded game and of its replay agree.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class WormNumbers {
+
+	/**
+	 * Returns the number of the given worm of the given world.
+	 * @param facade
+	 * 		The facade to look up the worms of the world with.
+	 * @param world
+	 * 		The world of the worm.
+	 * @param worm
+	 * 		The worm to number.
+	 * @return The number of the given worm.
+	 * @throws IllegalArgumentException
+	 * 		The given worm has never been a worm of the given world.
+	 */
+	public int getNumber(IFacade facade, World world, Worm worm) throws IllegalArgumentException{
+		Integer number = numbers.get(worm);
+		if (number == null){
+			numberNewWorms(facade, world);
+			number = numbers.get(worm);
+		}
+		if (number == null){
+			throw new IllegalArgumentException("not a worm of the world");
+		}
+		return number;
+	}
+
+	/**
+	 * Returns the worm of the given world with the given number.
+	 * @param facade
+	 * 		The facade to look up the worms of the world with.
+	 * @param world
+	 * 		The world of the worm.
+	 * @param number
+	 * 		The number of the worm.
+	 * @return The worm with the given number.
+	 * @throws IllegalArgumentException
+	 * 		No worm of the given world has the given number.
+	 */
+	public Worm getWorm(IFacade facade, World world, int number) throws IllegalArgumentException{
+		if (number >= worms.size()){
+			numberNewWorms(facade, world);
+		}
+		if ((number < 0) || (number >= worms.size())){
+			throw new IllegalArgumentException("no worm with number " + number);
+		}
+		return worms.get(number);
+	}
+
+	/**
+	 * Numbers the worms of the given world that have no number yet, in the order of the worms of the world.
+	 */
+	private void numberNewWorms(IFacade facade, World world){
+		for (Worm worm: facade.getWorms(world)){
+			if (! numbers.containsKey(worm)){
+				numbers.put(worm, worms.size());
+				worms.add(worm);
+			}
+		}
+	}
+
+	/**
+	 * The number of every numbered worm.
+	 */
+	private final Map<Worm, Integer> numbers = new IdentityHashMap<Worm, Integer>();
+
+	/**
+	 * The numbered worms, in the order of their numbers.
+	 */
+	private final List<Worm> worms = new ArrayList<Worm>();
+}
@@ -0,0 +1,125 @@
+package worms.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of results of a single game played without a user interface.
+ * @invar The number of turns of a game result is not negative.
+ * 		| getNbTurns() >= 0
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class GameResult {
+
+	/**
+	 * Initialize this new game result with the given seed, winners, number of turns and state.
+	 * @param seed
+	 * 		The seed of the random number generator of the game.
+	 * @param winners
+	 * 		The names of the winning worms of the game, empty if the game did not finish.
+	 * @param nbTurns
+	 * 		The number of turns that were played.
+	 * @param finished
+	 * 		Whether the game finished before the turn limit.
+	 * @param error
+	 * 		The exception that ended the game, null if the game was not ended by an exception.
+	 * @post The winners of this new game result equal the given winners, later changes to the given list do not affect it.
+	 * 		| new.getWinners().equals(winners)
+	 * @throws IllegalArgumentException
+	 * 		The given list of winners is not effective or the given number of turns is negative.
+	 * 		| (winners == null) || (nbTurns < 0)
+	 */
+	public GameResult(long seed, List<String> winners, int nbTurns, boolean finished, RuntimeException error) throws IllegalArgumentException{
+		if ((winners == null) || (nbTurns < 0)){
+			throw new IllegalArgumentException("invalid game result");
+		}
+		this.seed = seed;
+		this.winners = Collections.unmodifiableList(new ArrayList<String>(winners));
+		this.nbTurns = nbTurns;
+		this.finished = finished;
+		this.error = error;
+	}
+
+	/**
+	 * Returns the seed of the random number generator of the game.
+	 */
+	@Basic @Immutable
+	public long getSeed(){
+		return this.seed;
+	}
+
+	/**
+	 * The seed of the random number generator of the game.
+	 */
+	private final long seed;
+
+	/**
+	 * Returns a read-only list of the names of the winning worms of the game, empty if the game did not finish.
+	 */
+	@Basic @Immutable
+	public List<String> getWinners(){
+		return this.winners;
+	}
+
+	/**
+	 * The names of the winning worms of the game.
+	 */
+	private final List<String> winners;
+
+	/**
+	 * Returns the number of turns that were played.
+	 */
+	@Basic @Immutable
+	public int getNbTurns(){
+		return this.nbTurns;
+	}
+
+	/**
+	 * The number of turns that were played.
+	 */
+	private final int nbTurns;
+
+	/**
+	 * Checks whether the game finished before the turn limit.
+	 */
+	@Basic @Immutable
+	public boolean isFinished(){
+		return this.finished;
+	}
+
+	/**
+	 * Whether the game finished before the turn limit.
+	 */
+	private final boolean finished;
+
+	/**
+	 * Returns the exception that ended the game, null if the game was not ended by an exception.
+	 */
+	@Basic @Immutable
+	public RuntimeException getError(){
+		return this.error;
+	}
+
+	/**
+	 * The exception that ended the game.
+	 */
+	private final RuntimeException error;
+
+	/**
+	 * Return a textual representation of this game result.
+	 */
+	@Override
+	public String toString(){
+		if (getError() != null){
+			return "seed " + getSeed() + ": error after " + getNbTurns() + " turns (" + getError() + ")";
+		}
+		if (! isFinished()){
+			return "seed " + getSeed() + ": unfinished after " + getNbTurns() + " turns";
+		}
+		return "seed " + getSeed() + ": won by " + getWinners() + " after " + getNbTurns() + " turns";
+	}
+}
@@ -0,0 +1,122 @@
+package worms.simulation;
+
+import java.util.Random;
+
+import worms.gui.GUIConstants;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Projectile;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class of turn strategies that let a worm turn in a random direction and then shoot, jump or move at random.
+ * 	A worm keeps acting until it has performed the maximum number of actions per turn or an action is refused.
+ * @invar The maximum number of actions per turn is positive.
+ * 		| getMaxActionsPerTurn() > 0
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class RandomTurnStrategy implements TurnStrategy {
+
+	/**
+	 * Initialize this new random turn strategy with the given maximum number of actions per turn.
+	 * @param maxActionsPerTurn
+	 * 		The largest number of actions a worm performs during a single turn.
+	 * @post The maximum number of actions per turn of this new strategy equals the given number.
+	 * 		| new.getMaxActionsPerTurn() == maxActionsPerTurn
+	 * @throws IllegalArgumentException
+	 * 		The given number is not positive.
+	 * 		| maxActionsPerTurn <= 0
+	 */
+	public RandomTurnStrategy(int maxActionsPerTurn) throws IllegalArgumentException{
+		if (maxActionsPerTurn <= 0){
+			throw new IllegalArgumentException("invalid number of actions per turn");
+		}
+		this.maxActionsPerTurn = maxActionsPerTurn;
+	}
+
+	/**
+	 * Initialize this new random turn strategy with three actions per turn.
+	 * @effect This new strategy is initialized with three actions per turn.
+	 * 		| this(3)
+	 */
+	public RandomTurnStrategy(){
+		this(3);
+	}
+
+	/**
+	 * Returns the largest number of actions a worm performs during a single turn.
+	 */
+	public int getMaxActionsPerTurn(){
+		return this.maxActionsPerTurn;
+	}
+
+	/**
+	 * The largest number of actions a worm performs during a single turn.
+	 */
+	private final int maxActionsPerTurn;
+
+	/**
+	 * Plays the turn of the given worm.
+	 * 	Every action first turns the worm over a random angle if it can, then shoots with a random yield in half of the cases,
+	 * 	jumps in a quarter of the cases and moves (and falls) otherwise.
+	 */
+	@Override
+	public void playTurn(IFacade facade, World world, Worm worm, Random random){
+		if ((worm == null) || (! facade.isAlive(worm))){
+			return;
+		}
+		try {
+			for (int action = 0; action < getMaxActionsPerTurn(); action++){
+				if ((! facade.isAlive(worm)) || (facade.getActionPoints(worm) == 0) || (facade.isGameFinished(world))){
+					return;
+				}
+				double angle = (random.nextDouble() * 2 - 1) * Math.PI;
+				if (facade.canTurn(worm, angle)){
+					facade.turn(worm, angle);
+				}
+				double choice = random.nextDouble();
+				if (choice < 0.5){
+					shoot(facade, world, worm, random);
+				}
+				else if (choice < 0.75){
+					facade.jump(worm, GUIConstants.JUMP_TIME_STEP);
+				}
+				else {
+					move(facade, worm);
+				}
+			}
+		}
+		catch (ModelException exc){
+			// the action was refused, the turn of this worm ends
+		}
+	}
+
+	/**
+	 * Lets the given worm shoot with a random weapon and yield, and lets the projectile fly.
+	 */
+	private void shoot(IFacade facade, World world, Worm worm, Random random){
+		if (random.nextBoolean()){
+			facade.selectNextWeapon(worm);
+		}
+		facade.shoot(worm, random.nextInt(101));
+		Projectile projectile = facade.getActiveProjectile(world);
+		if (projectile != null){
+			facade.jump(projectile, GUIConstants.JUMP_TIME_STEP);
+		}
+	}
+
+	/**
+	 * Lets the given worm move if it can, and fall afterwards if it can.
+	 */
+	private void move(IFacade facade, Worm worm){
+		if (! facade.canMove(worm)){
+			return;
+		}
+		facade.move(worm);
+		if (facade.isAlive(worm) && facade.canFall(worm)){
+			facade.fall(worm);
+		}
+	}
+}
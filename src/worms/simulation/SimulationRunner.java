@@ -0,0 +1,303 @@
+package worms.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class of simulation runners playing games on a level through a facade, without a user interface and as fast as possible.
+ * 	The level is loaded once, every game gets a world of its own with a random number generator seeded with the seed of the game.
+ * @invar The number of worms, the number of food and the maximum number of turns of a simulation runner are not negative.
+ * 		| (getNbWorms() >= 0) && (getNbFood() >= 0) && (getMaxTurns() >= 0)
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class SimulationRunner {
+
+	/**
+	 * Initialize this new simulation runner.
+	 * @param facade
+	 * 		The facade through which the games are played.
+	 * @param level
+	 * 		The level on which the games are played.
+	 * @param nbWorms
+	 * 		The number of worms added to every game.
+	 * @param nbFood
+	 * 		The number of food added to every game.
+	 * @param maxTurns
+	 * 		The number of turns after which a game is abandoned.
+	 * @param strategy
+	 * 		The strategy deciding the actions of the worms.
+	 * @post The level of this new simulation runner is loaded.
+	 * @throws IllegalArgumentException
+	 * 		The given facade, level or strategy is not effective, or one of the given numbers is negative.
+	 * 		| (facade == null) || (level == null) || (strategy == null) || (nbWorms < 0) || (nbFood < 0) || (maxTurns < 0)
+	 */
+	public SimulationRunner(IFacade facade, Level level, int nbWorms, int nbFood, int maxTurns, TurnStrategy strategy)
+			throws IllegalArgumentException{
+		if ((facade == null) || (level == null) || (strategy == null) || (nbWorms < 0) || (nbFood < 0) || (maxTurns < 0)){
+			throw new IllegalArgumentException("invalid simulation");
+		}
+		this.facade = facade;
+		this.level = level;
+		this.nbWorms = nbWorms;
+		this.nbFood = nbFood;
+		this.maxTurns = maxTurns;
+		this.strategy = strategy;
+		level.load();
+		this.passableMap = level.getPassableMap();
+	}
+
+	/**
+	 * Returns the facade through which the games are played.
+	 */
+	@Basic @Immutable
+	public IFacade getFacade(){
+		return this.facade;
+	}
+
+	/**
+	 * The facade through which the games are played.
+	 */
+	private final IFacade facade;
+
+	/**
+	 * Returns the level on which the games are played.
+	 */
+	@Basic @Immutable
+	public Level getLevel(){
+		return this.level;
+	}
+
+	/**
+	 * The level on which the games are played.
+	 */
+	private final Level level;
+
+	/**
+	 * The passable map of the level, shared by all games since worlds copy it.
+	 */
+	private final boolean[][] passableMap;
+
+	/**
+	 * Returns the number of worms added to every game.
+	 */
+	@Basic @Immutable
+	public int getNbWorms(){
+		return this.nbWorms;
+	}
+
+	/**
+	 * The number of worms added to every game.
+	 */
+	private final int nbWorms;
+
+	/**
+	 * Returns the number of food added to every game.
+	 */
+	@Basic @Immutable
+	public int getNbFood(){
+		return this.nbFood;
+	}
+
+	/**
+	 * The number of food added to every game.
+	 */
+	private final int nbFood;
+
+	/**
+	 * Returns the number of turns after which a game is abandoned.
+	 */
+	@Basic @Immutable
+	public int getMaxTurns(){
+		return this.maxTurns;
+	}
+
+	/**
+	 * The number of turns after which a game is abandoned.
+	 */
+	private final int maxTurns;
+
+	/**
+	 * Returns the strategy deciding the actions of the worms.
+	 */
+	@Basic @Immutable
+	public TurnStrategy getStrategy(){
+		return this.strategy;
+	}
+
+	/**
+	 * The strategy deciding the actions of the worms.
+	 */
+	private final TurnStrategy strategy;
+
+	/**
+	 * Plays a single game with the given seed.
+	 * 	The worms and food are added at once, those for which no free position is found are left out, exceptions escaping the facade end the game.
+	 * 	The worms are named after the order in which they were added, "Worm 1" being the first.
+	 * 	Games share no mutable state, so games can be played in different threads at the same time.
+	 * @param seed
+	 * 		The seed of the random number generators of the game.
+	 * @return The result of the game with the given seed, the same for the same seed.
+	 * 		| result.getSeed() == seed
+	 */
+	public GameResult playGame(long seed){
+		return playGame(seed, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Plays a single game with the given seed, computing the spawn positions of its world on the given number of threads.
+	 * 	Games played next to each other should use a single thread each.
+	 * @param seed
+	 * 		The seed of the random number generators of the game.
+	 * @param nbSpawnThreads
+	 * 		The number of threads on which the spawn positions are computed.
+	 * @return The same result as the game with the given seed on any other number of threads.
+	 * 		| result equals playGame(seed)
+	 * @throws IllegalArgumentException
+	 * 		The given number of threads is not positive.
+	 * 		| nbSpawnThreads < 1
+	 */
+	public GameResult playGame(long seed, int nbSpawnThreads) throws IllegalArgumentException{
+		if (nbSpawnThreads < 1){
+			throw new IllegalArgumentException("invalid number of spawn threads");
+		}
+		Random random = new Random(seed);
+		int turns = 0;
+		try {
+			World world = getFacade().createWorld(getLevel().getWorldWidth(), getLevel().getWorldHeight(), passableMap, random);
+			world.setNbSpawnThreads(nbSpawnThreads);
+			getFacade().populate(world, getNbWorms(), getNbFood());
+			int number = 1;
+			for (Worm worm: new ArrayList<Worm>(getFacade().getWorms(world))){
+				getFacade().rename(worm, "Worm " + number);
+				number = number + 1;
+			}
+			getFacade().startGame(world);
+			while ((! getFacade().isGameFinished(world)) && (turns < getMaxTurns())){
+				getStrategy().playTurn(getFacade(), world, getFacade().getCurrentWorm(world), random);
+				turns = turns + 1;
+				if (! getFacade().isGameFinished(world)){
+					getFacade().startNextTurn(world);
+				}
+			}
+			if (! getFacade().isGameFinished(world)){
+				return new GameResult(seed, new ArrayList<String>(), turns, false, null);
+			}
+			List<String> winners = new ArrayList<String>();
+			for (Worm worm: world.getWinningWorms()){
+				winners.add(getFacade().getName(worm));
+			}
+			return new GameResult(seed, winners, turns, true, null);
+		}
+		catch (RuntimeException exc){
+			return new GameResult(seed, new ArrayList<String>(), turns, false, exc);
+		}
+	}
+
+	/**
+	 * Plays the given number of games with consecutive seeds, one after the other.
+	 * @param nbGames
+	 * 		The number of games to play.
+	 * @param firstSeed
+	 * 		The seed of the first game.
+	 * @return The results of the games in the order of their seeds.
+	 * 		| for each i in 0..nbGames-1:
+	 * 		|	result.get(i).getSeed() == firstSeed + i
+	 * @throws IllegalArgumentException
+	 * 		The given number of games is negative.
+	 * 		| nbGames < 0
+	 */
+	public List<GameResult> playGames(int nbGames, long firstSeed) throws IllegalArgumentException{
+		if (nbGames < 0){
+			throw new IllegalArgumentException("invalid number of games");
+		}
+		List<GameResult> results = new ArrayList<GameResult>(nbGames);
+		for (int i = 0; i < nbGames; i++){
+			results.add(playGame(firstSeed + i));
+		}
+		return results;
+	}
+
+	/**
+	 * Plays a batch of games and prints the number of games per second.
+	 * 	Options are -level name, -games number, -worms number, -food number, -turns number, -seed number and -verbose.
+	 */
+	public static void main(String[] args){
+		String levelName = null;
+		int nbGames = 100;
+		int nbWorms = 4;
+		int nbFood = 2;
+		int maxTurns = 200;
+		long seed = 0;
+		boolean verbose = false;
+		for (int i = 0; i < args.length; i++){
+			String arg = args[i];
+			if ("-level".equals(arg)){
+				levelName = args[++i];
+			} else if ("-games".equals(arg)){
+				nbGames = Integer.parseInt(args[++i]);
+			} else if ("-worms".equals(arg)){
+				nbWorms = Integer.parseInt(args[++i]);
+			} else if ("-food".equals(arg)){
+				nbFood = Integer.parseInt(args[++i]);
+			} else if ("-turns".equals(arg)){
+				maxTurns = Integer.parseInt(args[++i]);
+			} else if ("-seed".equals(arg)){
+				seed = Long.parseLong(args[++i]);
+			} else if ("-verbose".equals(arg)){
+				verbose = true;
+			}
+		}
+		Level level = findLevel(levelName);
+		if (level == null){
+			System.err.println("no level named " + levelName);
+			System.exit(1);
+		}
+		SimulationRunner runner = new SimulationRunner(new Facade(), level, nbWorms, nbFood, maxTurns, new RandomTurnStrategy());
+		long start = System.nanoTime();
+		List<GameResult> results = runner.playGames(nbGames, seed);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		int finished = 0;
+		int errors = 0;
+		long turns = 0;
+		for (GameResult result: results){
+			if (result.isFinished()){
+				finished++;
+			}
+			if (result.getError() != null){
+				errors++;
+			}
+			turns += result.getNbTurns();
+			if (verbose){
+				System.out.println(result);
+			}
+		}
+		System.out.println(level.getName() + ": " + nbGames + " games (" + finished + " finished, " + errors + " errors, "
+				+ turns + " turns) in " + String.format("%.3f", seconds) + " s, "
+				+ String.format("%.1f", nbGames / seconds) + " games/s");
+	}
+
+	/**
+	 * Returns the available level with the given name, or the first available level if the given name is null.
+	 * @param name
+	 * 		The name of the level.
+	 * @return The level with the given name, null if there is none.
+	 */
+	@Model
+	private static Level findLevel(String name){
+		for (Level level: Level.getAvailableLevels()){
+			if ((name == null) || name.equals(level.getName())){
+				return level;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,42 @@
+package worms.simulation;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.Level;
+import worms.model.Facade;
+
+public class SimulationRunnerTest {
+
+	@Before
+	public void setUp() throws Exception {
+		runner = new SimulationRunner(new Facade(), Level.getAvailableLevels()[0], 3, 1, 20, new RandomTurnStrategy());
+	}
+	private SimulationRunner runner;
+
+	@Test
+	public void testPlayGames(){
+		List<GameResult> results = runner.playGames(3, 5);
+		assertEquals(3, results.size());
+		for (int i = 0; i < 3; i++){
+			GameResult result = results.get(i);
+			assertEquals(5 + i, result.getSeed());
+			assertNull(result.getError());
+			assertTrue(result.getNbTurns() <= 20);
+		}
+	}
+
+	@Test
+	public void testPlayGame_Deterministic(){
+		assertEquals(runner.playGame(7).toString(), runner.playGame(7).toString());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructor_IllegalCase(){
+		new SimulationRunner(new Facade(), Level.getAvailableLevels()[0], -1, 1, 20, new RandomTurnStrategy());
+	}
+}
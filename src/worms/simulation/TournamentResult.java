@@ -0,0 +1,121 @@
+package worms.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of results of a tournament of games played without a user interface.
+ * 	The number of wins of a worm counts the finished games in which it was one of the winners.
+ * @invar The elapsed time of a tournament result is not negative.
+ * 		| getElapsedNanos() >= 0
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class TournamentResult {
+
+	/**
+	 * Initialize this new tournament result with the given game results and elapsed time.
+	 * @param results
+	 * 		The results of the games of the tournament, in the order of their seeds.
+	 * @param elapsedNanos
+	 * 		The time it took to play the tournament (in nanoseconds).
+	 * @post The game results of this new tournament result equal the given results.
+	 * 		| new.getGameResults().equals(results)
+	 * @post The elapsed time of this new tournament result equals the given time.
+	 * 		| new.getElapsedNanos() == elapsedNanos
+	 * @throws IllegalArgumentException
+	 * 		The given results are not effective or the given time is negative.
+	 * 		| (results == null) || (elapsedNanos < 0)
+	 */
+	public TournamentResult(List<GameResult> results, long elapsedNanos) throws IllegalArgumentException{
+		if ((results == null) || (elapsedNanos < 0)){
+			throw new IllegalArgumentException("invalid tournament result");
+		}
+		this.results = Collections.unmodifiableList(new ArrayList<GameResult>(results));
+		this.elapsedNanos = elapsedNanos;
+		for (GameResult result: results){
+			for (String winner: result.getWinners()){
+				Integer wins = this.wins.get(winner);
+				this.wins.put(winner, (wins == null) ? 1 : wins + 1);
+			}
+		}
+	}
+
+	/**
+	 * Returns a read-only list of the results of the games of this tournament, in the order of their seeds.
+	 */
+	@Basic @Immutable
+	public List<GameResult> getGameResults(){
+		return this.results;
+	}
+
+	/**
+	 * The results of the games of this tournament.
+	 */
+	private final List<GameResult> results;
+
+	/**
+	 * Returns the time it took to play this tournament (in nanoseconds).
+	 */
+	@Basic @Immutable
+	public long getElapsedNanos(){
+		return this.elapsedNanos;
+	}
+
+	/**
+	 * The time it took to play this tournament.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * Returns the number of games played per second.
+	 * @return The number of games divided by the elapsed time in seconds.
+	 * 		| result == getGameResults().size() / (getElapsedNanos() / 1e9)
+	 */
+	public double getGamesPerSecond(){
+		return getGameResults().size() / (getElapsedNanos() / 1e9);
+	}
+
+	/**
+	 * Returns the number of games of this tournament that finished before the turn limit.
+	 */
+	public int getNbFinished(){
+		int finished = 0;
+		for (GameResult result: getGameResults()){
+			if (result.isFinished()){
+				finished++;
+			}
+		}
+		return finished;
+	}
+
+	/**
+	 * Returns the number of games of this tournament that were ended by an exception.
+	 */
+	public int getNbErrors(){
+		int errors = 0;
+		for (GameResult result: getGameResults()){
+			if (result.getError() != null){
+				errors++;
+			}
+		}
+		return errors;
+	}
+
+	/**
+	 * Returns a read-only map from the name of every worm that won a game to the number of games it won, sorted by name.
+	 */
+	public Map<String, Integer> getWins(){
+		return Collections.unmodifiableMap(this.wins);
+	}
+
+	/**
+	 * The number of games won per name of a winning worm.
+	 */
+	private final Map<String, Integer> wins = new TreeMap<String, Integer>();
+}
@@ -0,0 +1,204 @@
+package worms.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import be.kuleuven.cs.som.annotate.*;
+import worms.gui.Level;
+import worms.model.Facade;
+
+/**
+ * A class of tournament runners playing the games of a simulation runner concurrently on a fixed pool of threads.
+ * 	Every game has its own world with its own seeded random number generator, and worlds share no mutable state,
+ * 	so a tournament has the same results for every number of threads.
+ * @invar The number of threads of a tournament runner is positive.
+ * 		| getNbThreads() > 0
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public class TournamentRunner {
+
+	/**
+	 * Initialize this new tournament runner with the given simulation runner and number of threads.
+	 * @param runner
+	 * 		The simulation runner playing the games.
+	 * @param nbThreads
+	 * 		The number of games played at the same time.
+	 * @post The simulation runner of this new tournament runner is the given runner.
+	 * 		| new.getSimulationRunner() == runner
+	 * @post The number of threads of this new tournament runner equals the given number.
+	 * 		| new.getNbThreads() == nbThreads
+	 * @throws IllegalArgumentException
+	 * 		The given runner is not effective or the given number of threads is not positive.
+	 * 		| (runner == null) || (nbThreads <= 0)
+	 */
+	public TournamentRunner(SimulationRunner runner, int nbThreads) throws IllegalArgumentException{
+		if ((runner == null) || (nbThreads <= 0)){
+			throw new IllegalArgumentException("invalid tournament");
+		}
+		this.runner = runner;
+		this.nbThreads = nbThreads;
+	}
+
+	/**
+	 * Returns the simulation runner playing the games of this tournament runner.
+	 */
+	@Basic @Immutable
+	public SimulationRunner getSimulationRunner(){
+		return this.runner;
+	}
+
+	/**
+	 * The simulation runner playing the games.
+	 */
+	private final SimulationRunner runner;
+
+	/**
+	 * Returns the number of games this tournament runner plays at the same time.
+	 */
+	@Basic @Immutable
+	public int getNbThreads(){
+		return this.nbThreads;
+	}
+
+	/**
+	 * The number of games played at the same time.
+	 */
+	private final int nbThreads;
+
+	/**
+	 * Plays a tournament of the given number of games with consecutive seeds.
+	 * 	The games already fill the threads of this tournament runner, so every game computes its spawn positions in its own thread.
+	 * @param nbGames
+	 * 		The number of games to play.
+	 * @param firstSeed
+	 * 		The seed of the first game.
+	 * @return A tournament result with the same game results as playing the games one after the other.
+	 * 		| result.getGameResults() equals getSimulationRunner().playGames(nbGames, firstSeed)
+	 * @throws IllegalArgumentException
+	 * 		The given number of games is negative.
+	 * 		| nbGames < 0
+	 * @throws IllegalStateException
+	 * 		The thread playing the tournament was interrupted.
+	 */
+	public TournamentResult play(int nbGames, long firstSeed) throws IllegalArgumentException, IllegalStateException{
+		if (nbGames < 0){
+			throw new IllegalArgumentException("invalid number of games");
+		}
+		List<Callable<GameResult>> games = new ArrayList<Callable<GameResult>>(nbGames);
+		for (int i = 0; i < nbGames; i++){
+			final long seed = firstSeed + i;
+			games.add(new Callable<GameResult>(){
+				@Override
+				public GameResult call(){
+					return getSimulationRunner().playGame(seed, 1);
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(getNbThreads());
+		try {
+			long start = System.nanoTime();
+			List<GameResult> results = new ArrayList<GameResult>(nbGames);
+			for (Future<GameResult> future: executor.invokeAll(games)){
+				results.add(future.get());
+			}
+			return new TournamentResult(results, System.nanoTime() - start);
+		}
+		catch (InterruptedException exc){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("tournament interrupted", exc);
+		}
+		catch (ExecutionException exc){
+			throw new IllegalStateException("game failed", exc.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Benchmarks tournaments on a level for an increasing number of threads, up to the number of available processors.
+	 * 	Options are -level name (Skulls by default), -games number, -worms number, -food number, -turns number,
+	 * 	-seed number and -threads number (the largest number of threads).
+	 * 	The benchmark fails if a tournament has other results than the tournament with a single thread.
+	 */
+	public static void main(String[] args){
+		String levelName = "Skulls";
+		int nbGames = 32;
+		int nbWorms = 4;
+		int nbFood = 2;
+		int maxTurns = 100;
+		long seed = 0;
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		for (int i = 0; i < args.length; i++){
+			String arg = args[i];
+			if ("-level".equals(arg)){
+				levelName = args[++i];
+			} else if ("-games".equals(arg)){
+				nbGames = Integer.parseInt(args[++i]);
+			} else if ("-worms".equals(arg)){
+				nbWorms = Integer.parseInt(args[++i]);
+			} else if ("-food".equals(arg)){
+				nbFood = Integer.parseInt(args[++i]);
+			} else if ("-turns".equals(arg)){
+				maxTurns = Integer.parseInt(args[++i]);
+			} else if ("-seed".equals(arg)){
+				seed = Long.parseLong(args[++i]);
+			} else if ("-threads".equals(arg)){
+				maxThreads = Integer.parseInt(args[++i]);
+			}
+		}
+		Level level = null;
+		for (Level candidate: Level.getAvailableLevels()){
+			if (candidate.getName().equals(levelName)){
+				level = candidate;
+			}
+		}
+		if (level == null){
+			System.err.println("no level named " + levelName);
+			System.exit(1);
+		}
+		SimulationRunner runner = new SimulationRunner(new Facade(), level, nbWorms, nbFood, maxTurns, new RandomTurnStrategy());
+		// warm up the virtual machine before timing
+		new TournamentRunner(runner, 1).play(Math.max(1, nbGames / 4), seed);
+		TournamentResult reference = null;
+		for (int threads = 1; threads <= maxThreads; threads = (threads < maxThreads) ? Math.min(2 * threads, maxThreads) : threads + 1){
+			TournamentResult result = new TournamentRunner(runner, threads).play(nbGames, seed);
+			if (reference == null){
+				reference = result;
+			}
+			else if (! sameOutcome(reference, result)){
+				System.err.println(threads + " threads: results differ from a single thread");
+				System.exit(1);
+			}
+			System.out.println(level.getName() + ", " + threads + " threads: " + nbGames + " games in "
+					+ String.format("%.3f", result.getElapsedNanos() / 1e9) + " s, "
+					+ String.format("%.2f", result.getGamesPerSecond()) + " games/s, speedup "
+					+ String.format("%.2f", result.getGamesPerSecond() / reference.getGamesPerSecond()));
+		}
+		System.out.println("finished " + reference.getNbFinished() + ", errors " + reference.getNbErrors() + ", wins " + reference.getWins());
+	}
+
+	/**
+	 * Checks whether the given tournament results have the same outcome for every game.
+	 */
+	@Model
+	private static boolean sameOutcome(TournamentResult first, TournamentResult second){
+		List<GameResult> firstResults = first.getGameResults();
+		List<GameResult> secondResults = second.getGameResults();
+		if (firstResults.size() != secondResults.size()){
+			return false;
+		}
+		for (int i = 0; i < firstResults.size(); i++){
+			if (! firstResults.get(i).toString().equals(secondResults.get(i).toString())){
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,42 @@
+package worms.simulation;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.gui.Level;
+import worms.model.Facade;
+
+public class TournamentRunnerTest {
+
+	@Before
+	public void setUp() throws Exception {
+		runner = new SimulationRunner(new Facade(), Level.getAvailableLevels()[0], 3, 1, 20, new RandomTurnStrategy());
+	}
+	private SimulationRunner runner;
+
+	@Test
+	public void testPlay_SameAsSequential(){
+		List<GameResult> sequential = runner.playGames(4, 11);
+		TournamentResult tournament = new TournamentRunner(runner, 3).play(4, 11);
+		assertEquals(4, tournament.getGameResults().size());
+		int wins = 0;
+		for (int i = 0; i < 4; i++){
+			assertEquals(sequential.get(i).toString(), tournament.getGameResults().get(i).toString());
+			wins += sequential.get(i).getWinners().size();
+		}
+		int counted = 0;
+		for (int count: tournament.getWins().values()){
+			counted += count;
+		}
+		assertEquals(wins, counted);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void testConstructor_IllegalCase(){
+		new TournamentRunner(runner, 0);
+	}
+}
@@ -0,0 +1,30 @@
+package worms.simulation;
+
+import java.util.Random;
+
+import worms.model.IFacade;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * An interface for strategies that decide the actions of a worm during its turn in a game without a user interface.
+ * @author Cleemput Enrico en Van Buggenhout Niel
+ * @version 1.0
+ */
+public interface TurnStrategy {
+
+	/**
+	 * Plays the turn of the given worm in the given world.
+	 * 	Actions that are not allowed are reported by the facade as model exceptions,
+	 * 	a strategy ends the turn when it can no longer act.
+	 * @param facade
+	 * 		The facade through which the worm acts.
+	 * @param world
+	 * 		The world the worm plays in.
+	 * @param worm
+	 * 		The worm whose turn it is.
+	 * @param random
+	 * 		The random number generator of the game, the only source of randomness the strategy may use.
+	 */
+	public void playTurn(IFacade facade, World world, Worm worm, Random random);
+}